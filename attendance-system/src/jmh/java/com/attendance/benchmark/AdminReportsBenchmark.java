@@ -0,0 +1,83 @@
+package com.attendance.benchmark;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.service.AttendanceRollupService;
+import com.attendance.service.AttendanceService;
+import com.attendance.service.EmployeeReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The admin reports present/absent totals over a month of 400 employees (12k+ rows),
+ * counted from the loaded range versus summed from the monthly rollup, and the per-employee
+ * and per-department summaries of the fork/join report engine over the same month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminReportsBenchmark {
+
+    private static final int USERS = 400;
+
+    private final YearMonth month = YearMonth.now().minusMonths(1);
+
+    private ConfigurableApplicationContext context;
+    private AttendanceService attendanceService;
+    private AttendanceRollupService rollupService;
+    private EmployeeReportService employeeReportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        attendanceService = context.getBean(AttendanceService.class);
+        rollupService = context.getBean(AttendanceRollupService.class);
+        employeeReportService = context.getBean(EmployeeReportService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seedMonth(jdbc, BenchmarkData.seedUsers(jdbc, "report", USERS), month);
+        rollupService.rebuild(month);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void rangeAggregation(Blackhole blackhole) {
+        List<Attendance> rows = attendanceService.getAttendanceByDateRange(month.atDay(1), month.atEndOfMonth());
+        blackhole.consume(rows.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
+        blackhole.consume(rows.stream().filter(a -> "ABSENT".equals(a.getStatus())).count());
+    }
+
+    @Benchmark
+    public void rollupAggregation(Blackhole blackhole) {
+        List<MonthlyAttendanceRollup> rollups = rollupService.getMonthRollups(month);
+        blackhole.consume(rollups.stream().mapToLong(MonthlyAttendanceRollup::getPresentDays).sum());
+        blackhole.consume(rollups.stream().mapToLong(MonthlyAttendanceRollup::getAbsentDays).sum());
+    }
+
+    @Benchmark
+    public void employeeReport(Blackhole blackhole) {
+        blackhole.consume(employeeReportService.getReport(month.atDay(1), month.atEndOfMonth()));
+    }
+}
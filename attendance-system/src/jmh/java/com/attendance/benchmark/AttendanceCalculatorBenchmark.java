@@ -0,0 +1,55 @@
+package com.attendance.benchmark;
+
+import com.attendance.entity.Attendance;
+import com.attendance.service.AttendanceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceCalculatorBenchmark {
+
+    private static final int SHIFTS = 1024;
+
+    private final Attendance[] shifts = new Attendance[SHIFTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < SHIFTS; i++) {
+            Attendance attendance = new Attendance();
+            attendance.setPunchIn(today.atTime(8, 45).plusMinutes(i % 90));
+            attendance.setPunchOut(attendance.getPunchIn().plusMinutes(420 + i % 180));
+            shifts[i] = attendance;
+        }
+    }
+
+    @Benchmark
+    public Integer lateMinutes() {
+        LocalDateTime punchIn = shifts[next++ & (SHIFTS - 1)].getPunchIn();
+        return AttendanceCalculator.lateMinutes(punchIn.toLocalTime());
+    }
+
+    @Benchmark
+    public Double hoursAndOvertime() {
+        Attendance attendance = shifts[next++ & (SHIFTS - 1)];
+        AttendanceCalculator.applyHours(attendance);
+        return attendance.getOvertimeHours();
+    }
+}
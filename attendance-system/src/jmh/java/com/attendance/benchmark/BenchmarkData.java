@@ -0,0 +1,89 @@
+package com.attendance.benchmark;
+
+import com.attendance.AttendanceSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against the embedded H2 (MySQL mode) database from the test
+ * resources and seeds it with plain JDBC batches, so setup stays out of the measurements.
+ */
+final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Maria", "Priya", "John", "Anna", "Rahul", "Sofia", "David", "Meera", "Omar"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Lopez", "Raman", "Smith", "Marino", "Kumar", "Rossi", "Brown", "Iyer", "Haddad"
+    };
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "HR", "Finance"};
+
+    private BenchmarkData() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(AttendanceSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=WARN", "logging.level.com.attendance=WARN",
+                        "attendance.ingestion.write-behind=false",
+                        "spring.datasource.url=jdbc:h2:mem:attendance_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "NON_KEYWORDS=USER,VALUE,MONTH,YEAR;DB_CLOSE_ON_EXIT=FALSE")
+                .run();
+    }
+
+    static List<Long> seedUsers(JdbcTemplate jdbc, String prefix, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = prefix + i;
+            rows.add(new Object[] {
+                    username, "secret", username + "@company.com",
+                    FIRST_NAMES[i % FIRST_NAMES.length], LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length],
+                    prefix.toUpperCase() + String.format("%05d", i), "EMPLOYEE",
+                    DEPARTMENTS[i % DEPARTMENTS.length], true, Timestamp.valueOf(now), Timestamp.valueOf(now)
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, email, first_name, last_name, employee_id, " +
+                "role, department, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class, prefix + "%");
+    }
+
+    // One row per user per day; every tenth day absent, every seventh half day, the rest present
+    static int seedMonth(JdbcTemplate jdbc, List<Long> userIds, YearMonth month) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                LocalDate date = month.atDay(day);
+                int seed = (int) (userId * 31 + day);
+                if (seed % 10 == 0) {
+                    rows.add(new Object[] {userId, Date.valueOf(date), null, null, null, "ABSENT", null, null});
+                    continue;
+                }
+                LocalDateTime punchIn = date.atTime(9, 0).plusMinutes(seed % 60);
+                double hours = seed % 7 == 0 ? 4.5 : 8 + (seed % 5) * 0.25;
+                LocalDateTime punchOut = punchIn.plusMinutes((long) (hours * 60));
+                int late = punchIn.toLocalTime().isAfter(LocalTime.of(9, 30))
+                        ? (int) Duration.between(date.atTime(9, 30), punchIn).toMinutes() : 0;
+                rows.add(new Object[] {
+                        userId, Date.valueOf(date), Timestamp.valueOf(punchIn), Timestamp.valueOf(punchOut), hours,
+                        seed % 7 == 0 ? "HALF_DAY" : "PRESENT", late > 0 ? late : null, hours > 8 ? hours - 8 : null
+                });
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO attendance (user_id, attendance_date, punch_in, punch_out, total_hours, " +
+                "status, late_minutes, overtime_hours) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return rows.size();
+    }
+}
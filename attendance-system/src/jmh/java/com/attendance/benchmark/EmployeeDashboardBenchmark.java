@@ -0,0 +1,83 @@
+package com.attendance.benchmark;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.service.AttendanceRollupService;
+import com.attendance.service.AttendanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The employee dashboard's month figures: summed from a month of raw rows, as the page
+ * used to, versus read from the per-user rollup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeDashboardBenchmark {
+
+    private static final int USERS = 200;
+
+    private final YearMonth month = YearMonth.now().minusMonths(1);
+
+    private ConfigurableApplicationContext context;
+    private AttendanceService attendanceService;
+    private AttendanceRollupService rollupService;
+    private List<Long> userIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        attendanceService = context.getBean(AttendanceService.class);
+        rollupService = context.getBean(AttendanceRollupService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        userIds = BenchmarkData.seedUsers(jdbc, "dash", USERS);
+        BenchmarkData.seedMonth(jdbc, userIds, month);
+        rollupService.rebuild(month);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void rawMonthAggregation(Blackhole blackhole) {
+        List<Attendance> rows = attendanceService.getUserAttendance(
+                nextUser(), month.atDay(1), month.atEndOfMonth());
+        blackhole.consume(rows.stream().filter(a -> "PRESENT".equals(a.getStatus())).count());
+        blackhole.consume(rows.stream().filter(a -> "ABSENT".equals(a.getStatus())).count());
+        blackhole.consume(rows.stream().map(Attendance::getTotalHours).filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue).sum());
+    }
+
+    @Benchmark
+    public MonthlyAttendanceRollup rollupLookup() {
+        return rollupService.getUserRollup(nextUser(), month).orElseThrow();
+    }
+
+    private Long nextUser() {
+        return userIds.get(next++ % USERS);
+    }
+}
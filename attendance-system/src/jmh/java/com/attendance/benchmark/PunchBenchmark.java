@@ -0,0 +1,70 @@
+package com.attendance.benchmark;
+
+import com.attendance.entity.Attendance;
+import com.attendance.service.AttendanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punch-in followed by punch-out through {@link AttendanceService}. A user can only punch
+ * once a day, so each iteration is a fixed batch over distinct users and today's rows are
+ * cleared before the next one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = PunchBenchmark.USERS)
+@Measurement(iterations = 10, batchSize = PunchBenchmark.USERS)
+@Fork(1)
+public class PunchBenchmark {
+
+    static final int USERS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private AttendanceService attendanceService;
+    private JdbcTemplate jdbc;
+    private List<Long> userIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        attendanceService = context.getBean(AttendanceService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+        userIds = BenchmarkData.seedUsers(jdbc, "punch", USERS);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearToday() {
+        jdbc.update("DELETE FROM attendance WHERE attendance_date = ?", LocalDate.now());
+        jdbc.update("DELETE FROM monthly_attendance_rollup");
+        next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Attendance punchInAndOut() {
+        Long userId = userIds.get(next++);
+        attendanceService.punchIn(userId);
+        return attendanceService.punchOut(userId);
+    }
+}
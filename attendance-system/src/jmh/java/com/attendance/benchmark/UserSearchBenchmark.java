@@ -0,0 +1,76 @@
+package com.attendance.benchmark;
+
+import com.attendance.entity.User;
+import com.attendance.service.KeysetPage;
+import com.attendance.service.UserSearchIndex;
+import com.attendance.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin user search over 5k users: the in-memory n-gram index (lookup only, and lookup
+ * plus loading the page of users) versus the SQL LIKE fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 5000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"ma", "raman", "SEARCH0001", "nobody"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserSearchIndex userSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start();
+        userService = context.getBean(UserService.class);
+        userSearchIndex = context.getBean(UserSearchIndex.class);
+        BenchmarkData.seedUsers(context.getBean(JdbcTemplate.class), "search", USERS);
+        // The index was built at startup, before the rows above existed
+        userSearchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserSearchIndex.SearchResult indexLookup() {
+        return userSearchIndex.search(query, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public KeysetPage<User> indexSearch() {
+        return userService.searchUsers(query, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<User> sqlLikeSearch() {
+        return userService.searchUsers(query);
+    }
+}
@@ -0,0 +1,395 @@
+package com.attendance.loadtest;
+
+import com.attendance.AttendanceSystemApplication;
+import com.attendance.service.AuthenticationService;
+import com.attendance.service.PunchIngestionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Reproduces the shift-start peak: boots the application on a random port against the
+ * embedded H2 (MySQL mode) database, seeds employees, logs them all in and then fires
+ * punch-in, an optional duplicate punch-in and punch-out for every one of them at once.
+ * Reports throughput, latency percentiles, Hikari connection wait and accepted, rejected
+ * and failed requests per phase, and writes the same figures to target/punch-storm.json.
+ *
+ * <p>Accepted and rejected punches redirect to the same dashboard, so every request is
+ * followed by a load of that page to read its flash message. The page load is not part of
+ * the request's latency, but it does add to the storm's load and duration.
+ *
+ * <p>Runs on JDK 17, so instead of a virtual thread per request the client keeps up to
+ * {@code load.concurrency} requests in flight with the asynchronous {@link HttpClient}.
+ *
+ * <pre>mvn -Pload-test verify -Dload.employees=2000 -Dload.concurrency=1000 -Dload.duplicates=0.1</pre>
+ */
+public final class PunchStorm {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int employees = Integer.getInteger("load.employees", 2000);
+    private final int concurrency = Integer.getInteger("load.concurrency", 1000);
+    private final double duplicates = Double.parseDouble(System.getProperty("load.duplicates", "0.1"));
+    private final String resultFile = System.getProperty("load.result", "target/punch-storm.json");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final Semaphore inFlight = new Semaphore(concurrency);
+    private final HikariWaits hikariWaits = new HikariWaits();
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would restart the application in a fresh class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new PunchStorm().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AttendanceSystemApplication.class)
+                .logStartupInfo(false)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(hikariWaits))
+                .properties("server.port=0", "logging.level.root=WARN", "logging.level.com.attendance=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:attendance_load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                + "NON_KEYWORDS=USER,VALUE,MONTH,YEAR;DB_CLOSE_ON_EXIT=FALSE",
+                        // Logins and the dashboard loads that read each outcome are not the load under
+                        // test; only the punch bulkhead keeps its configured limit
+                        "attendance.bulkhead.default.max-concurrent=" + concurrency,
+                        "attendance.bulkhead.dashboard.max-concurrent=" + concurrency)
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        String password = "punch123";
+        List<String> usernames = seed(jdbc, context.getBean(AuthenticationService.class).hashPassword(password));
+        System.out.printf("Seeded %d employees, %d requests in flight at most%n", employees, concurrency);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("employees", employees);
+        report.put("concurrency", concurrency);
+        report.put("duplicateRatio", duplicates);
+
+        Phase login = new Phase("login", employees);
+        String[] sessions = new String[employees];
+        runPhase(login, i -> login.send(() -> client.sendAsync(form("/login",
+                "username=" + usernames.get(i) + "&password=" + password), HttpResponse.BodyHandlers.discarding()), null)
+                .thenAccept(response -> sessions[i] = response != null ? sessionCookie(response) : null));
+        report.put("login", login.summary());
+
+        int duplicateEvery = duplicates > 0 ? (int) Math.round(1 / duplicates) : 0;
+        Phase punchIn = new Phase("punch-in", employees);
+        Phase duplicate = new Phase("duplicate punch-in", duplicateEvery > 0 ? employees / duplicateEvery + 1 : 0);
+        Phase punchOut = new Phase("punch-out", employees);
+        long started = System.nanoTime();
+        runPhase(null, i -> punchIn.send(() -> post("/employee/punch-in", sessions[i]), sessions[i])
+                .thenCompose(r -> duplicateEvery > 0 && i % duplicateEvery == 0
+                        ? duplicate.send(() -> post("/employee/punch-in", sessions[i]), sessions[i])
+                        : CompletableFuture.completedFuture(null))
+                .thenCompose(r -> punchOut.send(() -> post("/employee/punch-out", sessions[i]), sessions[i])));
+        long stormNanos = System.nanoTime() - started;
+        double stormSeconds = stormNanos / 1e9;
+        punchIn.elapsed(stormNanos);
+        duplicate.elapsed(stormNanos);
+        punchOut.elapsed(stormNanos);
+        report.put("punchIn", punchIn.summary());
+        report.put("duplicatePunchIn", duplicate.summary());
+        report.put("punchOut", punchOut.summary());
+        report.put("stormSeconds", stormSeconds);
+        report.put("stormRequestsPerSecond", (punchIn.count() + duplicate.count() + punchOut.count()) / stormSeconds);
+
+        // Write-behind punches are acknowledged before they are stored, drain them before checking
+        PunchIngestionService ingestion = context.getBean(PunchIngestionService.class);
+        while (ingestion.getQueueDepth() > 0) {
+            ingestion.flush();
+        }
+        ingestion.flush();
+        report.put("consistency", verify(jdbc));
+        report.put("hikariConnectionWait", hikariWaits.summary());
+
+        print(report);
+        File out = new File(resultFile);
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+        System.out.println("Results written to " + out.getAbsolutePath());
+        context.close();
+    }
+
+    private List<String> seed(JdbcTemplate jdbc, String passwordHash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(employees);
+        List<String> usernames = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            String username = "storm" + i;
+            usernames.add(username);
+            rows.add(new Object[] {username, passwordHash, username + "@company.com", "Storm", "User" + i,
+                    String.format("ST%05d", i), "EMPLOYEE", "Engineering", true, now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, email, first_name, last_name, employee_id, " +
+                "role, department, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return usernames;
+    }
+
+    private Map<String, Object> verify(JdbcTemplate jdbc) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        result.put("attendanceRows", jdbc.queryForObject(
+                "SELECT COUNT(*) FROM attendance WHERE attendance_date = ?", Long.class, today));
+        result.put("closedSessions", jdbc.queryForObject(
+                "SELECT COUNT(*) FROM attendance WHERE attendance_date = ? AND punch_out IS NOT NULL", Long.class, today));
+        result.put("usersWithDuplicateRows", jdbc.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT user_id FROM attendance WHERE attendance_date = ? " +
+                        "GROUP BY user_id HAVING COUNT(*) > 1) d", Long.class, today));
+        return result;
+    }
+
+    // Starts one flow per employee; the semaphore in Phase.send bounds what is actually in flight
+    private void runPhase(Phase phase, IntFunction<CompletableFuture<?>> flow) {
+        long started = System.nanoTime();
+        CompletableFuture<?>[] flows = new CompletableFuture<?>[employees];
+        for (int i = 0; i < employees; i++) {
+            flows[i] = flow.apply(i).exceptionally(e -> null);
+        }
+        CompletableFuture.allOf(flows).join();
+        if (phase != null) {
+            phase.elapsed(System.nanoTime() - started);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<Void>> post(String path, String session) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (session != null) {
+            request.header("Cookie", session);
+        }
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private CompletableFuture<HttpResponse<String>> page(String location, String session) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl).resolve(location))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (session != null) {
+            request.header("Cookie", session);
+        }
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest form(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String sessionCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                .findFirst().orElse(null);
+    }
+
+    // Text of the dashboard alert for a flash attribute, or null when the page has none
+    private static String flash(String page, String alert) {
+        int at = page.indexOf("alert " + alert);
+        if (at < 0) {
+            return null;
+        }
+        int start = page.indexOf("<span>", at);
+        int end = start < 0 ? -1 : page.indexOf("</span>", start);
+        return end < 0 ? "" : page.substring(start + "<span>".length(), end).trim();
+    }
+
+    private static void print(Map<String, Object> report) {
+        System.out.println();
+        System.out.printf("%-20s %8s %8s %8s %8s %8s %9s %9s %9s %9s%n", "phase", "requests", "accepted",
+                "rejected", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Object value : report.values()) {
+            if (value instanceof Summary s && s.requests() > 0) {
+                System.out.printf("%-20s %8d %8d %8d %8d %8.0f %9.2f %9.2f %9.2f %9.2f%n", s.phase(),
+                        s.requests(), s.accepted(), s.rejected(), s.errors(), s.requestsPerSecond(),
+                        s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs());
+            }
+        }
+        for (Object value : report.values()) {
+            if (value instanceof Summary s && !s.rejections().isEmpty()) {
+                System.out.println(s.phase() + " rejected: " + s.rejections());
+            }
+        }
+        System.out.println();
+        System.out.println("Hikari connection wait: " + report.get("hikariConnectionWait"));
+        System.out.println("Consistency: " + report.get("consistency"));
+        System.out.printf("Punch storm: %.2f s, %.0f req/s%n",
+                report.get("stormSeconds"), report.get("stormRequestsPerSecond"));
+    }
+
+    public record Summary(String phase, long requests, long accepted, long rejected, long errors,
+                          Map<String, Integer> rejections, double requestsPerSecond,
+                          double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    /**
+     * Latencies and outcomes of one kind of request. A redirect back into the app is accepted
+     * or rejected by the flash message on the page it leads to, counted per message for the
+     * rejections; anything else, or a page without a message, is an error.
+     */
+    private final class Phase {
+
+        private final String name;
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger accepted = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final Map<String, Integer> rejections = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        Phase(String name, int expected) {
+            this.name = name;
+            this.latencies = new long[expected];
+        }
+
+        /**
+         * Sends the request and completes with its response, or null if it failed. Without a
+         * session the page is loaded with the one the response sets, as after a login.
+         */
+        CompletableFuture<HttpResponse<Void>> send(Supplier<CompletableFuture<HttpResponse<Void>>> request,
+                                                   String session) {
+            inFlight.acquireUninterruptibly();
+            long started = System.nanoTime();
+            return request.get().handle((response, failure) -> {
+                inFlight.release();
+                int slot = recorded.getAndIncrement();
+                if (slot < latencies.length) {
+                    latencies[slot] = System.nanoTime() - started;
+                }
+                return failure == null ? response : null;
+            }).thenCompose(response -> outcome(response, session != null || response == null
+                    ? session : sessionCookie(response)));
+        }
+
+        private CompletableFuture<HttpResponse<Void>> outcome(HttpResponse<Void> response, String session) {
+            String location = response == null ? "" : response.headers().firstValue("Location").orElse("");
+            if (response == null || response.statusCode() != 302 || location.isEmpty() || location.contains("/login")) {
+                errors.incrementAndGet();
+                return CompletableFuture.completedFuture(response);
+            }
+            inFlight.acquireUninterruptibly();
+            return page(location, session).handle((page, failure) -> {
+                inFlight.release();
+                String body = failure == null ? page.body() : "";
+                String rejection = flash(body, "alert-danger");
+                if (rejection != null) {
+                    rejected.incrementAndGet();
+                    rejections.merge(rejection, 1, Integer::sum);
+                } else if (flash(body, "alert-success") != null) {
+                    accepted.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+                return response;
+            });
+        }
+
+        void elapsed(long nanos) {
+            elapsedNanos = nanos;
+        }
+
+        int count() {
+            return Math.min(recorded.get(), latencies.length);
+        }
+
+        Summary summary() {
+            long[] sorted = Arrays.copyOf(latencies, count());
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos > 0 ? elapsedNanos / 1e9 : Double.NaN;
+            return new Summary(name, sorted.length, accepted.get(), rejected.get(), errors.get(),
+                    new TreeMap<>(rejections), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    /** Records how long each request waited for a pooled connection. */
+    private static final class HikariWaits implements BeanPostProcessor, MetricsTrackerFactory {
+
+        private final AtomicLong acquisitions = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource dataSource) {
+                dataSource.setMetricsTrackerFactory(this);
+            }
+            return bean;
+        }
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    acquisitions.incrementAndGet();
+                    totalNanos.addAndGet(elapsedAcquiredNanos);
+                    maxNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    timeouts.incrementAndGet();
+                }
+            };
+        }
+
+        Map<String, Object> summary() {
+            long count = acquisitions.get();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("acquisitions", count);
+            summary.put("meanMs", count > 0 ? totalNanos.get() / 1e6 / count : 0);
+            summary.put("maxMs", maxNanos.get() / 1e6);
+            summary.put("timeouts", timeouts.get());
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.attendance.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * A read-only, memory-mapped view of one closed month written by {@link ColumnarMonthWriter}.
+ * All values are little-endian:
+ * <pre>
+ *   header      magic, version, year, month, rows, users, statuses, user width (8 ints)
+ *   users       one long per dictionary slot
+ *   statuses    one length byte plus UTF-8 bytes per status code
+ *   user        one dictionary slot per row (2 or 4 bytes, see user width)
+ *   date        one byte per row: days since the previous row, the first row counting from day 1
+ *   status      one status code byte per row
+ *   total hours, late minutes, overtime hours    one int per row, hours in hundredths
+ * </pre>
+ * Rows are ordered by date, so a day range is a contiguous row range read straight from the
+ * mapping; nothing is copied onto the heap.
+ */
+public final class ColumnarMonth {
+
+    static final int MAGIC = 0x41545443;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8 * Integer.BYTES;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final YearMonth month;
+    private final int rows;
+    private final long[] userIds;
+    private final String[] statuses;
+    private final int userWidth;
+    private final int userOffset;
+    private final int statusOffset;
+    private final int totalOffset;
+    private final int lateOffset;
+    private final int overtimeOffset;
+    // rowsBefore[d]: rows dated before day d of the month, for d = 1 .. length + 1
+    private final int[] rowsBefore;
+
+    private ColumnarMonth(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new RuntimeException(file + " is not a columnar attendance file");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new RuntimeException(file + " has unsupported version " + version);
+        }
+        month = YearMonth.of(in.getInt(), in.getInt());
+        rows = in.getInt();
+        userIds = new long[in.getInt()];
+        statuses = new String[in.getInt()];
+        userWidth = in.getInt();
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = in.getLong();
+        }
+        for (int i = 0; i < statuses.length; i++) {
+            byte[] name = new byte[in.get() & 0xFF];
+            in.get(name);
+            statuses[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        userOffset = in.position();
+        int dateOffset = userOffset + rows * userWidth;
+        statusOffset = dateOffset + rows;
+        totalOffset = statusOffset + rows;
+        lateOffset = totalOffset + rows * Integer.BYTES;
+        overtimeOffset = lateOffset + rows * Integer.BYTES;
+        if (overtimeOffset + rows * Integer.BYTES != buffer.limit()) {
+            throw new RuntimeException(file + " is truncated");
+        }
+        rowsBefore = decodeDates(dateOffset);
+    }
+
+    public static ColumnarMonth open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ColumnarMonth(file, mapped.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getUserCount() {
+        return userIds.length;
+    }
+
+    /** First row dated on or after {@code start}; dates outside this month are clamped to it. */
+    public int firstRow(LocalDate start) {
+        return rowsBefore[firstDay(start)];
+    }
+
+    /** One past the last row dated on or before {@code end}; dates outside this month are clamped to it. */
+    public int endRow(LocalDate end) {
+        return rowsBefore[lastDay(end) + 1];
+    }
+
+    public long userId(int row) {
+        int slot = userWidth == Short.BYTES
+                ? buffer.getShort(userOffset + row * Short.BYTES) & 0xFFFF
+                : buffer.getInt(userOffset + row * Integer.BYTES);
+        return userIds[slot];
+    }
+
+    public String status(int row) {
+        return statuses[buffer.get(statusOffset + row) & 0xFF];
+    }
+
+    public int lateMinutes(int row) {
+        return buffer.getInt(lateOffset + row * Integer.BYTES);
+    }
+
+    /** Total hours in hundredths. */
+    public int totalHours(int row) {
+        return buffer.getInt(totalOffset + row * Integer.BYTES);
+    }
+
+    /** Overtime hours in hundredths. */
+    public int overtimeHours(int row) {
+        return buffer.getInt(overtimeOffset + row * Integer.BYTES);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarMonth[" + month + ", " + rows + " rows, " + file + "]";
+    }
+
+    private int firstDay(LocalDate start) {
+        if (!start.isAfter(month.atDay(1))) {
+            return 1;
+        }
+        return start.isAfter(month.atEndOfMonth()) ? month.lengthOfMonth() + 1 : start.getDayOfMonth();
+    }
+
+    private int lastDay(LocalDate end) {
+        if (!end.isBefore(month.atEndOfMonth())) {
+            return month.lengthOfMonth();
+        }
+        return end.isBefore(month.atDay(1)) ? 0 : end.getDayOfMonth();
+    }
+
+    private int[] decodeDates(int dateOffset) {
+        int length = month.lengthOfMonth();
+        int[] counts = new int[length + 2];
+        int day = 1;
+        for (int i = 0; i < rows; i++) {
+            day += buffer.get(dateOffset + i);
+            if (day < 1 || day > length) {
+                throw new RuntimeException(file + " has a row dated outside " + month);
+            }
+            counts[day + 1]++;
+        }
+        for (int d = 2; d <= length + 1; d++) {
+            counts[d] += counts[d - 1];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,140 @@
+package com.attendance.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes one closed month in the layout read by {@link ColumnarMonth}. Rows must be added in
+ * date order; user IDs and statuses are dictionary-encoded in the order they are first seen.
+ */
+public class ColumnarMonthWriter {
+
+    private static final int MAX_STATUSES = 256;
+
+    private final YearMonth month;
+    private final Map<Long, Integer> userSlots = new LinkedHashMap<>();
+    private final Map<String, Integer> statusCodes = new LinkedHashMap<>();
+
+    private int rows;
+    private int lastDay = 1;
+    private int[] users = new int[1024];
+    private byte[] dayDeltas = new byte[1024];
+    private byte[] statuses = new byte[1024];
+    private int[] totalHours = new int[1024];
+    private int[] lateMinutes = new int[1024];
+    private int[] overtimeHours = new int[1024];
+
+    public ColumnarMonthWriter(YearMonth month) {
+        this.month = month;
+    }
+
+    public void add(long userId, LocalDate date, String status, Double total, Integer late, Double overtime) {
+        if (!YearMonth.from(date).equals(month)) {
+            throw new RuntimeException(date + " is outside " + month);
+        }
+        if (date.getDayOfMonth() < lastDay) {
+            throw new RuntimeException("Rows must be added in date order");
+        }
+        if (rows == users.length) {
+            grow();
+        }
+        Integer code = statusCodes.get(status != null ? status : "");
+        if (code == null) {
+            if (statusCodes.size() == MAX_STATUSES) {
+                throw new RuntimeException("More than " + MAX_STATUSES + " statuses in " + month);
+            }
+            code = statusCodes.size();
+            statusCodes.put(status != null ? status : "", code);
+        }
+        users[rows] = userSlots.computeIfAbsent(userId, id -> userSlots.size());
+        dayDeltas[rows] = (byte) (date.getDayOfMonth() - lastDay);
+        statuses[rows] = (byte) (int) code;
+        totalHours[rows] = hundredths(total);
+        lateMinutes[rows] = late != null ? late : 0;
+        overtimeHours[rows] = hundredths(overtime);
+        lastDay = date.getDayOfMonth();
+        rows++;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    /** Writes the file next to {@code file} and moves it into place, so readers never see a partial month. */
+    public void writeTo(Path file) throws IOException {
+        int userWidth = userSlots.size() <= 0x10000 ? Short.BYTES : Integer.BYTES;
+        int namesBytes = 0;
+        byte[][] statusNames = new byte[statusCodes.size()][];
+        for (Map.Entry<String, Integer> status : statusCodes.entrySet()) {
+            byte[] name = status.getKey().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 255) {
+                throw new RuntimeException("Status " + status.getKey() + " is too long");
+            }
+            statusNames[status.getValue()] = name;
+            namesBytes += 1 + name.length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(ColumnarMonth.HEADER_BYTES + userSlots.size() * Long.BYTES + namesBytes
+                + rows * (userWidth + 2 + 3 * Integer.BYTES)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(ColumnarMonth.MAGIC).putInt(ColumnarMonth.VERSION)
+                .putInt(month.getYear()).putInt(month.getMonthValue())
+                .putInt(rows).putInt(userSlots.size()).putInt(statusCodes.size()).putInt(userWidth);
+        for (Long userId : userSlots.keySet()) {
+            out.putLong(userId);
+        }
+        for (byte[] name : statusNames) {
+            out.put((byte) name.length).put(name);
+        }
+        for (int i = 0; i < rows; i++) {
+            if (userWidth == Short.BYTES) {
+                out.putShort((short) users[i]);
+            } else {
+                out.putInt(users[i]);
+            }
+        }
+        out.put(dayDeltas, 0, rows).put(statuses, 0, rows);
+        for (int[] column : new int[][] {totalHours, lateMinutes, overtimeHours}) {
+            for (int i = 0; i < rows; i++) {
+                out.putInt(column[i]);
+            }
+        }
+        out.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int hundredths(Double hours) {
+        return hours != null ? (int) Math.round(hours * 100) : 0;
+    }
+
+    private void grow() {
+        int capacity = users.length * 2;
+        users = Arrays.copyOf(users, capacity);
+        dayDeltas = Arrays.copyOf(dayDeltas, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        totalHours = Arrays.copyOf(totalHours, capacity);
+        lateMinutes = Arrays.copyOf(lateMinutes, capacity);
+        overtimeHours = Arrays.copyOf(overtimeHours, capacity);
+    }
+}
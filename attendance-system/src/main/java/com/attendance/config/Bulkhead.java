@@ -0,0 +1,88 @@
+package com.attendance.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A named concurrency limit for one class of endpoints. Each admitted request may hold at
+ * most one pooled connection, so {@code maxConcurrent} is also the connection budget.
+ * Requests wait up to {@code queueTimeoutMs} for a permit and are rejected after that.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long queueTimeoutMs;
+    private final Semaphore permits;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrent, long queueTimeoutMs) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public boolean tryAcquire() {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        long waited = System.nanoTime() - started;
+        if (acquired) {
+            admitted.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        } else {
+            rejected.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public Statistics getStatistics() {
+        long count = admitted.get();
+        return new Statistics(name, maxConcurrent, queueTimeoutMs, getActive(), getQueued(), count, rejected.get(),
+                count > 0 ? totalWaitNanos.get() / 1e6 / count : 0, maxWaitNanos.get() / 1e6);
+    }
+
+    public record Statistics(String name, int maxConcurrent, long queueTimeoutMs, int active, int queued,
+                             long admitted, long rejected, double meanWaitMs, double maxWaitMs) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.attendance.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes each request to the bulkhead of its endpoint class: punch, dashboard, admin lists
+ * or reports/export. Any other controller request (login, leave and regularization forms,
+ * approvals, backfills) shares the default bulkhead, except the few GET pages that never
+ * touch the database. The non-punch budgets together stay below the connection pool size,
+ * so punches always find a connection however busy the rest of the application is.
+ */
+@Component
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    private static final String ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    @Value("${attendance.bulkhead.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${attendance.bulkhead.punch.max-concurrent:10}")
+    private int punchMaxConcurrent;
+
+    @Value("${attendance.bulkhead.punch.queue-timeout-ms:2000}")
+    private long punchQueueTimeoutMs;
+
+    @Value("${attendance.bulkhead.dashboard.max-concurrent:4}")
+    private int dashboardMaxConcurrent;
+
+    @Value("${attendance.bulkhead.dashboard.queue-timeout-ms:1000}")
+    private long dashboardQueueTimeoutMs;
+
+    @Value("${attendance.bulkhead.admin-lists.max-concurrent:2}")
+    private int adminListsMaxConcurrent;
+
+    @Value("${attendance.bulkhead.admin-lists.queue-timeout-ms:1000}")
+    private long adminListsQueueTimeoutMs;
+
+    @Value("${attendance.bulkhead.reports.max-concurrent:1}")
+    private int reportsMaxConcurrent;
+
+    @Value("${attendance.bulkhead.reports.queue-timeout-ms:5000}")
+    private long reportsQueueTimeoutMs;
+
+    @Value("${attendance.bulkhead.default.max-concurrent:2}")
+    private int defaultMaxConcurrent;
+
+    @Value("${attendance.bulkhead.default.queue-timeout-ms:1000}")
+    private long defaultQueueTimeoutMs;
+
+    // GET pages served from the session or memory; everything else unrouted goes to the default bulkhead
+    private static final List<String> IN_MEMORY_PAGES = List.of("/", "/login", "/register", "/logout",
+            "/admin/dashboard/stream", "/admin/bulkheads", "/admin/cache-stats");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Bulkhead> routes = new LinkedHashMap<>();
+    private Bulkhead fallback;
+    private List<Bulkhead> bulkheads;
+
+    @PostConstruct
+    void init() {
+        Bulkhead punch = new Bulkhead("punch", punchMaxConcurrent, punchQueueTimeoutMs);
+        Bulkhead dashboard = new Bulkhead("dashboard", dashboardMaxConcurrent, dashboardQueueTimeoutMs);
+        Bulkhead adminLists = new Bulkhead("admin-lists", adminListsMaxConcurrent, adminListsQueueTimeoutMs);
+        Bulkhead reports = new Bulkhead("reports", reportsMaxConcurrent, reportsQueueTimeoutMs);
+        fallback = new Bulkhead("default", defaultMaxConcurrent, defaultQueueTimeoutMs);
+        bulkheads = List.of(punch, dashboard, adminLists, reports, fallback);
+
+        routes.put("/employee/punch-*", punch);
+        routes.put("/employee/dashboard", dashboard);
+        routes.put("/admin/dashboard", dashboard);
+        routes.put("/admin/users", adminLists);
+        routes.put("/admin/attendance-management", adminLists);
+        routes.put("/admin/leave-management", adminLists);
+        routes.put("/admin/regularization-management", adminLists);
+        routes.put("/admin/availability", adminLists);
+        routes.put("/admin/reports/**", reports);
+
+        int shared = dashboardMaxConcurrent + adminListsMaxConcurrent + reportsMaxConcurrent + defaultMaxConcurrent;
+        if (enabled && shared >= poolSize) {
+            log.warn("Non-punch bulkheads may hold {} of {} pooled connections, punches are not guaranteed one",
+                    shared, poolSize);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        // Static resources, view controllers and error dispatches never hold a connection
+        if (!enabled || !(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Bulkhead bulkhead = route(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        if (bulkhead == null) {
+            return true;
+        }
+        if (!bulkhead.tryAcquire()) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Too many " + bulkhead.getName() + " requests, please retry");
+            return false;
+        }
+        request.setAttribute(ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Bulkhead bulkhead = (Bulkhead) request.getAttribute(ATTRIBUTE);
+        if (bulkhead != null) {
+            request.removeAttribute(ATTRIBUTE);
+            bulkhead.release();
+        }
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    Bulkhead route(String method, String path) {
+        for (Map.Entry<String, Bulkhead> route : routes.entrySet()) {
+            if (pathMatcher.match(route.getKey(), path)) {
+                return route.getValue();
+            }
+        }
+        if ("GET".equals(method) && IN_MEMORY_PAGES.contains(path)) {
+            return null;
+        }
+        return fallback;
+    }
+}
@@ -1,14 +1,21 @@
 package com.attendance.controller;
 
+import com.attendance.config.Bulkhead;
+import com.attendance.config.BulkheadInterceptor;
 import com.attendance.entity.*;
 import com.attendance.service.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -29,52 +36,68 @@ public class AdminController {
     @Autowired
     private RegularizationService regularizationService;
 
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private BulkheadInterceptor bulkheadInterceptor;
+
+    @Autowired
+    private AbsenceMaterializationService absenceMaterializationService;
+
+    @Autowired
+    private DashboardFeed dashboardFeed;
+
+    @Autowired
+    private TeamAvailabilityIndex teamAvailabilityIndex;
+
+    @Autowired
+    private EmployeeReportService employeeReportService;
+
+    @Value("${attendance.feed.timeout-ms:1800000}")
+    private long feedTimeoutMs;
+
+    @Value("${attendance.pagination.page-size:50}")
+    private int pageSize;
+
     @GetMapping("/dashboard")
     public String dashboard(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
         try {
             // Statistics
-            long totalUsers = userService.getTotalUsers();
-            long totalEmployees = userService.getUsersByRole("EMPLOYEE").size();
-            long pendingLeaves = leaveService.countPendingLeaves();
-            long pendingRegularizations = regularizationService.countPendingRegularizations();
+            DashboardStatsService.Snapshot stats = dashboardStatsService.getSnapshot();
 
             // Recent users
-            List<User> recentUsers = userService.getAllUsers().stream()
-                    .limit(5)
-                    .toList();
+            List<User> recentUsers = userService.getRecentUsers();
 
             // Recent leaves
-            List<Leave> recentLeaves = leaveService.getPendingLeaves().stream()
-                    .limit(5)
-                    .toList();
-
-            // Today's attendance
-            List<Attendance> todayAttendance = attendanceService.getAllAttendance(LocalDate.now());
-            long presentToday = todayAttendance.stream()
-                    .filter(a -> "PRESENT".equals(a.getStatus()))
-                    .count();
-            long absentToday = todayAttendance.stream()
-                    .filter(a -> "ABSENT".equals(a.getStatus()))
-                    .count();
-
-            // Active sessions
-            List<Attendance> activeSessions = attendanceService.getActiveSessions();
-
-            model.addAttribute("user", user);
-            model.addAttribute("totalUsers", totalUsers);
-            model.addAttribute("totalEmployees", totalEmployees);
-            model.addAttribute("pendingLeaves", pendingLeaves);
-            model.addAttribute("pendingRegularizations", pendingRegularizations);
+            List<Leave> recentLeaves = leaveService.getRecentPendingLeaves();
+
+            // Today's latest punches and open sessions
+            List<Attendance> todayAttendance = attendanceService.getLatestAttendance(LocalDate.now());
+            List<Attendance> activeSessions = attendanceService.getLatestOpenSessions(LocalDate.now());
+
+            model.addAttribute("user", sessionUser(session));
+            model.addAttribute("totalUsers", stats.totalUsers());
+            model.addAttribute("totalEmployees", stats.totalEmployees());
+            model.addAttribute("pendingLeaves", stats.pendingLeaves());
+            model.addAttribute("pendingRegularizations", stats.pendingRegularizations());
             model.addAttribute("recentUsers", recentUsers);
             model.addAttribute("recentLeaves", recentLeaves);
             model.addAttribute("todayAttendance", todayAttendance);
-            model.addAttribute("presentToday", presentToday);
-            model.addAttribute("absentToday", absentToday);
+            model.addAttribute("presentToday", stats.presentToday());
+            model.addAttribute("lateToday", stats.lateToday());
+            model.addAttribute("absentToday", stats.absentToday());
+            model.addAttribute("openSessions", stats.openSessions());
             model.addAttribute("activeSessions", activeSessions);
 
         } catch (Exception e) {
@@ -84,24 +107,41 @@ public class AdminController {
         return "admin/dashboard";
     }
 
+    // The browser's EventSource reconnects by itself when the emitter times out
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter dashboardStream(HttpSession session, HttpServletResponse response) throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(feedTimeoutMs);
+        if (!dashboardFeed.subscribe(emitter)) {
+            response.setHeader("Retry-After", "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many live dashboard connections");
+            return null;
+        }
+        return emitter;
+    }
+
     @GetMapping("/users")
     public String users(HttpSession session, Model model,
-                        @RequestParam(required = false) String search) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+                        @RequestParam(required = false) String search,
+                        @RequestParam(required = false) String after) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
         try {
-            List<User> users;
-            if (search != null && !search.trim().isEmpty()) {
-                users = userService.searchUsers(search);
-            } else {
-                users = userService.getAllUsers();
-            }
+            KeysetPage<User> page = search != null && !search.trim().isEmpty()
+                    ? userService.searchUsers(search, after, pageSize)
+                    : userService.getUsersPage(after, pageSize);
+            List<User> users = page.getItems();
+            model.addAttribute("nextCursor", page.getNextCursor());
 
-            model.addAttribute("user", user);
+            model.addAttribute("user", sessionUser(session));
             model.addAttribute("users", users);
+            model.addAttribute("after", after);
             model.addAttribute("search", search);
             model.addAttribute("newUser", new User());
 
@@ -167,20 +207,26 @@ public class AdminController {
 
     @GetMapping("/attendance-management")
     public String attendanceManagement(HttpSession session, Model model,
-                                       @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+                                       @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                                       @RequestParam(required = false) String after) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
         if (date == null) date = LocalDate.now();
 
         try {
-            List<Attendance> attendanceList = attendanceService.getAllAttendance(date);
+            KeysetPage<Attendance> page = attendanceService.getAttendancePage(date, after, pageSize);
 
-            model.addAttribute("user", user);
-            model.addAttribute("attendanceList", attendanceList);
+            model.addAttribute("user", sessionUser(session));
+            model.addAttribute("attendanceList", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("after", after);
             model.addAttribute("selectedDate", date);
+            model.addAttribute("totalRecords", attendanceService.countAttendance(date));
+            model.addAttribute("presentCount", attendanceService.countAttendance(date, "PRESENT"));
+            model.addAttribute("absentCount", attendanceService.countAttendance(date, "ABSENT"));
+            model.addAttribute("activeSessions", attendanceService.countOpenSessions(date));
 
         } catch (Exception e) {
             model.addAttribute("error", "Error loading attendance: " + e.getMessage());
@@ -190,19 +236,21 @@ public class AdminController {
     }
 
     @GetMapping("/leave-management")
-    public String leaveManagement(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+    public String leaveManagement(HttpSession session, Model model,
+                                  @RequestParam(required = false) String after) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
         try {
             List<Leave> pendingLeaves = leaveService.getPendingLeaves();
-            List<Leave> allLeaves = leaveService.getAllLeaves();
+            KeysetPage<Leave> page = leaveService.getLeavesPage(after, pageSize);
 
-            model.addAttribute("user", user);
+            model.addAttribute("user", sessionUser(session));
             model.addAttribute("pendingLeaves", pendingLeaves);
-            model.addAttribute("allLeaves", allLeaves);
+            model.addAttribute("allLeaves", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("after", after);
 
         } catch (Exception e) {
             model.addAttribute("error", "Error loading leaves: " + e.getMessage());
@@ -217,8 +265,7 @@ public class AdminController {
                                @RequestParam(required = false) String comments,
                                RedirectAttributes redirectAttributes) {
         try {
-            User adminUser = (User) session.getAttribute("user");
-            leaveService.approveLeave(id, adminUser.getUsername(), comments);
+            leaveService.approveLeave(id, sessionUser(session).getUsername(), comments);
             redirectAttributes.addFlashAttribute("success", "Leave approved successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -232,8 +279,7 @@ public class AdminController {
                               @RequestParam(required = false) String comments,
                               RedirectAttributes redirectAttributes) {
         try {
-            User adminUser = (User) session.getAttribute("user");
-            leaveService.rejectLeave(id, adminUser.getUsername(), comments);
+            leaveService.rejectLeave(id, sessionUser(session).getUsername(), comments);
             redirectAttributes.addFlashAttribute("success", "Leave rejected successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -241,22 +287,65 @@ public class AdminController {
         return "redirect:/admin/leave-management";
     }
 
+    @PostMapping("/leave/bulk")
+    public String bulkLeaves(@RequestParam(required = false) List<Long> ids,
+                             @RequestParam String action,
+                             @RequestParam(required = false) String comments,
+                             HttpSession session,
+                             RedirectAttributes redirectAttributes) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            return "redirect:/login";
+        }
+        String status = decisionStatus(action);
+        if (status == null) {
+            redirectAttributes.addFlashAttribute("error", "Unknown action: " + action);
+            return "redirect:/admin/leave-management";
+        }
+        try {
+            BulkUpdateResult result = leaveService.bulkUpdateStatus(ids != null ? ids : List.of(),
+                    status, sessionUser(session).getUsername(), comments);
+            redirectAttributes.addFlashAttribute("success", bulkSummary(result, "leave request(s)", action));
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/leave-management";
+    }
+
+    @PostMapping(value = "/leave/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public BulkUpdateResult bulkLeavesApi(@RequestBody BulkDecision decision, HttpSession session,
+                                          HttpServletResponse response) throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        String status = decisionStatus(decision.action());
+        if (status == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + decision.action());
+            return null;
+        }
+        return leaveService.bulkUpdateStatus(decision.ids() != null ? decision.ids() : List.of(),
+                status, sessionUser(session).getUsername(), decision.comments());
+    }
+
     @GetMapping("/regularization-management")
-    public String regularizationManagement(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+    public String regularizationManagement(HttpSession session, Model model,
+                                           @RequestParam(required = false) String after) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
         try {
             List<Regularization> pendingRegularizations = regularizationService
                     .getPendingRegularizations();
-            List<Regularization> allRegularizations = regularizationService
-                    .getAllRegularizations();
+            KeysetPage<Regularization> page = regularizationService
+                    .getRegularizationsPage(after, pageSize);
 
-            model.addAttribute("user", user);
+            model.addAttribute("user", sessionUser(session));
             model.addAttribute("pendingRegularizations", pendingRegularizations);
-            model.addAttribute("allRegularizations", allRegularizations);
+            model.addAttribute("allRegularizations", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
+            model.addAttribute("after", after);
 
         } catch (Exception e) {
             model.addAttribute("error", "Error loading regularizations: " + e.getMessage());
@@ -271,8 +360,7 @@ public class AdminController {
                                         @RequestParam(required = false) String comments,
                                         RedirectAttributes redirectAttributes) {
         try {
-            User adminUser = (User) session.getAttribute("user");
-            regularizationService.approveRegularization(id, adminUser.getUsername(), comments);
+            regularizationService.approveRegularization(id, sessionUser(session).getUsername(), comments);
             redirectAttributes.addFlashAttribute("success", "Regularization approved successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -286,8 +374,7 @@ public class AdminController {
                                        @RequestParam(required = false) String comments,
                                        RedirectAttributes redirectAttributes) {
         try {
-            User adminUser = (User) session.getAttribute("user");
-            regularizationService.rejectRegularization(id, adminUser.getUsername(), comments);
+            regularizationService.rejectRegularization(id, sessionUser(session).getUsername(), comments);
             redirectAttributes.addFlashAttribute("success", "Regularization rejected successfully!");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
@@ -295,12 +382,54 @@ public class AdminController {
         return "redirect:/admin/regularization-management";
     }
 
+    @PostMapping("/regularization/bulk")
+    public String bulkRegularizations(@RequestParam(required = false) List<Long> ids,
+                             @RequestParam String action,
+                             @RequestParam(required = false) String comments,
+                             HttpSession session,
+                             RedirectAttributes redirectAttributes) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            return "redirect:/login";
+        }
+        String status = decisionStatus(action);
+        if (status == null) {
+            redirectAttributes.addFlashAttribute("error", "Unknown action: " + action);
+            return "redirect:/admin/regularization-management";
+        }
+        try {
+            BulkUpdateResult result = regularizationService.bulkUpdateStatus(ids != null ? ids : List.of(),
+                    status, sessionUser(session).getUsername(), comments);
+            redirectAttributes.addFlashAttribute("success",
+                    bulkSummary(result, "regularization request(s)", action));
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+        }
+        return "redirect:/admin/regularization-management";
+    }
+
+    @PostMapping(value = "/regularization/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public BulkUpdateResult bulkRegularizationsApi(@RequestBody BulkDecision decision, HttpSession session,
+                                          HttpServletResponse response) throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        String status = decisionStatus(decision.action());
+        if (status == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + decision.action());
+            return null;
+        }
+        return regularizationService.bulkUpdateStatus(
+                decision.ids() != null ? decision.ids() : List.of(), status,
+                sessionUser(session).getUsername(), decision.comments());
+    }
+
     @GetMapping("/reports")
     public String reports(HttpSession session, Model model,
                           @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
                           @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
-        User user = (User) session.getAttribute("user");
-        if (user == null || !user.getRole().equals("ADMIN")) {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
             return "redirect:/login";
         }
 
@@ -308,25 +437,19 @@ public class AdminController {
         if (endDate == null) endDate = LocalDate.now();
 
         try {
-            List<Attendance> attendanceList = attendanceService.getAttendanceByDateRange(startDate, endDate);
-            List<User> allUsers = userService.getAllUsers();
-            List<Leave> leaves = leaveService.getAllLeaves();
-
-            long presentCount = attendanceList.stream()
-                    .filter(a -> "PRESENT".equals(a.getStatus()))
-                    .count();
-            long absentCount = attendanceList.stream()
-                    .filter(a -> "ABSENT".equals(a.getStatus()))
-                    .count();
-
-            model.addAttribute("user", user);
-            model.addAttribute("attendanceList", attendanceList);
-            model.addAttribute("allUsers", allUsers);
-            model.addAttribute("leaves", leaves);
+            // Counts come from the report's totals; the full row set is only in the export
+            EmployeeReportService.Report report = employeeReportService.getReport(startDate, endDate);
+            long presentCount = report.departments().stream().mapToLong(d -> d.totals().presentDays()).sum();
+            long absentCount = report.departments().stream().mapToLong(d -> d.totals().absentDays()).sum();
+
+            model.addAttribute("user", sessionUser(session));
+            model.addAttribute("attendanceList", reportExportService.previewAttendance(startDate, endDate, pageSize));
+            model.addAttribute("leaves", leaveService.getLeavesBetween(startDate, endDate));
             model.addAttribute("startDate", startDate);
             model.addAttribute("endDate", endDate);
             model.addAttribute("presentCount", presentCount);
             model.addAttribute("absentCount", absentCount);
+            model.addAttribute("report", report);
 
         } catch (Exception e) {
             model.addAttribute("error", "Error generating reports: " + e.getMessage());
@@ -334,4 +457,131 @@ public class AdminController {
 
         return "admin/reports";
     }
-}
\ No newline at end of file
+
+    @GetMapping("/reports/export")
+    public void exportReport(HttpSession session, HttpServletResponse response,
+                             @RequestParam(required = false) String type,
+                             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+                             @RequestParam(required = false) String department) throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendRedirect("/login");
+            return;
+        }
+
+        if (startDate == null) startDate = LocalDate.now().withDayOfMonth(1);
+        if (endDate == null) endDate = LocalDate.now();
+
+        ReportExportService.Format format = ReportExportService.Format.from(type);
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=\"attendance-report-" +
+                startDate + "-to-" + endDate + "." + format.getExtension() + "\"");
+        reportExportService.exportAttendance(startDate, endDate, department, format, response.getOutputStream());
+    }
+
+    @GetMapping("/cache-stats")
+    @ResponseBody
+    public UserLookupService.Statistics cacheStats(HttpSession session, HttpServletResponse response)
+            throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        return userLookupService.getStatistics();
+    }
+
+    @GetMapping("/bulkheads")
+    @ResponseBody
+    public List<Bulkhead.Statistics> bulkheads(HttpSession session, HttpServletResponse response)
+            throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        return bulkheadInterceptor.getBulkheads().stream().map(Bulkhead::getStatistics).toList();
+    }
+
+    // Backfill or rerun of the end-of-day absence job; days already materialized are left as they are
+    @PostMapping("/attendance/absences")
+    @ResponseBody
+    public List<AbsenceMaterializationService.DayResult> materializeAbsences(
+            HttpSession session, HttpServletResponse response,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate)
+            throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        try {
+            return absenceMaterializationService.materialize(startDate, endDate != null ? endDate : startDate);
+        } catch (RuntimeException e) {
+            // Invalid, future or archived range
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return null;
+        }
+    }
+
+    // Department calendar: who is in, out or on leave on each day of the range
+    @GetMapping("/availability")
+    @ResponseBody
+    public TeamAvailabilityIndex.Availability availability(
+            HttpSession session, HttpServletResponse response, @RequestParam String department,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate)
+            throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        return teamAvailabilityIndex.getAvailability(department, startDate,
+                endDate != null ? endDate : startDate.plusDays(13));
+    }
+
+    // Per-employee and per-department totals for HR (JSON; shares the reports bulkhead)
+    @GetMapping("/reports/summary")
+    @ResponseBody
+    public EmployeeReportService.Report reportSummary(
+            HttpSession session, HttpServletResponse response,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) throws IOException {
+        if (!"ADMIN".equals(session.getAttribute("userRole"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        return employeeReportService.getReport(startDate, endDate);
+    }
+
+    // The session only holds the user's id and role; the rest is read per request
+    private User sessionUser(HttpSession session) {
+        return userLookupService.getUser((Long) session.getAttribute("userId"));
+    }
+
+    // null for anything but approve/reject, which the bulk endpoints turn into a client error
+    private static String decisionStatus(String action) {
+        if ("approve".equalsIgnoreCase(action)) {
+            return "APPROVED";
+        } else if ("reject".equalsIgnoreCase(action)) {
+            return "REJECTED";
+        }
+        return null;
+    }
+
+    private static String bulkSummary(BulkUpdateResult result, String noun, String action) {
+        String summary = result.count(BulkUpdateResult.Outcome.UPDATED) + " " + noun + " "
+                + ("approve".equalsIgnoreCase(action) ? "approved" : "rejected");
+        long processed = result.count(BulkUpdateResult.Outcome.ALREADY_PROCESSED);
+        long missing = result.count(BulkUpdateResult.Outcome.NOT_FOUND);
+        if (processed > 0) {
+            summary += ", " + processed + " already processed";
+        }
+        if (missing > 0) {
+            summary += ", " + missing + " not found";
+        }
+        return summary;
+    }
+
+    public record BulkDecision(List<Long> ids, String action, String comments) {
+    }
+
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.attendance.controller;
 
 import com.attendance.entity.User;
+import com.attendance.service.AuthenticationService;
 import com.attendance.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +17,13 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthenticationService authenticationService;
+
     @GetMapping("/")
     public String home(HttpSession session) {
-        if (session.getAttribute("user") != null) {
-            User user = (User) session.getAttribute("user");
-            return user.getRole().equals("ADMIN") ?
+        if (session.getAttribute("userId") != null) {
+            return "ADMIN".equals(session.getAttribute("userRole")) ?
                     "redirect:/admin/dashboard" :
                     "redirect:/employee/dashboard";
         }
@@ -29,7 +32,7 @@ public class AuthController {
 
     @GetMapping("/login")
     public String loginPage(HttpSession session) {
-        if (session.getAttribute("user") != null) {
+        if (session.getAttribute("userId") != null) {
             return "redirect:/";
         }
         return "login";
@@ -42,14 +45,9 @@ public class AuthController {
                         Model model,
                         RedirectAttributes redirectAttributes) {
         try {
-            if (userService.authenticate(username, password)) {
-                User user = userService.getUserByUsername(username).orElse(null);
-                if (user == null) {
-                    model.addAttribute("error", "User not found");
-                    return "login";
-                }
-
-                session.setAttribute("user", user);
+            User user = authenticationService.login(username, password).orElse(null);
+            if (user != null) {
+                // Only the id and role are kept; the entity (and its password hash) stays out of the session
                 session.setAttribute("userId", user.getId());
                 session.setAttribute("userRole", user.getRole());
 
@@ -113,4 +111,4 @@ public class AuthController {
         redirectAttributes.addFlashAttribute("success", "Logged out successfully");
         return "redirect:/login";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @Controller
@@ -23,31 +24,40 @@ public class EmployeeController {
     @Autowired
     private LeaveService leaveService;
 
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
     @Autowired
     private RegularizationService regularizationService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PunchIngestionService punchIngestionService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
     @GetMapping("/dashboard")
     public String dashboard(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
         try {
             // Today's attendance
-            Attendance todayAttendance = attendanceService.getTodayAttendance(user.getId())
+            Attendance todayAttendance = punchIngestionService.getTodayAttendance(userId)
                     .orElse(null);
 
-            // This month's attendance
-            LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-            LocalDate endOfMonth = LocalDate.now().withDayOfMonth(
-                    LocalDate.now().lengthOfMonth());
-            List<Attendance> monthAttendance = attendanceService.getUserAttendance(
-                    user.getId(), startOfMonth, endOfMonth);
+            // This month's rollup
+            MonthlyAttendanceRollup monthRollup = rollupService.getUserRollup(
+                    userId, YearMonth.now()).orElseGet(MonthlyAttendanceRollup::new);
 
             // Pending leaves
-            List<Leave> pendingLeaves = leaveService.getUserLeaves(user.getId())
+            List<Leave> pendingLeaves = leaveService.getUserLeaves(userId)
                     .stream()
                     .filter(l -> l.getStatus().equals("PENDING"))
                     .toList();
@@ -55,28 +65,16 @@ public class EmployeeController {
             // Recent attendance (last 7 days)
             LocalDate weekAgo = LocalDate.now().minusDays(7);
             List<Attendance> recentAttendance = attendanceService.getUserAttendance(
-                    user.getId(), weekAgo, LocalDate.now());
-
-            // Statistics
-            long presentDays = monthAttendance.stream()
-                    .filter(a -> "PRESENT".equals(a.getStatus()))
-                    .count();
-            long absentDays = monthAttendance.stream()
-                    .filter(a -> "ABSENT".equals(a.getStatus()))
-                    .count();
-            double totalHours = monthAttendance.stream()
-                    .filter(a -> a.getTotalHours() != null)
-                    .mapToDouble(Attendance::getTotalHours)
-                    .sum();
-
-            model.addAttribute("user", user);
+                    userId, weekAgo, LocalDate.now());
+
+            model.addAttribute("user", userLookupService.getUser(userId));
             model.addAttribute("todayAttendance", todayAttendance);
-            model.addAttribute("monthAttendance", monthAttendance);
+            model.addAttribute("monthRollup", monthRollup);
             model.addAttribute("pendingLeaves", pendingLeaves);
             model.addAttribute("recentAttendance", recentAttendance);
-            model.addAttribute("presentDays", presentDays);
-            model.addAttribute("absentDays", absentDays);
-            model.addAttribute("totalHours", String.format("%.1f", totalHours));
+            model.addAttribute("presentDays", monthRollup.getPresentDays());
+            model.addAttribute("absentDays", monthRollup.getAbsentDays());
+            model.addAttribute("totalHours", String.format("%.1f", monthRollup.getTotalHours()));
 
         } catch (Exception e) {
             model.addAttribute("error", "Error loading dashboard: " + e.getMessage());
@@ -89,7 +87,7 @@ public class EmployeeController {
     public String punchIn(HttpSession session, RedirectAttributes redirectAttributes) {
         try {
             Long userId = (Long) session.getAttribute("userId");
-            Attendance attendance = attendanceService.punchIn(userId);
+            Attendance attendance = punchIngestionService.punchIn(userId);
             redirectAttributes.addFlashAttribute("success",
                     "Punched in at " + attendance.getPunchIn().toLocalTime());
         } catch (Exception e) {
@@ -102,7 +100,7 @@ public class EmployeeController {
     public String punchOut(HttpSession session, RedirectAttributes redirectAttributes) {
         try {
             Long userId = (Long) session.getAttribute("userId");
-            Attendance attendance = attendanceService.punchOut(userId);
+            Attendance attendance = punchIngestionService.punchOut(userId);
             redirectAttributes.addFlashAttribute("success",
                     "Punched out. Total hours: " +
                             String.format("%.1f", attendance.getTotalHours()));
@@ -116,17 +114,17 @@ public class EmployeeController {
     public String attendance(HttpSession session, Model model,
                              @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
                              @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
         if (startDate == null) startDate = LocalDate.now().minusDays(30);
         if (endDate == null) endDate = LocalDate.now();
 
         try {
             List<Attendance> attendanceList = attendanceService.getUserAttendance(
-                    user.getId(), startDate, endDate);
+                    userId, startDate, endDate);
 
-            model.addAttribute("user", user);
+            model.addAttribute("user", userLookupService.getUser(userId));
             model.addAttribute("attendanceList", attendanceList);
             model.addAttribute("startDate", startDate);
             model.addAttribute("endDate", endDate);
@@ -140,14 +138,16 @@ public class EmployeeController {
 
     @GetMapping("/leave")
     public String leave(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
         try {
-            List<Leave> leaves = leaveService.getUserLeaves(user.getId());
-            model.addAttribute("user", user);
+            List<Leave> leaves = leaveService.getUserLeaves(userId);
+            model.addAttribute("user", userLookupService.getUser(userId));
             model.addAttribute("leaves", leaves);
             model.addAttribute("leave", new Leave());
+            model.addAttribute("balances", leaveBalanceService.getBalances(userId, LocalDate.now().getYear()));
+            model.addAttribute("limitedTypes", leaveBalanceService.getLimitedTypes());
 
         } catch (Exception e) {
             model.addAttribute("error", "Error loading leaves: " + e.getMessage());
@@ -185,13 +185,13 @@ public class EmployeeController {
 
     @GetMapping("/regularization")
     public String regularization(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
         try {
             List<Regularization> regularizations = regularizationService
-                    .getUserRegularizations(user.getId());
-            model.addAttribute("user", user);
+                    .getUserRegularizations(userId);
+            model.addAttribute("user", userLookupService.getUser(userId));
             model.addAttribute("regularizations", regularizations);
             model.addAttribute("regularization", new Regularization());
 
@@ -225,19 +225,19 @@ public class EmployeeController {
 
     @GetMapping("/onduty")
     public String onDuty(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
-        model.addAttribute("user", user);
+        model.addAttribute("user", userLookupService.getUser(userId));
         return "employee/onduty";
     }
 
     @GetMapping("/profile")
     public String profile(HttpSession session, Model model) {
-        User user = (User) session.getAttribute("user");
-        if (user == null) return "redirect:/login";
+        Long userId = (Long) session.getAttribute("userId");
+        if (userId == null) return "redirect:/login";
 
-        model.addAttribute("user", user);
+        model.addAttribute("user", userLookupService.getUser(userId));
         return "employee/profile";
     }
 
@@ -247,8 +247,7 @@ public class EmployeeController {
                                 RedirectAttributes redirectAttributes) {
         try {
             Long userId = (Long) session.getAttribute("userId");
-            User updatedUser = userService.updateUser(userId, userDetails);
-            session.setAttribute("user", updatedUser);
+            userService.updateUser(userId, userDetails);
 
             redirectAttributes.addFlashAttribute("success", "Profile updated successfully!");
         } catch (Exception e) {
@@ -256,4 +255,4 @@ public class EmployeeController {
         }
         return "redirect:/employee/profile";
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
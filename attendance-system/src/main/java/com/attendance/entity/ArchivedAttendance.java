@@ -0,0 +1,68 @@
+package com.attendance.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An attendance row from a closed month, moved out of {@code attendance} by the archive job
+ * with its original ID. Archived months are read-only.
+ */
+@Entity
+@Table(name = "attendance_archive",
+        uniqueConstraints = @UniqueConstraint(name = "unique_archive_user_date", columnNames = {"user_id", "attendance_date"}),
+        indexes = @Index(name = "idx_archive_date_status", columnList = "attendance_date, status, late_minutes, user_id"))
+@Data
+public class ArchivedAttendance {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    @Column(name = "punch_in")
+    private LocalDateTime punchIn;
+
+    @Column(name = "punch_out")
+    private LocalDateTime punchOut;
+
+    private Double totalHours;
+    private String status;
+    private String notes;
+    private Integer lateMinutes;
+    private Double overtimeHours;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** A detached copy in the shape the views and reports already use. */
+    public Attendance toAttendance() {
+        Attendance attendance = new Attendance();
+        attendance.setId(id);
+        attendance.setUser(user);
+        attendance.setAttendanceDate(attendanceDate);
+        attendance.setPunchIn(punchIn);
+        attendance.setPunchOut(punchOut);
+        attendance.setTotalHours(totalHours);
+        attendance.setStatus(status);
+        attendance.setNotes(notes);
+        attendance.setLateMinutes(lateMinutes);
+        attendance.setOvertimeHours(overtimeHours);
+        attendance.setCreatedAt(createdAt);
+        attendance.setUpdatedAt(updatedAt);
+        return attendance;
+    }
+}
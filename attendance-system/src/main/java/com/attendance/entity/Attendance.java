@@ -2,11 +2,20 @@ package com.attendance.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance",
+        uniqueConstraints = @UniqueConstraint(name = "unique_user_date", columnNames = {"user_id", "attendance_date"}),
+        indexes = {
+                @Index(name = "idx_attendance_date", columnList = "attendance_date"),
+                @Index(name = "idx_attendance_date_status", columnList = "attendance_date, status, late_minutes, user_id"),
+                @Index(name = "idx_attendance_open_sessions", columnList = "attendance_date, punch_out, punch_in"),
+                @Index(name = "idx_attendance_user_date_status", columnList = "user_id, attendance_date, status")
+        })
 @Data
 public class Attendance {
 
@@ -14,8 +23,10 @@ public class Attendance {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(name = "attendance_date", nullable = false)
@@ -28,7 +39,7 @@ public class Attendance {
     private LocalDateTime punchOut;
 
     private Double totalHours;
-    private String status; // PRESENT, ABSENT, LATE, HALF_DAY
+    private String status; // PRESENT, ABSENT, LATE, HALF_DAY, ON_LEAVE
     private String notes;
     private Integer lateMinutes;
     private Double overtimeHours;
@@ -49,4 +60,4 @@ public class Attendance {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,11 +2,18 @@ package com.attendance.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves",
+        indexes = {
+                @Index(name = "idx_leaves_applied_on", columnList = "applied_on, id"),
+                @Index(name = "idx_leaves_status_dates", columnList = "status, start_date, end_date, user_id"),
+                @Index(name = "idx_leaves_user_type_status", columnList = "user_id, leave_type, status, start_date, end_date")
+        })
 @Data
 public class Leave {
 
@@ -14,8 +21,10 @@ public class Leave {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(name = "leave_type", nullable = false)
@@ -49,4 +58,4 @@ public class Leave {
             totalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) + 1;
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.attendance.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "leave_balances",
+        uniqueConstraints = @UniqueConstraint(name = "unique_balance_user_year_type",
+                columnNames = {"user_id", "balance_year", "leave_type"}))
+@Data
+public class LeaveBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer balanceYear;
+
+    @Column(name = "leave_type", nullable = false)
+    private String leaveType;
+
+    private Integer accruedDays = 0;
+    private Integer carriedForwardDays = 0;
+    private Integer takenDays = 0;
+    private Integer pendingDays = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public int getAvailableDays() {
+        return accruedDays + carriedForwardDays - takenDays - pendingDays;
+    }
+}
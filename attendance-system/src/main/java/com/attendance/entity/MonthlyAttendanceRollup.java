@@ -0,0 +1,43 @@
+package com.attendance.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "monthly_attendance_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "unique_rollup_user_month",
+                columnNames = {"user_id", "summary_year", "summary_month"}),
+        indexes = @Index(name = "idx_rollup_month", columnList = "summary_year, summary_month"))
+@Data
+public class MonthlyAttendanceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(name = "summary_year", nullable = false)
+    private Integer summaryYear;
+
+    @Column(name = "summary_month", nullable = false)
+    private Integer summaryMonth;
+
+    private Integer presentDays = 0;
+    private Integer absentDays = 0;
+    private Integer halfDays = 0;
+    private Integer lateDays = 0;
+    private Double totalHours = 0.0;
+    private Double overtimeHours = 0.0;
+    private Integer lateMinutes = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -2,11 +2,17 @@ package com.attendance.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "regularizations")
+@Table(name = "regularizations",
+        indexes = {
+                @Index(name = "idx_regularizations_requested_on", columnList = "requested_on, id"),
+                @Index(name = "idx_regularizations_unapplied", columnList = "status, applied_on, id")
+        })
 @Data
 public class Regularization {
 
@@ -14,8 +20,10 @@ public class Regularization {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(name = "attendance_date", nullable = false)
@@ -41,8 +49,12 @@ public class Regularization {
     @Column(name = "processed_on")
     private LocalDateTime processedOn;
 
+    // Set once an approved request has been written to the attendance table
+    @Column(name = "applied_on")
+    private LocalDateTime appliedOn;
+
     @PrePersist
     protected void onCreate() {
         requestedOn = LocalDateTime.now();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
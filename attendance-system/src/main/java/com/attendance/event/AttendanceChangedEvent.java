@@ -0,0 +1,31 @@
+package com.attendance.event;
+
+import com.attendance.entity.Attendance;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published after an attendance row is created or changed. {@code before} is
+ * {@link State#NONE} for new rows.
+ */
+public record AttendanceChangedEvent(Type type, Long userId, LocalDate date, State before, State after) {
+
+    public enum Type {
+        PUNCH_IN, PUNCH_OUT, UPDATED, MATERIALIZED, AUTO_CLOSED
+    }
+
+    public record State(String status, boolean late, boolean open, LocalDateTime punchIn) {
+
+        public static final State NONE = new State(null, false, false, null);
+
+        public static State of(Attendance attendance) {
+            if (attendance == null) {
+                return NONE;
+            }
+            return new State(attendance.getStatus(),
+                    attendance.getLateMinutes() != null && attendance.getLateMinutes() > 0,
+                    attendance.getPunchIn() != null && attendance.getPunchOut() == null,
+                    attendance.getPunchIn());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.attendance.event;
+
+/**
+ * Published when a leave is applied for ({@code oldStatus} is null) or processed.
+ */
+public record LeaveStatusChangedEvent(Long leaveId, Long userId, String oldStatus, String newStatus) {
+}
@@ -0,0 +1,7 @@
+package com.attendance.event;
+
+/**
+ * Published when a regularization is requested ({@code oldStatus} is null) or processed.
+ */
+public record RegularizationStatusChangedEvent(Long regularizationId, Long userId, String oldStatus, String newStatus) {
+}
@@ -0,0 +1,7 @@
+package com.attendance.event;
+
+/**
+ * Published when a user is created ({@code created} is true), updated or deactivated.
+ */
+public record UserChangedEvent(Long userId, String username, String role, boolean created, boolean active) {
+}
@@ -0,0 +1,16 @@
+package com.attendance.report;
+
+import java.io.IOException;
+
+/**
+ * Writes a tabular report one row at a time so nothing is buffered beyond the current row.
+ */
+public interface ReportWriter extends AutoCloseable {
+
+    void writeHeader(String... columns) throws IOException;
+
+    void writeRow(Object... values) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
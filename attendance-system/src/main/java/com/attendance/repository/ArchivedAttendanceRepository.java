@@ -0,0 +1,60 @@
+package com.attendance.repository;
+
+import com.attendance.entity.ArchivedAttendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedAttendanceRepository extends JpaRepository<ArchivedAttendance, Long> {
+
+    @Query("SELECT MAX(a.attendanceDate) FROM ArchivedAttendance a")
+    LocalDate findLastArchivedDate();
+
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.user.id = :userId " +
+            "AND a.attendanceDate BETWEEN :start AND :end")
+    List<ArchivedAttendance> findByUserIdAndDateRange(@Param("userId") Long userId, @Param("start") LocalDate start,
+                                                      @Param("end") LocalDate end);
+
+    @Query("SELECT a FROM ArchivedAttendance a JOIN FETCH a.user WHERE a.attendanceDate BETWEEN :start AND :end")
+    List<ArchivedAttendance> findByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Single-day reads of the admin attendance screen, same shape as in AttendanceRepository
+    @EntityGraph(attributePaths = "user")
+    List<ArchivedAttendance> findByAttendanceDate(LocalDate date);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT a FROM ArchivedAttendance a WHERE a.attendanceDate = :date AND a.id > :afterId ORDER BY a.id")
+    List<ArchivedAttendance> findPageByAttendanceDate(@Param("date") LocalDate date, @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    long countByAttendanceDate(LocalDate date);
+    long countByAttendanceDateAndStatus(LocalDate date, String status);
+    long countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(LocalDate date);
+
+    @Query("SELECT COUNT(a) FROM ArchivedAttendance a WHERE a.user.id = :userId AND a.status = 'PRESENT' " +
+            "AND a.attendanceDate >= :from AND a.attendanceDate < :to")
+    Long countPresentDaysBetween(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
+
+    // Same shape and order as AttendanceRepository.streamReport
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM ArchivedAttendance a JOIN FETCH a.user u " +
+            "WHERE a.attendanceDate BETWEEN :start AND :end " +
+            "AND (:department IS NULL OR u.department = :department) AND u.active = true " +
+            "ORDER BY a.attendanceDate DESC, u.department, u.employeeId")
+    Stream<ArchivedAttendance> streamReport(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                            @Param("department") String department);
+}
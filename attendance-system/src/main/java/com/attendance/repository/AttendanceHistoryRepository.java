@@ -0,0 +1,33 @@
+package com.attendance.repository;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Date-range reads of {@link AttendanceRepository} that may reach back into archived months.
+ * Ranges starting inside the hot period read the {@code attendance} table only.
+ */
+public interface AttendanceHistoryRepository {
+
+    List<Attendance> findByUserAndAttendanceDateBetween(User user, LocalDate start, LocalDate end);
+
+    List<Attendance> findByAttendanceDateBetween(LocalDate start, LocalDate end);
+
+    /** Present days in the half-open range {@code [from, to)}. */
+    Long countPresentDaysBetween(User user, LocalDate from, LocalDate to);
+
+    /** Newest first, then by department and employee ID; archived rows arrive as detached copies. */
+    Stream<Attendance> streamReport(LocalDate start, LocalDate end, String department);
+
+    /** First day of the oldest month kept hot; earlier months are moved to the archive. */
+    LocalDate getArchiveCutoff();
+
+    /** First day of the first month not yet archived, or null while the archive is empty. */
+    LocalDate getArchivedBefore();
+
+    /** Whether the day's rows have been moved to {@code attendance_archive}. */
+    boolean isArchived(LocalDate date);
+}
@@ -0,0 +1,192 @@
+package com.attendance.repository;
+
+import com.attendance.entity.ArchivedAttendance;
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The archive job moves whole months, oldest first and one transaction per month, so a single
+ * date splits any range: days before it are archived and the rest are hot. Reads starting on or
+ * after the cutoff skip even the lookup of that date.
+ */
+public class AttendanceHistoryRepositoryImpl implements AttendanceHistoryRepository {
+
+    private static final String USER_RANGE_JPQL =
+            "SELECT a FROM Attendance a WHERE a.user = :user AND a.attendanceDate BETWEEN :start AND :end";
+
+    private static final String DATE_RANGE_JPQL =
+            "SELECT a FROM Attendance a JOIN FETCH a.user WHERE a.attendanceDate BETWEEN :start AND :end";
+
+    private static final String PRESENT_DAYS_JPQL =
+            "SELECT COUNT(a) FROM Attendance a WHERE a.user = :user AND a.status = 'PRESENT' " +
+            "AND a.attendanceDate >= :from AND a.attendanceDate < :to";
+
+    // Mirrors the GenerateAttendanceReport procedure; rows are streamed with a bounded fetch size
+    private static final String REPORT_JPQL =
+            "SELECT a FROM Attendance a JOIN FETCH a.user u " +
+            "WHERE a.attendanceDate BETWEEN :start AND :end " +
+            "AND (:department IS NULL OR u.department = :department) AND u.active = true " +
+            "ORDER BY a.attendanceDate DESC, u.department, u.employeeId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Value("${attendance.archive.hot-months:3}")
+    private int hotMonths;
+
+    @Override
+    public List<Attendance> findByUserAndAttendanceDateBetween(User user, LocalDate start, LocalDate end) {
+        LocalDate boundary = boundary(start);
+        if (boundary == null) {
+            return hotByUser(user, start, end);
+        }
+        List<Attendance> rows = new ArrayList<>();
+        for (ArchivedAttendance archived : archivedAttendanceRepository.findByUserIdAndDateRange(
+                user.getId(), start, min(end, boundary.minusDays(1)))) {
+            rows.add(archived.toAttendance());
+        }
+        if (!end.isBefore(boundary)) {
+            rows.addAll(hotByUser(user, boundary, end));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Attendance> findByAttendanceDateBetween(LocalDate start, LocalDate end) {
+        LocalDate boundary = boundary(start);
+        if (boundary == null) {
+            return hotByDate(start, end);
+        }
+        List<Attendance> rows = new ArrayList<>();
+        for (ArchivedAttendance archived : archivedAttendanceRepository.findByDateRange(
+                start, min(end, boundary.minusDays(1)))) {
+            rows.add(archived.toAttendance());
+        }
+        if (!end.isBefore(boundary)) {
+            rows.addAll(hotByDate(boundary, end));
+        }
+        return rows;
+    }
+
+    @Override
+    public Long countPresentDaysBetween(User user, LocalDate from, LocalDate to) {
+        LocalDate boundary = boundary(from);
+        if (boundary == null) {
+            return hotPresentDays(user, from, to);
+        }
+        long archived = archivedAttendanceRepository.countPresentDaysBetween(user.getId(), from, min(to, boundary));
+        return to.isAfter(boundary) ? archived + hotPresentDays(user, boundary, to) : archived;
+    }
+
+    @Override
+    public Stream<Attendance> streamReport(LocalDate start, LocalDate end, String department) {
+        LocalDate boundary = boundary(start);
+        if (boundary == null) {
+            return hotReport(start, end, department);
+        }
+        // Newest first: the hot days, then the archived ones, each opened when reached
+        Stream<Attendance> archived = deferred(() -> archivedAttendanceRepository
+                .streamReport(start, min(end, boundary.minusDays(1)), department)
+                .map(this::detached));
+        return end.isBefore(boundary) ? archived : Stream.concat(hotReport(boundary, end, department), archived);
+    }
+
+    @Override
+    public LocalDate getArchiveCutoff() {
+        return YearMonth.now().minusMonths(hotMonths).atDay(1);
+    }
+
+    @Override
+    public LocalDate getArchivedBefore() {
+        LocalDate last = archivedAttendanceRepository.findLastArchivedDate();
+        return last == null ? null : YearMonth.from(last).plusMonths(1).atDay(1);
+    }
+
+    @Override
+    public boolean isArchived(LocalDate date) {
+        return boundary(date) != null;
+    }
+
+    // First hot day when the range starts in archived months, otherwise null
+    private LocalDate boundary(LocalDate start) {
+        if (!start.isBefore(getArchiveCutoff())) {
+            return null;
+        }
+        LocalDate archivedBefore = getArchivedBefore();
+        return archivedBefore != null && start.isBefore(archivedBefore) ? archivedBefore : null;
+    }
+
+    private List<Attendance> hotByUser(User user, LocalDate start, LocalDate end) {
+        return entityManager.createQuery(USER_RANGE_JPQL, Attendance.class)
+                .setParameter("user", user)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    private List<Attendance> hotByDate(LocalDate start, LocalDate end) {
+        return entityManager.createQuery(DATE_RANGE_JPQL, Attendance.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    private Long hotPresentDays(User user, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(PRESENT_DAYS_JPQL, Long.class)
+                .setParameter("user", user)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult();
+    }
+
+    private Stream<Attendance> hotReport(LocalDate start, LocalDate end, String department) {
+        return entityManager.createQuery(REPORT_JPQL, Attendance.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("department", department)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // The copy is what callers see, so the archived entity need not stay in the persistence context
+    private Attendance detached(ArchivedAttendance archived) {
+        Attendance attendance = archived.toAttendance();
+        entityManager.detach(archived);
+        return attendance;
+    }
+
+    // Defers the query until the stream is first read, and closes it with the stream
+    private static Stream<Attendance> deferred(Supplier<Stream<Attendance>> query) {
+        AtomicReference<Stream<Attendance>> stream = new AtomicReference<>();
+        return StreamSupport.stream(() -> {
+            stream.set(query.get());
+            return stream.get().spliterator();
+        }, Spliterator.ORDERED, false).onClose(() -> {
+            if (stream.get() != null) {
+                stream.get().close();
+            }
+        });
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
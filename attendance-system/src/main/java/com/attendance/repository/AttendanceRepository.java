@@ -2,26 +2,53 @@ package com.attendance.repository;
 
 import com.attendance.entity.Attendance;
 import com.attendance.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceHistoryRepository {
     Optional<Attendance> findByUserAndAttendanceDate(User user, LocalDate date);
+    Optional<Attendance> findByUserIdAndAttendanceDate(Long userId, LocalDate date);
     List<Attendance> findByUser(User user);
-    List<Attendance> findByUserAndAttendanceDateBetween(User user, LocalDate start, LocalDate end);
+
+    @EntityGraph(attributePaths = "user")
     List<Attendance> findByAttendanceDate(LocalDate date);
-    List<Attendance> findByAttendanceDateBetween(LocalDate start, LocalDate end);
 
-    @Query("SELECT COUNT(a) FROM Attendance a WHERE a.user = :user AND a.status = 'PRESENT' " +
-            "AND MONTH(a.attendanceDate) = :month AND YEAR(a.attendanceDate) = :year")
-    Long countPresentDays(@Param("user") User user, @Param("month") int month, @Param("year") int year);
+    default Long countPresentDays(User user, int month, int year) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return countPresentDaysBetween(user, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    List<Attendance> findByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(LocalDate date);
+
+    @EntityGraph(attributePaths = "user")
+    List<Attendance> findByAttendanceDateAndUserIdIn(LocalDate date, Collection<Long> userIds);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date AND a.id > :afterId ORDER BY a.id")
+    List<Attendance> findPageByAttendanceDate(@Param("date") LocalDate date, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    long countByAttendanceDate(LocalDate date);
+    long countByAttendanceDateAndStatus(LocalDate date, String status);
+    long countByAttendanceDateAndLateMinutesGreaterThan(LocalDate date, int lateMinutes);
+    long countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(LocalDate date);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date ORDER BY a.punchIn DESC")
+    List<Attendance> findLatestByAttendanceDate(@Param("date") LocalDate date, Pageable pageable);
 
-    @Query("SELECT a FROM Attendance a WHERE a.punchIn IS NOT NULL AND a.punchOut IS NULL")
-    List<Attendance> findActiveSessions();
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT a FROM Attendance a WHERE a.attendanceDate = :date " +
+            "AND a.punchIn IS NOT NULL AND a.punchOut IS NULL ORDER BY a.punchIn DESC")
+    List<Attendance> findOpenSessions(@Param("date") LocalDate date, Pageable pageable);
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.attendance.repository;
+
+import com.attendance.entity.LeaveBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+    // b.user.id is the foreign key column; the derived "UserId" form joins users and filters there
+    @Query("SELECT b FROM LeaveBalance b WHERE b.user.id = :userId AND b.balanceYear = :year " +
+            "AND b.leaveType = :leaveType")
+    Optional<LeaveBalance> findByUserIdAndBalanceYearAndLeaveType(@Param("userId") Long userId, @Param("year") int year,
+                                                                 @Param("leaveType") String leaveType);
+
+    @Query("SELECT b FROM LeaveBalance b WHERE b.user.id = :userId AND b.balanceYear = :year ORDER BY b.leaveType")
+    List<LeaveBalance> findByUserIdAndBalanceYearOrderByLeaveType(@Param("userId") Long userId, @Param("year") int year);
+    List<LeaveBalance> findByBalanceYearAndLeaveType(int year, String leaveType);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM LeaveBalance b WHERE b.user.id = :userId AND b.balanceYear = :year " +
+            "AND b.leaveType = :leaveType")
+    Optional<LeaveBalance> findForUpdate(@Param("userId") Long userId, @Param("year") int year,
+                                         @Param("leaveType") String leaveType);
+}
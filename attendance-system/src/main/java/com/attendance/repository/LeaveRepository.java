@@ -2,11 +2,18 @@ package com.attendance.repository;
 
 import com.attendance.entity.Leave;
 import com.attendance.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,12 +22,46 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
     List<Leave> findByUserAndStatus(User user, String status);
     List<Leave> findByStatus(String status);
     List<Leave> findByLeaveType(String leaveType);
+    long countByStatus(String status);
+    List<Leave> findByUserIdInAndStatusIn(Collection<Long> userIds, Collection<String> statuses);
 
+    @EntityGraph(attributePaths = "user")
+    List<Leave> findTop5ByStatusOrderByAppliedOnDesc(String status);
+
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT l FROM Leave l WHERE l.status = 'PENDING' ORDER BY l.appliedOn DESC")
     List<Leave> findPendingLeaves();
 
-    @Query("SELECT COUNT(l) FROM Leave l WHERE l.user = :user AND YEAR(l.startDate) = :year " +
-            "AND l.leaveType = :leaveType AND l.status = 'APPROVED'")
-    Long countApprovedLeavesByType(@Param("user") User user, @Param("year") int year,
-                                   @Param("leaveType") String leaveType);
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT l FROM Leave l ORDER BY l.appliedOn DESC")
+    List<Leave> findAllWithUser();
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT l FROM Leave l WHERE l.startDate <= :end AND l.endDate >= :start ORDER BY l.appliedOn DESC")
+    List<Leave> findOverlapping(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT l FROM Leave l WHERE l.user.id = :userId AND l.status IN ('PENDING', 'APPROVED') " +
+            "AND l.startDate <= :end AND l.endDate >= :start ORDER BY l.startDate")
+    List<Leave> findActiveOverlapping(@Param("userId") Long userId, @Param("start") LocalDate start,
+                                      @Param("end") LocalDate end);
+
+    // LEFT JOIN keeps leaves first in the join order, so MySQL walks idx_leaves_applied_on and stops at the limit
+    @Query("SELECT l FROM Leave l LEFT JOIN FETCH l.user ORDER BY l.appliedOn DESC, l.id DESC")
+    List<Leave> findFirstPage(Pageable pageable);
+
+    @Query("SELECT l FROM Leave l LEFT JOIN FETCH l.user WHERE l.appliedOn < :appliedOn " +
+            "OR (l.appliedOn = :appliedOn AND l.id < :id) ORDER BY l.appliedOn DESC, l.id DESC")
+    List<Leave> findPageAfter(@Param("appliedOn") LocalDateTime appliedOn, @Param("id") Long id,
+                              Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Leave l WHERE l.id IN :ids")
+    List<Leave> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Leave l SET l.status = :status, l.approvedBy = :processedBy, l.comments = :comments, " +
+            "l.processedOn = :processedOn WHERE l.id IN :ids AND l.status = 'PENDING'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                            @Param("processedBy") String processedBy, @Param("comments") String comments,
+                            @Param("processedOn") LocalDateTime processedOn);
+}
@@ -0,0 +1,19 @@
+package com.attendance.repository;
+
+import com.attendance.entity.MonthlyAttendanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MonthlyAttendanceRollupRepository extends JpaRepository<MonthlyAttendanceRollup, Long> {
+    Optional<MonthlyAttendanceRollup> findByUserIdAndSummaryYearAndSummaryMonth(Long userId, int year, int month);
+
+    // LEFT JOIN keeps the rollup first in the join order, so MySQL reads the month from idx_rollup_month
+    @Query("SELECT r FROM MonthlyAttendanceRollup r LEFT JOIN FETCH r.user " +
+            "WHERE r.summaryYear = :year AND r.summaryMonth = :month")
+    List<MonthlyAttendanceRollup> findBySummaryYearAndSummaryMonth(@Param("year") int year, @Param("month") int month);
+}
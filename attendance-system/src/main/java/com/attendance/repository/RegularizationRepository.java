@@ -2,9 +2,17 @@ package com.attendance.repository;
 
 import com.attendance.entity.Regularization;
 import com.attendance.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,7 +20,33 @@ public interface RegularizationRepository extends JpaRepository<Regularization,
     List<Regularization> findByUser(User user);
     List<Regularization> findByUserAndStatus(User user, String status);
     List<Regularization> findByStatus(String status);
+    long countByStatus(String status);
 
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT r FROM Regularization r WHERE r.status = 'PENDING' ORDER BY r.requestedOn DESC")
     List<Regularization> findPendingRegularizations();
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT r FROM Regularization r ORDER BY r.requestedOn DESC")
+    List<Regularization> findAllWithUser();
+
+    // LEFT JOIN keeps regularizations first in the join order, so MySQL walks idx_regularizations_requested_on
+    @Query("SELECT r FROM Regularization r LEFT JOIN FETCH r.user ORDER BY r.requestedOn DESC, r.id DESC")
+    List<Regularization> findFirstPage(Pageable pageable);
+
+    @Query("SELECT r FROM Regularization r LEFT JOIN FETCH r.user WHERE r.requestedOn < :requestedOn " +
+            "OR (r.requestedOn = :requestedOn AND r.id < :id) ORDER BY r.requestedOn DESC, r.id DESC")
+    List<Regularization> findPageAfter(@Param("requestedOn") LocalDateTime requestedOn, @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Regularization r WHERE r.id IN :ids")
+    List<Regularization> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Regularization r SET r.status = :status, r.approvedBy = :processedBy, r.comments = :comments, " +
+            "r.processedOn = :processedOn WHERE r.id IN :ids AND r.status = 'PENDING'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                            @Param("processedBy") String processedBy, @Param("comments") String comments,
+                            @Param("processedOn") LocalDateTime processedOn);
+}
@@ -1,7 +1,10 @@
 package com.attendance.repository;
 
 import com.attendance.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +19,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(String role);
     List<User> findByDepartment(String department);
     List<User> findByActive(boolean active);
+    long countByRole(String role);
+    List<User> findTop5ByOrderByIdDesc();
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Serialises per-user checks such as leave overlap
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findForUpdate(@Param("id") Long id);
 
     @Query("SELECT u FROM User u WHERE " +
             "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -23,4 +34,4 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "u.employeeId LIKE CONCAT('%', :search, '%') OR " +
             "u.username LIKE CONCAT('%', :search, '%')")
     List<User> searchUsers(@Param("search") String search);
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,232 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.AttendanceChangedEvent.State;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.service.AttendanceRollupService.Contribution;
+import com.attendance.service.AttendanceRollupService.Delta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes ABSENT (or ON_LEAVE, when an approved leave covers the day) rows for active
+ * employees who have no attendance row for a working day. Each day is split by
+ * department across a small worker pool and inserted in JDBC batches. Inserts skip rows
+ * that already exist, so a run can be repeated or resumed over any date range.
+ */
+@Service
+public class AbsenceMaterializationService {
+
+    private static final Logger log = LoggerFactory.getLogger(AbsenceMaterializationService.class);
+
+    private static final String DEPARTMENTS_SQL =
+            "SELECT DISTINCT department FROM users WHERE is_active = TRUE AND role = 'EMPLOYEE'";
+
+    private static final String MISSING_SQL =
+            "SELECT u.id FROM users u WHERE u.is_active = TRUE AND u.role = 'EMPLOYEE' AND %s " +
+            "AND (u.date_of_joining IS NULL OR u.date_of_joining <= ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance a WHERE a.user_id = u.id AND a.attendance_date = ?) " +
+            "ORDER BY u.id";
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO attendance (user_id, attendance_date, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private PunchIngestionService punchIngestionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.absence.workers:4}")
+    private int workers;
+
+    @Value("${attendance.absence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.absence.catch-up-days:7}")
+    private int catchUpDays;
+
+    @Value("${attendance.absence.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private Set<DayOfWeek> workingDays;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "absence-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // End of day; the catch-up window also fills in days missed while the application was down
+    @Scheduled(cron = "${attendance.absence.cron:0 55 23 * * *}")
+    public void materializeRecentDays() {
+        punchIngestionService.flush();
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(catchUpDays);
+        LocalDate archiveCutoff = attendanceRepository.getArchiveCutoff();
+        materialize(from.isBefore(archiveCutoff) ? archiveCutoff : from, today);
+    }
+
+    /**
+     * Materializes every working day from {@code from} to {@code to}, both inclusive,
+     * and returns one result per day processed.
+     */
+    public List<DayResult> materialize(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new RuntimeException("Cannot mark absences for future dates");
+        }
+        // Closed months are moved to attendance_archive and never change again
+        if (from.isBefore(attendanceRepository.getArchiveCutoff())) {
+            throw new RuntimeException("Attendance before " + attendanceRepository.getArchiveCutoff()
+                    + " is archived and can no longer be marked absent");
+        }
+
+        List<DayResult> results = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (workingDays.contains(date.getDayOfWeek())) {
+                results.add(materialize(date));
+            }
+        }
+        return results;
+    }
+
+    private DayResult materialize(LocalDate date) {
+        List<String> departments = jdbcTemplate.queryForList(DEPARTMENTS_SQL, String.class);
+        List<Future<DayResult>> futures = new ArrayList<>(departments.size());
+        for (String department : departments) {
+            futures.add(executor.submit(() -> materialize(date, department)));
+        }
+
+        int absent = 0;
+        int onLeave = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                DayResult result = futures.get(i).get();
+                absent += result.absent();
+                onLeave += result.onLeave();
+            } catch (ExecutionException e) {
+                // Rows already committed stay; rerunning the day picks up the rest
+                log.error("Absence materialization for {} in department {} failed",
+                        date, departments.get(i), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Absence materialization interrupted");
+            }
+        }
+        if (absent + onLeave > 0) {
+            log.info("Materialized {} absences and {} leave days for {}", absent, onLeave, date);
+        }
+        return new DayResult(date, absent, onLeave);
+    }
+
+    private DayResult materialize(LocalDate date, String department) {
+        String sql = String.format(MISSING_SQL, department == null ? "u.department IS NULL" : "u.department = ?");
+        List<Object> args = new ArrayList<>();
+        if (department != null) {
+            args.add(department);
+        }
+        args.add(date);
+        args.add(date);
+        List<Long> userIds = jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+        Set<Long> onLeaveIds = leaveIntervalIndex.onLeave(userIds, date);
+        List<Missing> missing = userIds.stream()
+                .map(id -> new Missing(id, onLeaveIds.contains(id) ? "ON_LEAVE" : "ABSENT"))
+                .toList();
+
+        int absent = 0;
+        int onLeave = 0;
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Missing> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            List<Missing> inserted = transactionTemplate.execute(status -> insert(date, chunk));
+            for (Missing row : inserted) {
+                if ("ABSENT".equals(row.status())) {
+                    absent++;
+                } else {
+                    onLeave++;
+                }
+            }
+        }
+        return new DayResult(date, absent, onLeave);
+    }
+
+    private List<Missing> insert(LocalDate date, List<Missing> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] results = jdbcTemplate.batchUpdate(INSERT_SQL, chunk.stream()
+                .map(row -> new Object[] {row.userId(), date, row.status(), now, now})
+                .toList());
+
+        // A punch that landed since the read is kept and reported as 0 by INSERT IGNORE
+        List<Missing> inserted = new ArrayList<>(chunk.size());
+        List<Delta> deltas = new ArrayList<>(chunk.size());
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == 0) {
+                continue;
+            }
+            Missing row = chunk.get(i);
+            Attendance attendance = new Attendance();
+            attendance.setStatus(row.status());
+            inserted.add(row);
+            deltas.add(new Delta(row.userId(), date, Contribution.NONE, Contribution.of(attendance)));
+            eventPublisher.publishEvent(new AttendanceChangedEvent(AttendanceChangedEvent.Type.MATERIALIZED,
+                    row.userId(), date, State.NONE, State.of(attendance)));
+        }
+        rollupService.recordBatch(deltas);
+        return inserted;
+    }
+
+    public record DayResult(LocalDate date, int absent, int onLeave) {
+    }
+
+    private record Missing(Long userId, String status) {
+    }
+}
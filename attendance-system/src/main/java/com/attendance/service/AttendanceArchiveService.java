@@ -0,0 +1,84 @@
+package com.attendance.service;
+
+import com.attendance.repository.AttendanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Moves closed months out of {@code attendance} into {@code attendance_archive}, so the hot
+ * table only ever holds the current month plus {@code attendance.archive.hot-months} before it.
+ * Months move oldest first, each in one transaction, which is what lets
+ * {@link AttendanceRepository} split a date range at a single boundary. Each archived month is
+ * also written out by {@link ColumnarArchiveService} for reports.
+ */
+@Service
+public class AttendanceArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceArchiveService.class);
+
+    private static final String COLUMNS = "id, user_id, attendance_date, punch_in, punch_out, total_hours, " +
+            "status, notes, late_minutes, overtime_hours, created_at, updated_at";
+
+    private static final String OLDEST_SQL = "SELECT MIN(attendance_date) FROM attendance";
+
+    private static final String COPY_SQL = "INSERT INTO attendance_archive (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM attendance WHERE attendance_date >= ? AND attendance_date < ?";
+
+    private static final String DELETE_SQL = "DELETE FROM attendance WHERE attendance_date >= ? AND attendance_date < ?";
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ColumnarArchiveService columnarArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Archives every month before the cutoff still in the hot table and returns the rows moved. */
+    @Scheduled(cron = "${attendance.archive.cron:0 30 0 * * *}")
+    public int archiveClosedMonths() {
+        YearMonth cutoff = YearMonth.from(attendanceRepository.getArchiveCutoff());
+        int moved = 0;
+        while (true) {
+            LocalDate oldest = jdbcTemplate.queryForObject(OLDEST_SQL, LocalDate.class);
+            if (oldest == null || !YearMonth.from(oldest).isBefore(cutoff)) {
+                break;
+            }
+            moved += archiveMonth(YearMonth.from(oldest));
+        }
+        // Months archived before their file could be written (or before files existed)
+        columnarArchiveService.exportMissing();
+        return moved;
+    }
+
+    private int archiveMonth(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        Integer moved = transactionTemplate.execute(status -> {
+            int copied = jdbcTemplate.update(COPY_SQL, start, end);
+            int deleted = jdbcTemplate.update(DELETE_SQL, start, end);
+            if (copied != deleted) {
+                throw new RuntimeException("Attendance for " + month + " changed while it was archived");
+            }
+            return copied;
+        });
+        log.info("Archived {} attendance rows for {}", moved, month);
+        try {
+            columnarArchiveService.exportMonth(month);
+        } catch (RuntimeException e) {
+            log.warn("Could not write the columnar file for {}", month, e);
+        }
+        return moved != null ? moved : 0;
+    }
+}
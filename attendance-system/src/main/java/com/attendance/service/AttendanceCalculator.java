@@ -0,0 +1,34 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import java.time.Duration;
+import java.time.LocalTime;
+
+public final class AttendanceCalculator {
+
+    public static final LocalTime SHIFT_START = LocalTime.of(9, 30);
+    public static final double STANDARD_HOURS = 8;
+    public static final String ON_LEAVE_NOTE = "Punched in during approved leave";
+
+    private AttendanceCalculator() {
+    }
+
+    // Late arrival is anything after 9:30 AM
+    public static Integer lateMinutes(LocalTime punchInTime) {
+        if (punchInTime.isAfter(SHIFT_START)) {
+            return (int) Duration.between(SHIFT_START, punchInTime).toMinutes();
+        }
+        return null;
+    }
+
+    // Total hours and overtime (more than 8 hours) from punch in/out
+    public static void applyHours(Attendance attendance) {
+        if (attendance.getPunchIn() != null && attendance.getPunchOut() != null) {
+            long minutes = Duration.between(attendance.getPunchIn(), attendance.getPunchOut()).toMinutes();
+            attendance.setTotalHours(minutes / 60.0);
+
+            attendance.setOvertimeHours(attendance.getTotalHours() > STANDARD_HOURS
+                    ? attendance.getTotalHours() - STANDARD_HOURS : null);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains one row per user and month in monthly_attendance_rollup. Every change to an
+ * attendance row is applied as a delta (new contribution minus old contribution) in the
+ * caller's transaction, so dashboards read a single row instead of aggregating the month.
+ */
+@Service
+@Transactional
+public class AttendanceRollupService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_attendance_rollup (user_id, summary_year, summary_month, present_days, " +
+            "absent_days, half_days, late_days, total_hours, overtime_hours, late_minutes, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "present_days = present_days + VALUES(present_days), " +
+            "absent_days = absent_days + VALUES(absent_days), " +
+            "half_days = half_days + VALUES(half_days), " +
+            "late_days = late_days + VALUES(late_days), " +
+            "total_hours = total_hours + VALUES(total_hours), " +
+            "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+            "late_minutes = late_minutes + VALUES(late_minutes), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO monthly_attendance_rollup (user_id, summary_year, summary_month, present_days, " +
+            "absent_days, half_days, late_days, total_hours, overtime_hours, late_minutes, updated_at) " +
+            "SELECT a.user_id, ?, ?, " +
+            "SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.status = 'HALF_DAY' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN a.late_minutes > 0 THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(a.total_hours), 0), COALESCE(SUM(a.overtime_hours), 0), " +
+            "COALESCE(SUM(a.late_minutes), 0), ? " +
+            "FROM %s a GROUP BY a.user_id";
+
+    private static final String HOT_ROWS = "(SELECT user_id, status, late_minutes, total_hours, overtime_hours " +
+            "FROM attendance WHERE attendance_date >= ? AND attendance_date < ?)";
+
+    // A closed month stays hot until the archive job moves it, so both tables are read
+    private static final String ALL_ROWS = "(SELECT user_id, status, late_minutes, total_hours, overtime_hours " +
+            "FROM attendance WHERE attendance_date >= ? AND attendance_date < ? UNION ALL " +
+            "SELECT user_id, status, late_minutes, total_hours, overtime_hours " +
+            "FROM attendance_archive WHERE attendance_date >= ? AND attendance_date < ?)";
+
+    // Months where some user has attendance but no rollup row, e.g. everything recorded before the rollup existed
+    private static final String UNROLLED_MONTHS_SQL =
+            "SELECT DISTINCT YEAR(a.attendance_date), MONTH(a.attendance_date) FROM " +
+            "(SELECT user_id, attendance_date FROM attendance UNION ALL " +
+            "SELECT user_id, attendance_date FROM attendance_archive) a " +
+            "WHERE NOT EXISTS (SELECT 1 FROM monthly_attendance_rollup r WHERE r.user_id = a.user_id " +
+            "AND r.summary_year = YEAR(a.attendance_date) AND r.summary_month = MONTH(a.attendance_date))";
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void record(Long userId, LocalDate date, Contribution before, Contribution after) {
+        Object[] args = deltaArgs(userId, date, before, after);
+        if (args != null) {
+            jdbcTemplate.update(UPSERT_SQL, args);
+        }
+    }
+
+    public void recordBatch(List<Delta> deltas) {
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            Object[] args = deltaArgs(delta.userId(), delta.date(), delta.before(), delta.after());
+            if (args != null) {
+                batch.add(args);
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MonthlyAttendanceRollup> getUserRollup(Long userId, YearMonth month) {
+        return rollupRepository.findByUserIdAndSummaryYearAndSummaryMonth(
+                userId, month.getYear(), month.getMonthValue());
+    }
+
+    @Transactional(readOnly = true)
+    public List<MonthlyAttendanceRollup> getMonthRollups(YearMonth month) {
+        return rollupRepository.findBySummaryYearAndSummaryMonth(month.getYear(), month.getMonthValue());
+    }
+
+    // Recomputes a month from the raw attendance rows, e.g. after a restore or manual SQL edits
+    public void rebuild(YearMonth month) {
+        jdbcTemplate.update("DELETE FROM monthly_attendance_rollup WHERE summary_year = ? AND summary_month = ?",
+                month.getYear(), month.getMonthValue());
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (start.isBefore(attendanceRepository.getArchiveCutoff())) {
+            jdbcTemplate.update(String.format(REBUILD_SQL, ALL_ROWS), month.getYear(), month.getMonthValue(), now,
+                    start, end, start, end);
+        } else {
+            jdbcTemplate.update(String.format(REBUILD_SQL, HOT_ROWS), month.getYear(), month.getMonthValue(), now,
+                    start, end);
+        }
+    }
+
+    /**
+     * Rebuilds the current month and backfills every month the rollup has not seen yet, one
+     * transaction per month. After the first run only months with gaps are touched.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildOnStartup() {
+        List<YearMonth> months = new ArrayList<>();
+        months.add(YearMonth.now());
+        for (YearMonth month : findUnrolledMonths()) {
+            if (!months.contains(month)) {
+                months.add(month);
+            }
+        }
+        for (YearMonth month : months) {
+            transactionTemplate.executeWithoutResult(status -> rebuild(month));
+        }
+        return months.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<YearMonth> findUnrolledMonths() {
+        return jdbcTemplate.query(UNROLLED_MONTHS_SQL, (rs, rowNum) -> YearMonth.of(rs.getInt(1), rs.getInt(2)));
+    }
+
+    private static Object[] deltaArgs(Long userId, LocalDate date, Contribution before, Contribution after) {
+        Contribution delta = after.minus(before);
+        if (delta.isEmpty()) {
+            return null;
+        }
+        return new Object[] {
+                userId, date.getYear(), date.getMonthValue(), delta.present(), delta.absent(),
+                delta.halfDay(), delta.late(), delta.totalHours(), delta.overtimeHours(),
+                delta.lateMinutes(), Timestamp.valueOf(LocalDateTime.now())
+        };
+    }
+
+    public record Delta(Long userId, LocalDate date, Contribution before, Contribution after) {
+    }
+
+    /** What a single attendance row adds to its month. */
+    public record Contribution(int present, int absent, int halfDay, int late,
+                               double totalHours, double overtimeHours, int lateMinutes) {
+
+        public static final Contribution NONE = new Contribution(0, 0, 0, 0, 0, 0, 0);
+
+        public static Contribution of(Attendance attendance) {
+            if (attendance == null) {
+                return NONE;
+            }
+            String status = attendance.getStatus();
+            int lateMinutes = attendance.getLateMinutes() != null ? attendance.getLateMinutes() : 0;
+            return new Contribution(
+                    "PRESENT".equals(status) ? 1 : 0,
+                    "ABSENT".equals(status) ? 1 : 0,
+                    "HALF_DAY".equals(status) ? 1 : 0,
+                    lateMinutes > 0 ? 1 : 0,
+                    attendance.getTotalHours() != null ? attendance.getTotalHours() : 0,
+                    attendance.getOvertimeHours() != null ? attendance.getOvertimeHours() : 0,
+                    lateMinutes);
+        }
+
+        public Contribution withoutHours() {
+            return new Contribution(present, absent, halfDay, late, 0, 0, lateMinutes);
+        }
+
+        Contribution minus(Contribution other) {
+            return new Contribution(present - other.present, absent - other.absent,
+                    halfDay - other.halfDay, late - other.late, totalHours - other.totalHours,
+                    overtimeHours - other.overtimeHours, lateMinutes - other.lateMinutes);
+        }
+
+        boolean isEmpty() {
+            return equals(NONE);
+        }
+    }
+}
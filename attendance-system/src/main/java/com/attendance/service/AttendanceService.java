@@ -2,14 +2,20 @@ package com.attendance.service;
 
 import com.attendance.entity.Attendance;
 import com.attendance.entity.User;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.AttendanceChangedEvent.State;
+import com.attendance.entity.ArchivedAttendance;
+import com.attendance.repository.ArchivedAttendanceRepository;
 import com.attendance.repository.AttendanceRepository;
-import com.attendance.repository.UserRepository;
+import com.attendance.service.AttendanceRollupService.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,15 +23,31 @@ import java.util.Optional;
 @Transactional
 public class AttendanceService {
 
+    private static final int DASHBOARD_LIST_SIZE = 10;
+
     @Autowired
     private AttendanceRepository attendanceRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OpenSessionRegistry openSessionRegistry;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
 
     public Attendance punchIn(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
 
         LocalDate today = LocalDate.now();
         Optional<Attendance> existing = attendanceRepository.findByUserAndAttendanceDate(user, today);
@@ -39,56 +61,53 @@ public class AttendanceService {
         attendance.setAttendanceDate(today);
         attendance.setPunchIn(LocalDateTime.now());
         attendance.setStatus("PRESENT");
-
-        // Check late arrival (after 9:30 AM)
-        LocalTime punchInTime = attendance.getPunchIn().toLocalTime();
-        if (punchInTime.isAfter(LocalTime.of(9, 30))) {
-            int lateMinutes = (int) java.time.Duration.between(
-                    LocalTime.of(9, 30), punchInTime).toMinutes();
-            attendance.setLateMinutes(lateMinutes);
+        attendance.setLateMinutes(AttendanceCalculator.lateMinutes(attendance.getPunchIn().toLocalTime()));
+        if (leaveIntervalIndex.isOnLeave(userId, today)) {
+            attendance.setNotes(AttendanceCalculator.ON_LEAVE_NOTE);
         }
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        rollupService.record(userId, today, Contribution.NONE, Contribution.of(saved));
+        eventPublisher.publishEvent(new AttendanceChangedEvent(
+                AttendanceChangedEvent.Type.PUNCH_IN, userId, today, State.NONE, State.of(saved)));
+        return saved;
     }
 
     public Attendance punchOut(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
 
         LocalDate today = LocalDate.now();
         Attendance attendance = attendanceRepository.findByUserAndAttendanceDate(user, today)
                 .orElseThrow(() -> new RuntimeException("No punch in found for today"));
 
-        if (attendance.getPunchOut() != null) {
+        // A session the sweeper auto-closed still takes the real punch-out
+        boolean autoClosed = StaleSessionSweeper.isAutoClosed(attendance.getNotes());
+        if (attendance.getPunchOut() != null && !autoClosed) {
             throw new RuntimeException("Already punched out for today");
         }
 
+        Contribution before = Contribution.of(attendance);
+        State beforeState = State.of(attendance);
         attendance.setPunchOut(LocalDateTime.now());
-
-        // Calculate total hours
-        if (attendance.getPunchIn() != null && attendance.getPunchOut() != null) {
-            long minutes = java.time.Duration.between(
-                    attendance.getPunchIn(), attendance.getPunchOut()).toMinutes();
-            attendance.setTotalHours(minutes / 60.0);
-
-            // Calculate overtime (more than 8 hours)
-            if (attendance.getTotalHours() > 8) {
-                attendance.setOvertimeHours(attendance.getTotalHours() - 8);
-            }
+        AttendanceCalculator.applyHours(attendance);
+        if (autoClosed) {
+            attendance.setNotes(StaleSessionSweeper.withoutAutoCloseNote(attendance.getNotes()));
         }
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        rollupService.record(userId, today, before, Contribution.of(saved));
+        eventPublisher.publishEvent(new AttendanceChangedEvent(
+                AttendanceChangedEvent.Type.PUNCH_OUT, userId, today, beforeState, State.of(saved)));
+        return saved;
     }
 
     public Optional<Attendance> getTodayAttendance(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
         return attendanceRepository.findByUserAndAttendanceDate(user, LocalDate.now());
     }
 
     public List<Attendance> getUserAttendance(Long userId, LocalDate startDate, LocalDate endDate) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
         return attendanceRepository.findByUserAndAttendanceDateBetween(user, startDate, endDate);
     }
 
@@ -96,26 +115,97 @@ public class AttendanceService {
         if (date == null) {
             date = LocalDate.now();
         }
+        if (attendanceRepository.isArchived(date)) {
+            return archivedAttendanceRepository.findByAttendanceDate(date).stream()
+                    .map(ArchivedAttendance::toAttendance)
+                    .toList();
+        }
         return attendanceRepository.findByAttendanceDate(date);
     }
 
+    public KeysetPage<Attendance> getAttendancePage(LocalDate date, String after, int size) {
+        Long afterId = after != null ? KeysetPage.cursorId(after) : 0L;
+        // Archived rows keep their attendance IDs, so the cursor means the same in both tables
+        List<Attendance> rows = attendanceRepository.isArchived(date)
+                ? archivedAttendanceRepository.findPageByAttendanceDate(date, afterId, PageRequest.of(0, size + 1))
+                        .stream().map(ArchivedAttendance::toAttendance).toList()
+                : attendanceRepository.findPageByAttendanceDate(date, afterId, PageRequest.of(0, size + 1));
+        return KeysetPage.of(rows, size, a -> String.valueOf(a.getId()));
+    }
+
+    public long countAttendance(LocalDate date) {
+        if (attendanceRepository.isArchived(date)) {
+            return archivedAttendanceRepository.countByAttendanceDate(date);
+        }
+        return attendanceRepository.countByAttendanceDate(date);
+    }
+
+    public long countAttendance(LocalDate date, String status) {
+        if (attendanceRepository.isArchived(date)) {
+            return archivedAttendanceRepository.countByAttendanceDateAndStatus(date, status);
+        }
+        return attendanceRepository.countByAttendanceDateAndStatus(date, status);
+    }
+
+    public long countOpenSessions(LocalDate date) {
+        if (servesFromRegistry(date)) {
+            return openSessionRegistry.count(date);
+        }
+        if (attendanceRepository.isArchived(date)) {
+            return archivedAttendanceRepository.countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(date);
+        }
+        return attendanceRepository.countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(date);
+    }
+
     public List<Attendance> getAttendanceByDateRange(LocalDate start, LocalDate end) {
         return attendanceRepository.findByAttendanceDateBetween(start, end);
     }
 
-    public List<Attendance> getActiveSessions() {
-        return attendanceRepository.findActiveSessions();
+    public List<Attendance> getLatestAttendance(LocalDate date) {
+        return attendanceRepository.findLatestByAttendanceDate(date, PageRequest.of(0, DASHBOARD_LIST_SIZE));
+    }
+
+    public List<Attendance> getLatestOpenSessions(LocalDate date) {
+        if (!servesFromRegistry(date)) {
+            return attendanceRepository.findOpenSessions(date, PageRequest.of(0, DASHBOARD_LIST_SIZE));
+        }
+        List<Long> userIds = openSessionRegistry.getOpenSessions(date).stream()
+                .limit(DASHBOARD_LIST_SIZE)
+                .map(OpenSessionRegistry.OpenSession::userId)
+                .toList();
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return attendanceRepository.findByAttendanceDateAndUserIdIn(date, userIds).stream()
+                .filter(a -> a.getPunchOut() == null)
+                .sorted(Comparator.comparing(Attendance::getPunchIn).reversed())
+                .toList();
+    }
+
+    // The registry holds today's sessions; other days still go to the database
+    private boolean servesFromRegistry(LocalDate date) {
+        return openSessionRegistry.isReady() && date.equals(LocalDate.now());
     }
 
     public Attendance updateAttendance(Long id, Attendance attendanceDetails) {
         Attendance attendance = attendanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Attendance not found"));
 
+        Contribution before = Contribution.of(attendance);
+        State beforeState = State.of(attendance);
         attendance.setPunchIn(attendanceDetails.getPunchIn());
         attendance.setPunchOut(attendanceDetails.getPunchOut());
         attendance.setStatus(attendanceDetails.getStatus());
         attendance.setNotes(attendanceDetails.getNotes());
+        if (attendance.getPunchIn() != null) {
+            attendance.setLateMinutes(AttendanceCalculator.lateMinutes(attendance.getPunchIn().toLocalTime()));
+        }
+        AttendanceCalculator.applyHours(attendance);
 
-        return attendanceRepository.save(attendance);
+        Attendance saved = attendanceRepository.save(attendance);
+        rollupService.record(saved.getUser().getId(), saved.getAttendanceDate(), before, Contribution.of(saved));
+        eventPublisher.publishEvent(new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED,
+                saved.getUser().getId(), saved.getAttendanceDate(), beforeState, State.of(saved)));
+        return saved;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Login with a single user lookup and salted BCrypt hashes. Principals (and unknown
+ * usernames) are kept in a size-bounded, TTL-evicting cache so repeated or brute-force
+ * attempts are answered from memory instead of MySQL.
+ */
+@Service
+public class AuthenticationService {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${attendance.security.password-cost:10}")
+    private int passwordCost;
+
+    @Value("${attendance.auth.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${attendance.auth.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private Map<String, Principal> cache;
+
+    @PostConstruct
+    void init() {
+        passwordEncoder = new BCryptPasswordEncoder(passwordCost);
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Principal> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Transactional
+    public Optional<User> login(String username, String password) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        User loaded = null;
+        Principal principal = cached(username);
+        if (principal == null) {
+            loaded = userRepository.findByUsername(username).orElse(null);
+            principal = Principal.of(loaded, System.currentTimeMillis() + cacheTtlSeconds * 1000);
+            cache(username, principal);
+        }
+        if (principal.userId() == null || !principal.active() || !matches(password, principal.passwordHash())) {
+            return Optional.empty();
+        }
+
+        // Only a successful login needs the full row, and a cache miss already has it
+        User user = loaded != null ? loaded : userRepository.findById(principal.userId()).orElse(null);
+        if (user == null || !user.isActive()) {
+            evict(username);
+            return Optional.empty();
+        }
+        if (needsRehash(user.getPassword())) {
+            user.setPassword(hashPassword(password));
+            evict(username);
+        }
+        return Optional.of(user);
+    }
+
+    public String hashPassword(String password) {
+        return passwordEncoder.encode(password);
+    }
+
+    public boolean isHashed(String password) {
+        return password != null && BCRYPT.matcher(password).matches();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+
+    private boolean matches(String password, String stored) {
+        if (isHashed(stored)) {
+            return passwordEncoder.matches(password, stored);
+        }
+        // Rows created before hashing was introduced still hold the plain password
+        return stored != null && MessageDigest.isEqual(
+                password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean needsRehash(String stored) {
+        return !isHashed(stored) || passwordEncoder.upgradeEncoding(stored);
+    }
+
+    private synchronized Principal cached(String username) {
+        Principal principal = cache.get(username);
+        if (principal != null && principal.expiresAt() < System.currentTimeMillis()) {
+            cache.remove(username);
+            return null;
+        }
+        return principal;
+    }
+
+    private synchronized void cache(String username, Principal principal) {
+        cache.put(username, principal);
+    }
+
+    private synchronized void evict(String username) {
+        if (username != null) {
+            cache.remove(username);
+        }
+    }
+
+    /** A cached lookup result; {@code userId} is null for usernames that do not exist. */
+    private record Principal(Long userId, String passwordHash, boolean active, long expiresAt) {
+
+        static Principal of(User user, long expiresAt) {
+            return user == null
+                    ? new Principal(null, null, false, expiresAt)
+                    : new Principal(user.getId(), user.getPassword(), user.isActive(), expiresAt);
+        }
+    }
+}
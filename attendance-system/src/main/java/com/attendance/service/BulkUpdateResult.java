@@ -0,0 +1,21 @@
+package com.attendance.service;
+
+import java.util.List;
+
+/**
+ * Per-ID outcome of a bulk approve or reject, in the order the IDs were given.
+ * {@code status} is the status the row has after the call.
+ */
+public record BulkUpdateResult(List<Item> items) {
+
+    public enum Outcome {
+        UPDATED, ALREADY_PROCESSED, NOT_FOUND
+    }
+
+    public record Item(Long id, Outcome outcome, String status) {
+    }
+
+    public long count(Outcome outcome) {
+        return items.stream().filter(i -> i.outcome() == outcome).count();
+    }
+}
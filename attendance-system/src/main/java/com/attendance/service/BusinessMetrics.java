@@ -0,0 +1,122 @@
+package com.attendance.service;
+
+import com.attendance.config.Bulkhead;
+import com.attendance.config.BulkheadInterceptor;
+import com.attendance.event.AttendanceChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Business gauges next to the technical metrics: open sessions and pending approvals from
+ * the dashboard snapshot, the write-behind queue depth and failed writes, the load on each
+ * request bulkhead, and punches counted as they are stored, both as a counter and as a
+ * trailing one-minute rate.
+ */
+@Component
+public class BusinessMetrics {
+
+    private static final int WINDOW_SECONDS = 60;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private PunchIngestionService punchIngestionService;
+
+    @Autowired
+    private BulkheadInterceptor bulkheadInterceptor;
+
+    // One slot per second of the trailing minute, reused once its second has passed
+    private final long[] slotSecond = new long[WINDOW_SECONDS];
+    private final long[] slotCount = new long[WINDOW_SECONDS];
+
+    private Counter punchIns;
+    private Counter punchOuts;
+
+    @PostConstruct
+    void register() {
+        Gauge.builder("attendance.sessions.open", dashboardStatsService, s -> s.getSnapshot().openSessions())
+                .description("Employees punched in and not yet out today")
+                .register(meterRegistry);
+        Gauge.builder("attendance.approvals.pending", dashboardStatsService, s -> s.getSnapshot().pendingLeaves())
+                .tag("type", "leave")
+                .description("Requests waiting for an admin decision")
+                .register(meterRegistry);
+        Gauge.builder("attendance.approvals.pending", dashboardStatsService,
+                        s -> s.getSnapshot().pendingRegularizations())
+                .tag("type", "regularization")
+                .description("Requests waiting for an admin decision")
+                .register(meterRegistry);
+        Gauge.builder("attendance.punches.per_minute", this, BusinessMetrics::punchesLastMinute)
+                .description("Punches stored in the trailing minute")
+                .register(meterRegistry);
+        Gauge.builder("attendance.ingestion.queue.depth", punchIngestionService, PunchIngestionService::getQueueDepth)
+                .description("Punches acknowledged but not yet written")
+                .register(meterRegistry);
+        FunctionCounter.builder("attendance.ingestion.failed", punchIngestionService,
+                        PunchIngestionService::getFailedPunches)
+                .description("Acknowledged punches that could not be written")
+                .register(meterRegistry);
+        for (Bulkhead bulkhead : bulkheadInterceptor.getBulkheads()) {
+            Gauge.builder("attendance.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("bulkhead", bulkhead.getName())
+                    .description("Requests holding a permit")
+                    .register(meterRegistry);
+            Gauge.builder("attendance.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("bulkhead", bulkhead.getName())
+                    .description("Requests waiting for a permit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("attendance.bulkhead.admitted", bulkhead, Bulkhead::getAdmitted)
+                    .tag("bulkhead", bulkhead.getName())
+                    .description("Requests admitted")
+                    .register(meterRegistry);
+            FunctionCounter.builder("attendance.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("bulkhead", bulkhead.getName())
+                    .description("Requests turned away with a 503 after the queue timeout")
+                    .register(meterRegistry);
+        }
+        punchIns = Counter.builder("attendance.punches").tag("type", "in").register(meterRegistry);
+        punchOuts = Counter.builder("attendance.punches").tag("type", "out").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        if (event.type() == AttendanceChangedEvent.Type.PUNCH_IN) {
+            punchIns.increment();
+        } else if (event.type() == AttendanceChangedEvent.Type.PUNCH_OUT) {
+            punchOuts.increment();
+        } else {
+            return;
+        }
+        recordPunch(System.currentTimeMillis() / 1000);
+    }
+
+    private synchronized void recordPunch(long second) {
+        int slot = (int) (second % WINDOW_SECONDS);
+        if (slotSecond[slot] != second) {
+            slotSecond[slot] = second;
+            slotCount[slot] = 0;
+        }
+        slotCount[slot]++;
+    }
+
+    synchronized long punchesLastMinute() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int i = 0; i < WINDOW_SECONDS; i++) {
+            if (now - slotSecond[i] < WINDOW_SECONDS) {
+                total += slotCount[i];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,162 @@
+package com.attendance.service;
+
+import com.attendance.archive.ColumnarMonth;
+import com.attendance.archive.ColumnarMonthWriter;
+import com.attendance.repository.AttendanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a columnar copy of every archived month in {@code attendance.archive.columnar-dir}, one
+ * file per month, and serves the memory-mapped files that {@link EmployeeReportService} reads
+ * archived rows from instead of MySQL. Archived months never change, so a file is written once;
+ * it is checked against the archive's row count when first opened and rewritten if it does not
+ * match (a restored database, for instance). Ranges with any month missing a file fall back to
+ * the database.
+ */
+@Service
+public class ColumnarArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarArchiveService.class);
+
+    private static final String FIRST_ARCHIVED_SQL = "SELECT MIN(attendance_date) FROM attendance_archive";
+
+    private static final String MONTH_ROWS_SQL =
+            "SELECT user_id, attendance_date, status, total_hours, late_minutes, overtime_hours " +
+            "FROM attendance_archive WHERE attendance_date >= ? AND attendance_date < ? " +
+            "ORDER BY attendance_date, user_id";
+
+    private static final String MONTH_COUNT_SQL =
+            "SELECT COUNT(*) FROM attendance_archive WHERE attendance_date >= ? AND attendance_date < ?";
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${attendance.archive.columnar-dir:data/attendance-archive}")
+    private String directory;
+
+    private final Map<YearMonth, ColumnarMonth> months = new ConcurrentHashMap<>();
+
+    /** Writes the file of every archived month that does not have one yet and returns how many were written. */
+    public int exportMissing() {
+        LocalDate first = jdbcTemplate.queryForObject(FIRST_ARCHIVED_SQL, LocalDate.class);
+        LocalDate archivedBefore = attendanceRepository.getArchivedBefore();
+        if (first == null || archivedBefore == null) {
+            return 0;
+        }
+        int written = 0;
+        for (YearMonth month = YearMonth.from(first); month.isBefore(YearMonth.from(archivedBefore));
+             month = month.plusMonths(1)) {
+            if (Files.exists(file(month))) {
+                continue;
+            }
+            try {
+                exportMonth(month);
+                written++;
+            } catch (RuntimeException e) {
+                log.warn("Could not write the columnar file for {}, reports will read it from the database", month, e);
+            }
+        }
+        return written;
+    }
+
+    /** Rewrites the file of an archived month from {@code attendance_archive}. */
+    public ColumnarMonth exportMonth(YearMonth month) {
+        ColumnarMonth written = write(month);
+        months.put(month, written);
+        return written;
+    }
+
+    /**
+     * The files of the months from {@code start} to {@code end} when every day in the range is
+     * archived and every month in it has a file; empty otherwise.
+     */
+    public Optional<List<ColumnarMonth>> getMonths(LocalDate start, LocalDate end) {
+        LocalDate archivedBefore = attendanceRepository.getArchivedBefore();
+        if (archivedBefore == null || end.isBefore(start) || !end.isBefore(archivedBefore)) {
+            return Optional.empty();
+        }
+        List<ColumnarMonth> columns = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+            ColumnarMonth file = months.get(month);
+            if (file == null) {
+                // Opened outside the map: opening counts the archive rows and may rewrite the file
+                file = open(month);
+                if (file == null) {
+                    return Optional.empty();
+                }
+                ColumnarMonth raced = months.putIfAbsent(month, file);
+                if (raced != null) {
+                    file = raced;
+                }
+            }
+            columns.add(file);
+        }
+        return Optional.of(columns);
+    }
+
+    // Null when the month has no file yet; a file that disagrees with the archive is rewritten
+    private ColumnarMonth open(YearMonth month) {
+        Path file = file(month);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            ColumnarMonth columns = ColumnarMonth.open(file);
+            Long archived = jdbcTemplate.queryForObject(MONTH_COUNT_SQL, Long.class,
+                    month.atDay(1), month.plusMonths(1).atDay(1));
+            if (archived != null && archived == columns.getRowCount()) {
+                return columns;
+            }
+            log.warn("Columnar file for {} has {} rows but the archive has {}, rewriting it",
+                    month, columns.getRowCount(), archived);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read {}, rewriting it", file, e);
+        }
+        try {
+            return write(month);
+        } catch (RuntimeException e) {
+            log.warn("Could not rewrite {}, reports will read {} from the database", file, month, e);
+            return null;
+        }
+    }
+
+    private ColumnarMonth write(YearMonth month) {
+        ColumnarMonthWriter writer = new ColumnarMonthWriter(month);
+        jdbcTemplate.query(MONTH_ROWS_SQL, rs -> {
+            writer.add(rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getString(3),
+                    rs.getObject(4, Double.class), rs.getObject(5, Integer.class), rs.getObject(6, Double.class));
+        }, month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            writer.writeTo(file(month));
+            ColumnarMonth written = ColumnarMonth.open(file(month));
+            log.info("Wrote columnar attendance for {}: {} rows, {} employees",
+                    month, written.getRowCount(), written.getUserCount());
+            return written;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the columnar file for " + month, e);
+        }
+    }
+
+    private Path file(YearMonth month) {
+        return Paths.get(directory, "attendance-" + month + ".col");
+    }
+}
@@ -0,0 +1,237 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.LeaveStatusChangedEvent;
+import com.attendance.event.RegularizationStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live feed for open admin dashboards. Domain events are turned into feed events after
+ * commit and fanned out to every subscriber's bounded buffer; a small sender pool drains
+ * each buffer to its SSE connection. A subscriber that falls behind has its buffer
+ * dropped and is told to resync, so one slow browser never holds up the others.
+ */
+@Service
+public class DashboardFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardFeed.class);
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Value("${attendance.feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${attendance.feed.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${attendance.feed.sender-threads:2}")
+    private int senderThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Map<String, Long> lastCounters = Map.of();
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-feed-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    /**
+     * Registers an emitter and queues the current counters as its first event; returns
+     * false when the subscriber limit is reached.
+     */
+    public boolean subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        offer(subscriber, new FeedEvent("counters", counters(dashboardStatsService.getSnapshot())));
+        return true;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        String type = switch (event.type()) {
+            case PUNCH_IN -> "punch-in";
+            case PUNCH_OUT -> "punch-out";
+            default -> null;
+        };
+        if (type != null) {
+            publishActivity(type, event.userId(), null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        if (event.oldStatus() == null) {
+            publishActivity("leave-applied", event.userId(), event.leaveId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegularizationStatusChanged(RegularizationStatusChangedEvent event) {
+        if (event.oldStatus() == null) {
+            publishActivity("regularization-requested", event.userId(), event.regularizationId());
+        }
+    }
+
+    // Only counters that moved since the last tick are sent; an idle tick doubles as a keep-alive
+    @Scheduled(fixedDelayString = "${attendance.feed.counters-interval-ms:5000}")
+    public void publishCounters() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Long> current = counters(dashboardStatsService.getSnapshot());
+        Map<String, Long> changed = new LinkedHashMap<>();
+        current.forEach((name, value) -> {
+            if (!value.equals(lastCounters.get(name))) {
+                changed.put(name, value);
+            }
+        });
+        lastCounters = current;
+        publish(changed.isEmpty() ? FeedEvent.KEEP_ALIVE : new FeedEvent("counters", changed));
+    }
+
+    private void publishActivity(String type, Long userId, Long referenceId) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        User user;
+        try {
+            user = userLookupService.getUser(userId);
+        } catch (RuntimeException e) {
+            // Runs after commit, where a failure would surface in the caller that made the change
+            log.debug("Skipping {} feed event for user {}: {}", type, userId, e.getMessage());
+            return;
+        }
+        publish(new FeedEvent(type, new Activity(user.getId(), user.getFirstName() + " " + user.getLastName(),
+                user.getDepartment(), referenceId, LocalDateTime.now())));
+    }
+
+    private void publish(FeedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, event);
+        }
+    }
+
+    private void offer(Subscriber subscriber, FeedEvent event) {
+        if (!subscriber.buffer.offer(event)) {
+            subscriber.buffer.clear();
+            subscriber.overflowed = true;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed) {
+                subscriber.overflowed = false;
+                subscriber.emitter.send(SseEmitter.event().name("resync")
+                        .data(counters(dashboardStatsService.getSnapshot()), MediaType.APPLICATION_JSON));
+            }
+            FeedEvent event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                if (event == FeedEvent.KEEP_ALIVE) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The browser went away; the emitter callbacks may not fire for a broken connection
+            log.debug("Dropping dashboard feed subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        if ((!subscriber.buffer.isEmpty() || subscriber.overflowed) && subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private static Map<String, Long> counters(DashboardStatsService.Snapshot snapshot) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        counters.put("totalUsers", snapshot.totalUsers());
+        counters.put("totalEmployees", snapshot.totalEmployees());
+        counters.put("presentToday", snapshot.presentToday());
+        counters.put("lateToday", snapshot.lateToday());
+        counters.put("absentToday", snapshot.absentToday());
+        counters.put("openSessions", snapshot.openSessions());
+        counters.put("pendingLeaves", snapshot.pendingLeaves());
+        counters.put("pendingRegularizations", snapshot.pendingRegularizations());
+        return counters;
+    }
+
+    /** Who did what; {@code referenceId} is the leave or regularization ID where there is one. */
+    public record Activity(Long userId, String name, String department, Long referenceId, LocalDateTime at) {
+    }
+
+    private record FeedEvent(String name, Object data) {
+
+        static final FeedEvent KEEP_ALIVE = new FeedEvent(null, null);
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final BlockingQueue<FeedEvent> buffer;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<FeedEvent> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
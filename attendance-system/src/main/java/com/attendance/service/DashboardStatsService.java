@@ -0,0 +1,132 @@
+package com.attendance.service;
+
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.LeaveStatusChangedEvent;
+import com.attendance.event.RegularizationStatusChangedEvent;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.RegularizationRepository;
+import com.attendance.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Admin dashboard counters kept in memory and moved by domain events after commit.
+ * The whole set is swapped atomically so readers always see one consistent snapshot;
+ * a periodic reconciliation recounts from the database to correct any drift.
+ */
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private RegularizationRepository regularizationRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.empty(LocalDate.now()));
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (!current.date().equals(LocalDate.now())) {
+            // First read after midnight, today's counters start from the database
+            reconcile();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${attendance.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${attendance.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        snapshot.set(new Snapshot(
+                today,
+                userRepository.count(),
+                userRepository.countByRole("EMPLOYEE"),
+                attendanceRepository.countByAttendanceDateAndStatus(today, "PRESENT"),
+                attendanceRepository.countByAttendanceDateAndLateMinutesGreaterThan(today, 0),
+                attendanceRepository.countByAttendanceDateAndStatus(today, "ABSENT"),
+                attendanceRepository.countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(today),
+                leaveRepository.countByStatus("PENDING"),
+                regularizationRepository.countByStatus("PENDING"),
+                LocalDateTime.now()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        AttendanceChangedEvent.State before = event.before();
+        AttendanceChangedEvent.State after = event.after();
+        snapshot.updateAndGet(s -> !s.date().equals(event.date()) ? s : s.adjustAttendance(
+                flag("PRESENT".equals(after.status())) - flag("PRESENT".equals(before.status())),
+                flag(after.late()) - flag(before.late()),
+                flag("ABSENT".equals(after.status())) - flag("ABSENT".equals(before.status())),
+                flag(after.open()) - flag(before.open())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        int delta = flag("PENDING".equals(event.newStatus())) - flag("PENDING".equals(event.oldStatus()));
+        if (delta != 0) {
+            snapshot.updateAndGet(s -> s.adjustPending(delta, 0));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRegularizationStatusChanged(RegularizationStatusChangedEvent event) {
+        int delta = flag("PENDING".equals(event.newStatus())) - flag("PENDING".equals(event.oldStatus()));
+        if (delta != 0) {
+            snapshot.updateAndGet(s -> s.adjustPending(0, delta));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.created()) {
+            snapshot.updateAndGet(s -> s.adjustUsers(1, flag("EMPLOYEE".equals(event.role()))));
+        }
+    }
+
+    private static int flag(boolean value) {
+        return value ? 1 : 0;
+    }
+
+    public record Snapshot(LocalDate date, long totalUsers, long totalEmployees, long presentToday,
+                           long lateToday, long absentToday, long openSessions, long pendingLeaves,
+                           long pendingRegularizations, LocalDateTime reconciledAt) {
+
+        static Snapshot empty(LocalDate date) {
+            return new Snapshot(date, 0, 0, 0, 0, 0, 0, 0, 0, null);
+        }
+
+        Snapshot adjustAttendance(int present, int late, int absent, int open) {
+            return new Snapshot(date, totalUsers, totalEmployees, presentToday + present, lateToday + late,
+                    absentToday + absent, openSessions + open, pendingLeaves, pendingRegularizations, reconciledAt);
+        }
+
+        Snapshot adjustPending(int leaves, int regularizations) {
+            return new Snapshot(date, totalUsers, totalEmployees, presentToday, lateToday, absentToday,
+                    openSessions, pendingLeaves + leaves, pendingRegularizations + regularizations, reconciledAt);
+        }
+
+        Snapshot adjustUsers(int users, int employees) {
+            return new Snapshot(date, totalUsers + users, totalEmployees + employees, presentToday, lateToday,
+                    absentToday, openSessions, pendingLeaves, pendingRegularizations, reconciledAt);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.attendance.service;
+
+import com.attendance.archive.ColumnarMonth;
+import com.attendance.repository.AttendanceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Per-employee and per-department attendance summaries over a date range, replacing the
+ * correlated subqueries of the {@code employee_performance} view. The range is read once as
+ * primitive columns (archived months from their columnar files when they have them), grouped
+ * by employee with a counting sort, and aggregated on a fork/join pool: each task owns a run of
+ * employees, writes their totals into disjoint slots of one long array and returns its
+ * department totals, which are added together as the tasks join.
+ */
+@Service
+public class EmployeeReportService {
+
+    // Employees of a department get adjacent ordinals, so department totals merge by index
+    private static final String USERS_SQL =
+            "SELECT id, employee_id, first_name, last_name, department FROM users " +
+            "WHERE is_active = TRUE AND role = 'EMPLOYEE' ORDER BY department, id";
+
+    private static final String ROWS_SQL =
+            "SELECT user_id, status, late_minutes, total_hours, overtime_hours FROM %s " +
+            "WHERE attendance_date >= ? AND attendance_date < ?";
+
+    private static final String LEAVES_SQL =
+            "SELECT user_id, start_date, end_date FROM leaves " +
+            "WHERE status = 'APPROVED' AND start_date < ? AND end_date >= ?";
+
+    // Accumulator slots per employee and per department
+    private static final int PRESENT = 0;
+    private static final int ABSENT = 1;
+    private static final int LATE_DAYS = 2;
+    private static final int LATE_MINUTES = 3;
+    private static final int TOTAL_HOURS = 4;
+    private static final int OVERTIME_HOURS = 5;
+    private static final int LEAVE_DAYS = 6;
+    private static final int FIELDS = 7;
+
+    private static final byte OTHER_STATUS = 0;
+    private static final byte PRESENT_STATUS = 1;
+    private static final byte ABSENT_STATUS = 2;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ColumnarArchiveService columnarArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 0 uses one worker per core
+    @Value("${attendance.reports.parallelism:0}")
+    private int parallelism;
+
+    @Value("${attendance.reports.employees-per-task:256}")
+    private int employeesPerTask;
+
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    void start() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public Report getReport(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        Roster roster = loadRoster();
+        Rows rows = new Rows();
+        loadAttendance(roster, rows, startDate, endDate);
+        long[] leaveDays = loadLeaveDays(roster, startDate, endDate);
+
+        Rows grouped = rows.groupBy(roster.size());
+        long[] employeeTotals = new long[roster.size() * FIELDS];
+        long[] departmentTotals = pool.invoke(new AggregateTask(roster, grouped, leaveDays, employeeTotals,
+                0, roster.size(), Math.max(1, employeesPerTask)));
+
+        List<EmployeeSummary> employees = new ArrayList<>(roster.size());
+        for (int ordinal = 0; ordinal < roster.size(); ordinal++) {
+            employees.add(new EmployeeSummary(roster.userIds[ordinal], roster.employeeIds[ordinal],
+                    roster.names[ordinal], roster.departments[ordinal],
+                    Totals.of(employeeTotals, ordinal * FIELDS)));
+        }
+        List<DepartmentSummary> departments = new ArrayList<>(roster.departmentNames.size());
+        for (int department = 0; department < roster.departmentNames.size(); department++) {
+            departments.add(new DepartmentSummary(roster.departmentNames.get(department),
+                    roster.departmentStarts[department + 1] - roster.departmentStarts[department],
+                    Totals.of(departmentTotals, department * FIELDS)));
+        }
+        return new Report(startDate, endDate, employees, departments);
+    }
+
+    private Roster loadRoster() {
+        List<Object[]> users = jdbcTemplate.query(USERS_SQL, (rs, rowNum) -> new Object[] {
+                rs.getLong(1), rs.getString(2), rs.getString(3) + " " + rs.getString(4), rs.getString(5)
+        });
+        Roster roster = new Roster(users.size());
+        List<Integer> starts = new ArrayList<>();
+        for (int ordinal = 0; ordinal < users.size(); ordinal++) {
+            Object[] user = users.get(ordinal);
+            roster.userIds[ordinal] = (Long) user[0];
+            roster.employeeIds[ordinal] = (String) user[1];
+            roster.names[ordinal] = (String) user[2];
+            roster.departments[ordinal] = (String) user[3];
+            if (ordinal == 0 || !Objects.equals(roster.departments[ordinal], roster.departments[ordinal - 1])) {
+                roster.departmentNames.add(roster.departments[ordinal]);
+                starts.add(ordinal);
+            }
+            roster.departmentOf[ordinal] = roster.departmentNames.size() - 1;
+        }
+        starts.add(users.size());
+        roster.departmentStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        roster.index();
+        return roster;
+    }
+
+    // Same split as the range reads in AttendanceRepository: archived days first, the rest from the hot table
+    private void loadAttendance(Roster roster, Rows rows, LocalDate start, LocalDate end) {
+        LocalDate hotStart = start;
+        LocalDate archivedBefore = start.isBefore(attendanceRepository.getArchiveCutoff())
+                ? attendanceRepository.getArchivedBefore() : null;
+        if (archivedBefore != null && start.isBefore(archivedBefore)) {
+            LocalDate archivedEnd = end.isBefore(archivedBefore) ? end : archivedBefore.minusDays(1);
+            Optional<List<ColumnarMonth>> files = columnarArchiveService.getMonths(start, archivedEnd);
+            if (files.isPresent()) {
+                for (ColumnarMonth month : files.get()) {
+                    addColumnarRows(roster, rows, month, start, archivedEnd);
+                }
+            } else {
+                addRows(roster, rows, "attendance_archive", start, archivedEnd);
+            }
+            hotStart = archivedBefore;
+        }
+        if (!end.isBefore(hotStart)) {
+            addRows(roster, rows, "attendance", hotStart, end);
+        }
+    }
+
+    private void addRows(Roster roster, Rows rows, String table, LocalDate start, LocalDate end) {
+        jdbcTemplate.query(String.format(ROWS_SQL, table), rs -> {
+            int ordinal = roster.ordinal(rs.getLong(1));
+            if (ordinal >= 0) {
+                // getInt/getDouble read NULL as 0, which is what the totals need
+                rows.add(ordinal, statusCode(rs.getString(2)), rs.getInt(3),
+                        hundredths(rs.getDouble(4)), hundredths(rs.getDouble(5)));
+            }
+        }, start, end.plusDays(1));
+    }
+
+    private void addColumnarRows(Roster roster, Rows rows, ColumnarMonth month, LocalDate start, LocalDate end) {
+        for (int row = month.firstRow(start), last = month.endRow(end); row < last; row++) {
+            int ordinal = roster.ordinal(month.userId(row));
+            if (ordinal >= 0) {
+                rows.add(ordinal, statusCode(month.status(row)), month.lateMinutes(row),
+                        month.totalHours(row), month.overtimeHours(row));
+            }
+        }
+    }
+
+    // Approved leave days inside the range
+    private long[] loadLeaveDays(Roster roster, LocalDate start, LocalDate end) {
+        long[] leaveDays = new long[roster.size()];
+        jdbcTemplate.query(LEAVES_SQL, rs -> {
+            int ordinal = roster.ordinal(rs.getLong(1));
+            if (ordinal >= 0) {
+                LocalDate from = rs.getObject(2, LocalDate.class);
+                LocalDate to = rs.getObject(3, LocalDate.class);
+                leaveDays[ordinal] += ChronoUnit.DAYS.between(from.isBefore(start) ? start : from,
+                        to.isAfter(end) ? end : to) + 1;
+            }
+        }, end.plusDays(1), start);
+        return leaveDays;
+    }
+
+    private static byte statusCode(String status) {
+        if ("PRESENT".equals(status)) {
+            return PRESENT_STATUS;
+        }
+        return "ABSENT".equals(status) ? ABSENT_STATUS : OTHER_STATUS;
+    }
+
+    private static int hundredths(double hours) {
+        return (int) Math.round(hours * 100);
+    }
+
+    /** Sums a run of employees into their slots of {@code employeeTotals} and returns the run's department totals. */
+    private static final class AggregateTask extends RecursiveTask<long[]> {
+
+        private final Roster roster;
+        private final Rows rows;
+        private final long[] leaveDays;
+        private final long[] employeeTotals;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        AggregateTask(Roster roster, Rows rows, long[] leaveDays, long[] employeeTotals,
+                      int from, int to, int threshold) {
+            this.roster = roster;
+            this.rows = rows;
+            this.leaveDays = leaveDays;
+            this.employeeTotals = employeeTotals;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= threshold) {
+                return aggregate();
+            }
+            int middle = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(roster, rows, leaveDays, employeeTotals, from, middle, threshold);
+            left.fork();
+            long[] right = new AggregateTask(roster, rows, leaveDays, employeeTotals, middle, to, threshold).compute();
+            long[] merged = left.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += right[i];
+            }
+            return merged;
+        }
+
+        private long[] aggregate() {
+            long[] departmentTotals = new long[roster.departmentNames.size() * FIELDS];
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                long present = 0;
+                long absent = 0;
+                long lateDays = 0;
+                long lateMinutes = 0;
+                long totalHours = 0;
+                long overtimeHours = 0;
+                for (int row = rows.starts[ordinal], end = rows.starts[ordinal + 1]; row < end; row++) {
+                    byte status = rows.statuses[row];
+                    int late = rows.lateMinutes[row];
+                    present += status == PRESENT_STATUS ? 1 : 0;
+                    absent += status == ABSENT_STATUS ? 1 : 0;
+                    lateDays += late > 0 ? 1 : 0;
+                    lateMinutes += late;
+                    totalHours += rows.totalHours[row];
+                    overtimeHours += rows.overtimeHours[row];
+                }
+                int slot = ordinal * FIELDS;
+                employeeTotals[slot + PRESENT] = present;
+                employeeTotals[slot + ABSENT] = absent;
+                employeeTotals[slot + LATE_DAYS] = lateDays;
+                employeeTotals[slot + LATE_MINUTES] = lateMinutes;
+                employeeTotals[slot + TOTAL_HOURS] = totalHours;
+                employeeTotals[slot + OVERTIME_HOURS] = overtimeHours;
+                employeeTotals[slot + LEAVE_DAYS] = leaveDays[ordinal];
+                int department = roster.departmentOf[ordinal] * FIELDS;
+                for (int field = 0; field < FIELDS; field++) {
+                    departmentTotals[department + field] += employeeTotals[slot + field];
+                }
+            }
+            return departmentTotals;
+        }
+    }
+
+    /** Active employees by ordinal, ordered by department. */
+    private static final class Roster {
+
+        final long[] userIds;
+        final String[] employeeIds;
+        final String[] names;
+        final String[] departments;
+        final int[] departmentOf;
+        final List<String> departmentNames = new ArrayList<>();
+        int[] departmentStarts;
+        // User IDs in ascending order and the ordinal of each, searched per row without boxing
+        long[] sortedUserIds;
+        int[] sortedOrdinals;
+
+        Roster(int size) {
+            userIds = new long[size];
+            employeeIds = new String[size];
+            names = new String[size];
+            departments = new String[size];
+            departmentOf = new int[size];
+        }
+
+        void index() {
+            sortedUserIds = userIds.clone();
+            Arrays.sort(sortedUserIds);
+            sortedOrdinals = new int[userIds.length];
+            for (int ordinal = 0; ordinal < userIds.length; ordinal++) {
+                sortedOrdinals[Arrays.binarySearch(sortedUserIds, userIds[ordinal])] = ordinal;
+            }
+        }
+
+        /** The employee's ordinal, or -1 when the user is not on the roster. */
+        int ordinal(long userId) {
+            int index = Arrays.binarySearch(sortedUserIds, userId);
+            return index >= 0 ? sortedOrdinals[index] : -1;
+        }
+
+        int size() {
+            return userIds.length;
+        }
+    }
+
+    /** Attendance rows as primitive columns; hours in hundredths. */
+    private static final class Rows {
+
+        int size;
+        int[] ordinals = new int[1024];
+        byte[] statuses = new byte[1024];
+        int[] lateMinutes = new int[1024];
+        int[] totalHours = new int[1024];
+        int[] overtimeHours = new int[1024];
+        // Set by groupBy: the rows of employee o are starts[o] until starts[o + 1]
+        int[] starts;
+
+        void add(int ordinal, byte status, int late, int total, int overtime) {
+            if (size == ordinals.length) {
+                int capacity = size * 2;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+                lateMinutes = Arrays.copyOf(lateMinutes, capacity);
+                totalHours = Arrays.copyOf(totalHours, capacity);
+                overtimeHours = Arrays.copyOf(overtimeHours, capacity);
+            }
+            ordinals[size] = ordinal;
+            statuses[size] = status;
+            lateMinutes[size] = late;
+            totalHours[size] = total;
+            overtimeHours[size] = overtime;
+            size++;
+        }
+
+        // Counting sort by employee, so every task scans its employees' rows contiguously
+        Rows groupBy(int employees) {
+            int[] starts = new int[employees + 1];
+            for (int i = 0; i < size; i++) {
+                starts[ordinals[i] + 1]++;
+            }
+            for (int o = 0; o < employees; o++) {
+                starts[o + 1] += starts[o];
+            }
+            Rows grouped = new Rows();
+            grouped.size = size;
+            grouped.ordinals = new int[size];
+            grouped.statuses = new byte[size];
+            grouped.lateMinutes = new int[size];
+            grouped.totalHours = new int[size];
+            grouped.overtimeHours = new int[size];
+            grouped.starts = starts;
+            int[] next = Arrays.copyOf(starts, employees);
+            for (int i = 0; i < size; i++) {
+                int target = next[ordinals[i]]++;
+                grouped.ordinals[target] = ordinals[i];
+                grouped.statuses[target] = statuses[i];
+                grouped.lateMinutes[target] = lateMinutes[i];
+                grouped.totalHours[target] = totalHours[i];
+                grouped.overtimeHours[target] = overtimeHours[i];
+            }
+            return grouped;
+        }
+    }
+
+    public record Report(LocalDate startDate, LocalDate endDate, List<EmployeeSummary> employees,
+                         List<DepartmentSummary> departments) {
+    }
+
+    public record EmployeeSummary(Long userId, String employeeId, String name, String department, Totals totals) {
+    }
+
+    public record DepartmentSummary(String department, int employees, Totals totals) {
+    }
+
+    /** Average late minutes are per late day; leave days are approved leave days inside the range. */
+    public record Totals(long presentDays, long absentDays, long lateDays, double averageLateMinutes,
+                         double totalHours, double overtimeHours, long leaveDays) {
+
+        static Totals of(long[] totals, int slot) {
+            long lateDays = totals[slot + LATE_DAYS];
+            return new Totals(totals[slot + PRESENT], totals[slot + ABSENT], lateDays,
+                    lateDays > 0 ? (double) totals[slot + LATE_MINUTES] / lateDays : 0,
+                    totals[slot + TOTAL_HOURS] / 100.0, totals[slot + OVERTIME_HOURS] / 100.0,
+                    totals[slot + LEAVE_DAYS]);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.attendance.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} encodes the sort key of the
+ * last row and is passed back as {@code after} to fetch the following page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    KeysetPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Finders fetch size + 1 rows, the extra row only tells us whether another page exists
+    static <T> KeysetPage<T> of(List<T> fetched, int size, Function<T, String> cursorOf) {
+        if (fetched.size() > size) {
+            List<T> items = fetched.subList(0, size);
+            return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)));
+        }
+        return new KeysetPage<>(fetched, null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    static String cursor(LocalDateTime at, Long id) {
+        return at + "_" + id;
+    }
+
+    static LocalDateTime cursorTime(String cursor) {
+        try {
+            return LocalDateTime.parse(cursor.substring(0, cursor.indexOf('_')));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+
+    static Long cursorId(String cursor) {
+        try {
+            return Long.valueOf(cursor.substring(cursor.indexOf('_') + 1));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+}
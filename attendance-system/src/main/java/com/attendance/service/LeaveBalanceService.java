@@ -0,0 +1,192 @@
+package com.attendance.service;
+
+import com.attendance.entity.Leave;
+import com.attendance.entity.LeaveBalance;
+import com.attendance.repository.LeaveBalanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains one row per user, year and leave type in leave_balances with the days accrued,
+ * carried forward, taken and pending. Leave changes are applied to the row under a row
+ * lock in the caller's transaction, so balance checks and the leave page read a single
+ * row instead of counting leaves. A missing row is created on first use and seeded from
+ * the leaves already on file.
+ */
+@Service
+@Transactional
+public class LeaveBalanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaveBalanceService.class);
+
+    private static final String SEED_SQL =
+            "SELECT start_date, end_date, status FROM leaves WHERE user_id = ? AND leave_type = ? " +
+            "AND status IN ('PENDING', 'APPROVED') AND start_date <= ? AND end_date >= ?";
+
+    private static final String EXISTS_SQL =
+            "SELECT COUNT(*) FROM leave_balances WHERE user_id = ? AND balance_year = ? AND leave_type = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO leave_balances (user_id, balance_year, leave_type, accrued_days, " +
+            "carried_forward_days, taken_days, pending_days, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Types without an entitlement are tracked but never limited
+    @Value("#{${attendance.leave.entitlements:{SICK:12,CASUAL:12,EARNED:15}}}")
+    private Map<String, Integer> entitlements;
+
+    @Value("#{${attendance.leave.carry-forward:{EARNED:10}}}")
+    private Map<String, Integer> carryForwardLimits;
+
+    public Set<String> getLimitedTypes() {
+        return entitlements.keySet();
+    }
+
+    /** Reserves a new leave's days as pending, rejecting it when a limited type would go negative. */
+    public void reserve(Leave leave) {
+        daysByYear(leave.getStartDate(), leave.getEndDate()).forEach((year, days) -> {
+            LeaveBalance balance = lock(leave.getUser().getId(), year, leave.getLeaveType());
+            if (entitlements.containsKey(leave.getLeaveType()) && balance.getAvailableDays() < days) {
+                throw new RuntimeException("Insufficient " + leave.getLeaveType() + " leave balance for " + year
+                        + ": " + balance.getAvailableDays() + " day(s) available, " + days + " requested");
+            }
+            adjust(balance, days, 0);
+        });
+    }
+
+    /** Moves a leave's days between pending and taken; call before the leave row itself changes. */
+    public void transition(Leave leave, String oldStatus, String newStatus) {
+        int pending = weight("PENDING", newStatus) - weight("PENDING", oldStatus);
+        int taken = weight("APPROVED", newStatus) - weight("APPROVED", oldStatus);
+        if (pending == 0 && taken == 0) {
+            return;
+        }
+        daysByYear(leave.getStartDate(), leave.getEndDate()).forEach((year, days) ->
+                adjust(lock(leave.getUser().getId(), year, leave.getLeaveType()), pending * days, taken * days));
+    }
+
+    public LeaveBalance getBalance(Long userId, int year, String leaveType) {
+        ensure(userId, year, leaveType);
+        return leaveBalanceRepository.findByUserIdAndBalanceYearAndLeaveType(userId, year, leaveType)
+                .orElseThrow(() -> new RuntimeException("Leave balance not found"));
+    }
+
+    public List<LeaveBalance> getBalances(Long userId, int year) {
+        for (String leaveType : entitlements.keySet()) {
+            ensure(userId, year, leaveType);
+        }
+        return leaveBalanceRepository.findByUserIdAndBalanceYearOrderByLeaveType(userId, year);
+    }
+
+    @Scheduled(cron = "${attendance.leave.carry-forward-cron:0 10 0 1 1 *}")
+    public int carryForward() {
+        return carryForward(Year.now().getValue());
+    }
+
+    // Also run at startup so a missed New Year run, or late changes to last year, are picked up
+    @EventListener(ApplicationReadyEvent.class)
+    public void carryForwardAtStartup() {
+        carryForward();
+    }
+
+    /** Sets each carry-forward type's opening balance for {@code year} from the year before. */
+    public int carryForward(int year) {
+        int updated = 0;
+        for (String leaveType : carryForwardLimits.keySet()) {
+            for (LeaveBalance previous : leaveBalanceRepository.findByBalanceYearAndLeaveType(year - 1, leaveType)) {
+                LeaveBalance balance = lock(previous.getUser().getId(), year, leaveType);
+                int carried = carriedFrom(previous);
+                if (balance.getCarriedForwardDays() != carried) {
+                    balance.setCarriedForwardDays(carried);
+                    balance.setUpdatedAt(LocalDateTime.now());
+                    updated++;
+                }
+            }
+        }
+        if (updated > 0) {
+            log.info("Carried leave forward into {} for {} balances", year, updated);
+        }
+        return updated;
+    }
+
+    private LeaveBalance lock(Long userId, int year, String leaveType) {
+        ensure(userId, year, leaveType);
+        return leaveBalanceRepository.findForUpdate(userId, year, leaveType)
+                .orElseThrow(() -> new RuntimeException("Leave balance not found"));
+    }
+
+    // Checked over JDBC so the row is not loaded into the session before it is locked
+    private void ensure(Long userId, int year, String leaveType) {
+        Integer existing = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, userId, year, leaveType);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        LocalDate yearEnd = LocalDate.of(year, 12, 31);
+        int[] seed = new int[2];
+        jdbcTemplate.query(SEED_SQL, rs -> {
+            int days = daysIn(rs.getDate("start_date").toLocalDate(), rs.getDate("end_date").toLocalDate(),
+                    yearStart, yearEnd);
+            seed["APPROVED".equals(rs.getString("status")) ? 1 : 0] += days;
+        }, userId, leaveType, yearEnd, yearStart);
+        int carried = carryForwardLimits.containsKey(leaveType)
+                ? leaveBalanceRepository.findByUserIdAndBalanceYearAndLeaveType(userId, year - 1, leaveType)
+                        .map(this::carriedFrom).orElse(0)
+                : 0;
+        // A concurrent first use may have created the row; its insert wins
+        jdbcTemplate.update(INSERT_SQL, userId, year, leaveType, entitlements.getOrDefault(leaveType, 0), carried,
+                seed[1], seed[0], Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private int carriedFrom(LeaveBalance previous) {
+        int unused = previous.getAccruedDays() + previous.getCarriedForwardDays() - previous.getTakenDays();
+        return Math.max(0, Math.min(carryForwardLimits.get(previous.getLeaveType()), unused));
+    }
+
+    private static void adjust(LeaveBalance balance, int pendingDays, int takenDays) {
+        balance.setPendingDays(balance.getPendingDays() + pendingDays);
+        balance.setTakenDays(balance.getTakenDays() + takenDays);
+        balance.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static int weight(String status, String actual) {
+        return status.equals(actual) ? 1 : 0;
+    }
+
+    // A leave over New Year is charged to both years
+    static Map<Integer, Integer> daysByYear(LocalDate start, LocalDate end) {
+        Map<Integer, Integer> days = new LinkedHashMap<>();
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            days.put(year, daysIn(start, end, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)));
+        }
+        return days;
+    }
+
+    private static int daysIn(LocalDate start, LocalDate end, LocalDate from, LocalDate to) {
+        LocalDate first = start.isBefore(from) ? from : start;
+        LocalDate last = end.isAfter(to) ? to : end;
+        return last.isBefore(first) ? 0 : (int) ChronoUnit.DAYS.between(first, last) + 1;
+    }
+}
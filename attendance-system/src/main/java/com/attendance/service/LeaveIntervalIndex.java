@@ -0,0 +1,155 @@
+package com.attendance.service;
+
+import com.attendance.entity.Leave;
+import com.attendance.event.LeaveStatusChangedEvent;
+import com.attendance.repository.LeaveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending and approved leaves per employee, held in memory as intervals sorted by start
+ * date with a running maximum of end dates, so overlap and "on leave on this day" checks
+ * are binary searches rather than range scans over the leaves table. An employee's
+ * intervals are loaded on first use and dropped after any of their leaves changes.
+ */
+@Component
+public class LeaveIntervalIndex {
+
+    private static final List<String> ACTIVE_STATUSES = List.of("PENDING", "APPROVED");
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /** A pending or approved leave of the employee that shares at least one day with the range. */
+    public Optional<Span> findOverlap(Long userId, LocalDate start, LocalDate end) {
+        return Optional.ofNullable(timeline(userId).all().overlapping(start, end));
+    }
+
+    public boolean isOnLeave(Long userId, LocalDate date) {
+        return timeline(userId).approved().overlapping(date, date) != null;
+    }
+
+    /** The employees among {@code userIds} with approved leave on {@code date}; loads missing ones together. */
+    public Set<Long> onLeave(Collection<Long> userIds, LocalDate date) {
+        List<Long> missing = userIds.stream().filter(id -> !timelines.containsKey(id)).toList();
+        Map<Long, Timeline> loaded = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            loaded.putAll(load(missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()))));
+        }
+        Set<Long> onLeave = new HashSet<>();
+        for (Long userId : userIds) {
+            Timeline timeline = loaded.containsKey(userId) ? loaded.get(userId) : timeline(userId);
+            if (timeline.approved().overlapping(date, date) != null) {
+                onLeave.add(userId);
+            }
+        }
+        return onLeave;
+    }
+
+    public int size() {
+        return timelines.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        invalidations.incrementAndGet();
+        timelines.remove(event.userId());
+    }
+
+    private Timeline timeline(Long userId) {
+        Timeline timeline = timelines.get(userId);
+        return timeline != null ? timeline : load(List.of(userId)).get(userId);
+    }
+
+    private Map<Long, Timeline> load(Collection<Long> userIds) {
+        long generation = invalidations.get();
+        Map<Long, List<Span>> spans = new HashMap<>();
+        for (Leave leave : leaveRepository.findByUserIdInAndStatusIn(userIds, ACTIVE_STATUSES)) {
+            spans.computeIfAbsent(leave.getUser().getId(), id -> new ArrayList<>()).add(new Span(
+                    leave.getId(), leave.getStartDate(), leave.getEndDate(), leave.getStatus()));
+        }
+
+        Map<Long, Timeline> loaded = new HashMap<>();
+        for (Long userId : userIds) {
+            List<Span> userSpans = spans.getOrDefault(userId, List.of());
+            Timeline timeline = new Timeline(new Intervals(userSpans),
+                    new Intervals(userSpans.stream().filter(s -> "APPROVED".equals(s.status())).toList()));
+            loaded.put(userId, timeline);
+            timelines.put(userId, timeline);
+        }
+        // A leave that changed while we were reading may have been invalidated before our put
+        if (invalidations.get() != generation) {
+            loaded.forEach(timelines::remove);
+        }
+        return loaded;
+    }
+
+    public record Span(Long leaveId, LocalDate start, LocalDate end, String status) {
+    }
+
+    private record Timeline(Intervals all, Intervals approved) {
+    }
+
+    static final class Intervals {
+
+        private final Span[] spans;
+        private final LocalDate[] maxEnd;
+
+        Intervals(List<Span> unsorted) {
+            spans = unsorted.stream().sorted(Comparator.comparing(Span::start)).toArray(Span[]::new);
+            maxEnd = new LocalDate[spans.length];
+            for (int i = 0; i < spans.length; i++) {
+                LocalDate end = spans[i].end();
+                maxEnd[i] = i > 0 && maxEnd[i - 1].isAfter(end) ? maxEnd[i - 1] : end;
+            }
+        }
+
+        Span overlapping(LocalDate start, LocalDate end) {
+            // Last span starting on or before the range ends
+            int low = 0;
+            int high = spans.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (spans[mid].start().isAfter(end)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            int last = low - 1;
+            if (last < 0 || maxEnd[last].isBefore(start)) {
+                return null;
+            }
+            // The running maximum only grows, and the first span to reach start is itself an overlap
+            low = 0;
+            high = last;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxEnd[mid].isBefore(start)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return spans[low];
+        }
+    }
+}
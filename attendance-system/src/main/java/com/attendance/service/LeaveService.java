@@ -2,13 +2,23 @@ package com.attendance.service;
 
 import com.attendance.entity.Leave;
 import com.attendance.entity.User;
+import com.attendance.event.LeaveStatusChangedEvent;
 import com.attendance.repository.LeaveRepository;
 import com.attendance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -17,20 +27,50 @@ public class LeaveService {
     @Autowired
     private LeaveRepository leaveRepository;
 
+    @Autowired
+    private UserLookupService userLookupService;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${attendance.bulk.chunk-size:500}")
+    private int chunkSize;
+
     public Leave applyLeave(Leave leave) {
-        User user = userRepository.findById(leave.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(leave.getUser().getId());
 
         leave.setUser(user);
-        return leaveRepository.save(leave);
+        if (leave.getEndDate().isBefore(leave.getStartDate())) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        leaveIntervalIndex.findOverlap(user.getId(), leave.getStartDate(), leave.getEndDate()).ifPresent(span -> {
+            throw overlapError(span.status(), span.start(), span.end());
+        });
+        // The index only learns of an application after it commits, so two concurrent ones are
+        // serialised on the user's row and the check is repeated against the table
+        userRepository.findForUpdate(user.getId());
+        leaveRepository.findActiveOverlapping(user.getId(), leave.getStartDate(), leave.getEndDate()).stream()
+                .findFirst()
+                .ifPresent(other -> {
+                    throw overlapError(other.getStatus(), other.getStartDate(), other.getEndDate());
+                });
+        leaveBalanceService.reserve(leave);
+        Leave saved = leaveRepository.save(leave);
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(saved.getId(), user.getId(), null, saved.getStatus()));
+        return saved;
     }
 
     public List<Leave> getUserLeaves(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
         return leaveRepository.findByUser(user);
     }
 
@@ -38,35 +78,109 @@ public class LeaveService {
         return leaveRepository.findPendingLeaves();
     }
 
+    public List<Leave> getRecentPendingLeaves() {
+        return leaveRepository.findTop5ByStatusOrderByAppliedOnDesc("PENDING");
+    }
+
     public List<Leave> getAllLeaves() {
-        return leaveRepository.findAll();
+        return leaveRepository.findAllWithUser();
+    }
+
+    public List<Leave> getLeavesBetween(LocalDate start, LocalDate end) {
+        return leaveRepository.findOverlapping(start, end);
+    }
+
+    public KeysetPage<Leave> getLeavesPage(String after, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Leave> rows = after == null
+                ? leaveRepository.findFirstPage(limit)
+                : leaveRepository.findPageAfter(KeysetPage.cursorTime(after), KeysetPage.cursorId(after), limit);
+        return KeysetPage.of(rows, size, l -> KeysetPage.cursor(l.getAppliedOn(), l.getId()));
     }
 
     public Leave approveLeave(Long leaveId, String approvedBy, String comments) {
         Leave leave = leaveRepository.findById(leaveId)
                 .orElseThrow(() -> new RuntimeException("Leave not found"));
 
+        String oldStatus = leave.getStatus();
+        leaveBalanceService.transition(leave, oldStatus, "APPROVED");
         leave.setStatus("APPROVED");
         leave.setApprovedBy(approvedBy);
         leave.setComments(comments);
         leave.setProcessedOn(LocalDateTime.now());
 
-        return leaveRepository.save(leave);
+        Leave saved = leaveRepository.save(leave);
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(
+                saved.getId(), saved.getUser().getId(), oldStatus, saved.getStatus()));
+        return saved;
     }
 
     public Leave rejectLeave(Long leaveId, String rejectedBy, String comments) {
         Leave leave = leaveRepository.findById(leaveId)
                 .orElseThrow(() -> new RuntimeException("Leave not found"));
 
+        String oldStatus = leave.getStatus();
+        leaveBalanceService.transition(leave, oldStatus, "REJECTED");
         leave.setStatus("REJECTED");
         leave.setApprovedBy(rejectedBy);
         leave.setComments(comments);
         leave.setProcessedOn(LocalDateTime.now());
 
-        return leaveRepository.save(leave);
+        Leave saved = leaveRepository.save(leave);
+        eventPublisher.publishEvent(new LeaveStatusChangedEvent(
+                saved.getId(), saved.getUser().getId(), oldStatus, saved.getStatus()));
+        return saved;
+    }
+
+    // Locks each chunk, then moves all still-pending rows with one UPDATE
+    public BulkUpdateResult bulkUpdateStatus(List<Long> ids, String status, String processedBy, String comments) {
+        if (!"APPROVED".equals(status) && !"REJECTED".equals(status)) {
+            throw new RuntimeException("Unknown status: " + status);
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<BulkUpdateResult.Item> items = new ArrayList<>(distinct.size());
+        LocalDateTime processedOn = LocalDateTime.now();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            Map<Long, Leave> found = leaveRepository.findAllForUpdate(chunk).stream()
+                    .collect(Collectors.toMap(Leave::getId, Function.identity()));
+
+            List<Long> pending = new ArrayList<>();
+            for (Long id : chunk) {
+                Leave leave = found.get(id);
+                if (leave == null) {
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.NOT_FOUND, null));
+                } else if (!"PENDING".equals(leave.getStatus())) {
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.ALREADY_PROCESSED,
+                            leave.getStatus()));
+                } else {
+                    pending.add(id);
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.UPDATED, status));
+                }
+            }
+            if (pending.isEmpty()) {
+                continue;
+            }
+
+            Map<Long, Long> userIds = pending.stream()
+                    .collect(Collectors.toMap(Function.identity(), id -> found.get(id).getUser().getId()));
+            for (Long id : pending) {
+                leaveBalanceService.transition(found.get(id), "PENDING", status);
+            }
+            leaveRepository.updatePendingStatus(pending, status, processedBy, comments, processedOn);
+            for (Long id : pending) {
+                eventPublisher.publishEvent(new LeaveStatusChangedEvent(id, userIds.get(id), "PENDING", status));
+            }
+        }
+        return new BulkUpdateResult(items);
     }
 
     public long countPendingLeaves() {
-        return leaveRepository.findPendingLeaves().size();
+        return leaveRepository.countByStatus("PENDING");
+    }
+
+    private static RuntimeException overlapError(String status, LocalDate start, LocalDate end) {
+        return new RuntimeException("Leave overlaps your " + status.toLowerCase() + " leave from "
+                + start + " to " + end);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
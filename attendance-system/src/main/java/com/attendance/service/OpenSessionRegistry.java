@@ -0,0 +1,97 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions that are punched in but not out, held in memory so the open-session views
+ * cost O(open sessions) rather than a scan of the attendance table. Loaded from today's
+ * rows at startup and kept current from attendance change events after commit.
+ */
+@Component
+public class OpenSessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenSessionRegistry.class);
+
+    private static final Comparator<OpenSession> LATEST_FIRST =
+            Comparator.comparing(OpenSession::punchIn).reversed().thenComparing(OpenSession::userId);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    private final Map<Key, OpenSession> sessions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        List<Attendance> open = attendanceRepository.findByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(today);
+        sessions.clear();
+        for (Attendance attendance : open) {
+            OpenSession session = new OpenSession(attendance.getUser().getId(), attendance.getAttendanceDate(),
+                    attendance.getPunchIn());
+            sessions.put(session.key(), session);
+        }
+        ready = true;
+        log.info("Open session registry loaded with {} sessions for {}", sessions.size(), today);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        Key key = new Key(event.userId(), event.date());
+        AttendanceChangedEvent.State after = event.after();
+        if (after.open()) {
+            sessions.put(key, new OpenSession(event.userId(), event.date(), after.punchIn()));
+        } else {
+            sessions.remove(key);
+        }
+    }
+
+    /** Open sessions for one day, most recent punch-in first. */
+    public List<OpenSession> getOpenSessions(LocalDate date) {
+        return sessions.values().stream()
+                .filter(s -> s.date().equals(date))
+                .sorted(LATEST_FIRST)
+                .toList();
+    }
+
+    /** Sessions still open that started on an earlier day or before {@code openedBefore}. */
+    public List<OpenSession> getStaleSessions(LocalDate today, LocalDateTime openedBefore) {
+        return sessions.values().stream()
+                .filter(s -> s.date().isBefore(today) || s.punchIn().isBefore(openedBefore))
+                .sorted(Comparator.comparing(OpenSession::punchIn))
+                .toList();
+    }
+
+    public long count(LocalDate date) {
+        return sessions.values().stream().filter(s -> s.date().equals(date)).count();
+    }
+
+    public record OpenSession(Long userId, LocalDate date, LocalDateTime punchIn) {
+
+        Key key() {
+            return new Key(userId, date);
+        }
+    }
+
+    private record Key(Long userId, LocalDate date) {
+    }
+}
@@ -0,0 +1,472 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.AttendanceChangedEvent.State;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.service.AttendanceRollupService.Contribution;
+import com.attendance.service.AttendanceRollupService.Delta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind ingestion for punch-in/punch-out. Punches are validated, acknowledged
+ * from memory and flushed to the attendance table in JDBC batches. Duplicate punch-ins
+ * that slip past validation are rejected by the unique_user_date key on insert.
+ */
+@Service
+public class PunchIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PunchIngestionService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO attendance (user_id, attendance_date, punch_in, punch_out, total_hours, " +
+            "status, late_minutes, overtime_hours, notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE attendance SET punch_out = ?, total_hours = ?, overtime_hours = ?, updated_at = ? " +
+            "WHERE user_id = ? AND attendance_date = ? AND punch_out IS NULL";
+
+    // Replaces a punch-out the sweeper made up while the real one was queued
+    private static final String OVERRIDE_SQL =
+            "UPDATE attendance SET punch_out = ?, total_hours = ?, overtime_hours = ?, notes = ?, updated_at = ? " +
+            "WHERE user_id = ? AND attendance_date = ? AND punch_out = ?";
+
+    private static final String AUTO_CLOSED_SQL =
+            "SELECT punch_out, total_hours, overtime_hours, notes FROM attendance " +
+            "WHERE user_id = ? AND attendance_date = ? AND punch_out IS NOT NULL";
+
+    private static final String READ_BACK_SQL =
+            "SELECT user_id, punch_in, punch_out FROM attendance WHERE attendance_date = ? AND user_id IN (%s)";
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.ingestion.write-behind:false}")
+    private boolean writeBehind;
+
+    @Value("${attendance.ingestion.batch-size:500}")
+    private int batchSize;
+
+    private final BlockingQueue<PendingPunch> queue;
+
+    // Punches acknowledged but not yet flushed, so callers can read them back
+    private final Map<Long, PendingPunch> pending = new ConcurrentHashMap<>();
+
+    // Acknowledged punches that turned out not to be writable
+    private final AtomicLong failedPunches = new AtomicLong();
+
+    public PunchIngestionService(@Value("${attendance.ingestion.queue-capacity:10000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public Attendance punchIn(Long userId) {
+        if (!writeBehind) {
+            return attendanceService.punchIn(userId);
+        }
+
+        // Checked before acknowledging; INSERT IGNORE would only log the foreign key failure later
+        User user = userLookupService.getUser(userId);
+        LocalDate today = LocalDate.now();
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(today);
+        attendance.setPunchIn(LocalDateTime.now());
+        attendance.setStatus("PRESENT");
+        attendance.setLateMinutes(AttendanceCalculator.lateMinutes(attendance.getPunchIn().toLocalTime()));
+        if (leaveIntervalIndex.isOnLeave(userId, today)) {
+            attendance.setNotes(AttendanceCalculator.ON_LEAVE_NOTE);
+        }
+
+        PendingPunch punch = new PendingPunch(userId, attendance, true);
+        if (pending.putIfAbsent(userId, punch) != null
+                || attendanceRepository.findByUserIdAndAttendanceDate(userId, today).isPresent()) {
+            pending.remove(userId, punch);
+            throw new RuntimeException("Already punched in for today");
+        }
+
+        if (!queue.offer(punch)) {
+            // Queue is full, take the synchronous path instead of dropping the punch
+            pending.remove(userId, punch);
+            return attendanceService.punchIn(userId);
+        }
+        return attendance;
+    }
+
+    public Attendance punchOut(Long userId) {
+        if (!writeBehind) {
+            return attendanceService.punchOut(userId);
+        }
+
+        LocalDate today = LocalDate.now();
+        PendingPunch queued = pending.get(userId);
+        if (queued != null && today.equals(queued.attendance().getAttendanceDate())) {
+            Attendance attendance = queued.attendance();
+            synchronized (attendance) {
+                if (attendance.getPunchOut() != null) {
+                    throw new RuntimeException("Already punched out for today");
+                }
+                attendance.setPunchOut(LocalDateTime.now());
+                AttendanceCalculator.applyHours(attendance);
+                if (!queued.snapshotted) {
+                    // The flush has not read it yet and writes the punch-out with it
+                    return attendance;
+                }
+            }
+            // A flush already took its values, so the punch-out needs its own write
+            return enqueueUpdate(userId, attendance);
+        }
+
+        Attendance stored = attendanceRepository.findByUserIdAndAttendanceDate(userId, today)
+                .orElseThrow(() -> new RuntimeException("No punch in found for today"));
+        if (stored.getPunchOut() != null && !StaleSessionSweeper.isAutoClosed(stored.getNotes())) {
+            throw new RuntimeException("Already punched out for today");
+        }
+
+        Attendance attendance = new Attendance();
+        attendance.setId(stored.getId());
+        attendance.setUser(stored.getUser());
+        attendance.setAttendanceDate(stored.getAttendanceDate());
+        attendance.setPunchIn(stored.getPunchIn());
+        attendance.setStatus(stored.getStatus());
+        attendance.setLateMinutes(stored.getLateMinutes());
+        attendance.setNotes(stored.getNotes());
+        attendance.setPunchOut(LocalDateTime.now());
+        AttendanceCalculator.applyHours(attendance);
+        return enqueueUpdate(userId, attendance);
+    }
+
+    private Attendance enqueueUpdate(Long userId, Attendance attendance) {
+        PendingPunch punch = new PendingPunch(userId, attendance, false);
+        pending.put(userId, punch);
+        if (!queue.offer(punch)) {
+            pending.remove(userId, punch);
+            return attendanceService.punchOut(userId);
+        }
+        return attendance;
+    }
+
+    public Optional<Attendance> getTodayAttendance(Long userId) {
+        PendingPunch queued = pending.get(userId);
+        if (queued != null && LocalDate.now().equals(queued.attendance().getAttendanceDate())) {
+            return Optional.of(queued.attendance());
+        }
+        return attendanceService.getTodayAttendance(userId);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getFailedPunches() {
+        return failedPunches.get();
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.ingestion.flush-interval-ms:200}")
+    public void flush() {
+        List<PendingPunch> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<PendingPunch> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Flushed> insertDeltas = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Flushed> updateDeltas = new ArrayList<>();
+        for (PendingPunch punch : batch) {
+            Attendance a = punch.attendance();
+            synchronized (a) {
+                // From here on a punch-out cannot ride along with this write
+                punch.snapshotted = true;
+                Contribution after = Contribution.of(a);
+                State afterState = State.of(a);
+                if (punch.insert()) {
+                    inserts.add(insertArgs(punch));
+                    insertDeltas.add(new Flushed(
+                            new Delta(punch.userId(), a.getAttendanceDate(), Contribution.NONE, after),
+                            new AttendanceChangedEvent(AttendanceChangedEvent.Type.PUNCH_IN, punch.userId(),
+                                    a.getAttendanceDate(), State.NONE, afterState),
+                            a.getPunchIn()));
+                } else {
+                    updates.add(updateArgs(punch));
+                    updateDeltas.add(new Flushed(
+                            new Delta(punch.userId(), a.getAttendanceDate(), after.withoutHours(), after),
+                            new AttendanceChangedEvent(AttendanceChangedEvent.Type.PUNCH_OUT, punch.userId(),
+                                    a.getAttendanceDate(), new State(afterState.status(), afterState.late(), true,
+                                            afterState.punchIn()),
+                                    afterState),
+                            a.getPunchOut()));
+                }
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Inserts first so punch-outs queued behind their punch-in find the row
+                List<Flushed> applied = new ArrayList<>(batch.size());
+                if (!inserts.isEmpty()) {
+                    int[] results = jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                    collectApplied(results, insertDeltas, applied, true);
+                }
+                if (!updates.isEmpty()) {
+                    int[] results = jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                    collectApplied(results, updateDeltas, applied, false);
+                }
+                rollupService.recordBatch(applied.stream().map(Flushed::delta).toList());
+                applied.forEach(f -> eventPublisher.publishEvent(f.event()));
+            });
+        } catch (DataAccessException e) {
+            log.error("Batch flush of {} punches failed, retrying individually", batch.size(), e);
+            for (int i = 0; i < inserts.size(); i++) {
+                writeSingle(true, inserts.get(i), insertDeltas.get(i));
+            }
+            for (int i = 0; i < updates.size(); i++) {
+                writeSingle(false, updates.get(i), updateDeltas.get(i));
+            }
+        } finally {
+            for (PendingPunch punch : batch) {
+                pending.remove(punch.userId(), punch);
+            }
+        }
+    }
+
+    private void writeSingle(boolean insert, Object[] args, Flushed flushed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Flushed applied = jdbcTemplate.update(insert ? INSERT_SQL : UPDATE_SQL, args) > 0
+                        ? flushed : rejected(flushed, insert);
+                if (applied != null) {
+                    rollupService.recordBatch(List.of(applied.delta()));
+                    eventPublisher.publishEvent(applied.event());
+                }
+            });
+        } catch (DataAccessException e) {
+            failedPunches.incrementAndGet();
+            log.error("Dropping punch {}: {}", Arrays.toString(args), e.getMessage());
+        }
+    }
+
+    // With rewriteBatchedStatements the driver reports SUCCESS_NO_INFO, so those rows are read back
+    private void collectApplied(int[] results, List<Flushed> flushed, List<Flushed> applied, boolean insert) {
+        List<Flushed> unknown = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == Statement.SUCCESS_NO_INFO) {
+                unknown.add(flushed.get(i));
+            } else if (results[i] == 0) {
+                addIfApplied(applied, rejected(flushed.get(i), insert));
+            } else {
+                applied.add(flushed.get(i));
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Set<Flushed> written = readBack(unknown, insert);
+        for (Flushed f : unknown) {
+            if (written.contains(f)) {
+                applied.add(f);
+            } else {
+                addIfApplied(applied, rejected(f, insert));
+            }
+        }
+    }
+
+    // The stored punch-in (punch-out) is this flush's when it matches within the column's rounding
+    private Set<Flushed> readBack(List<Flushed> unknown, boolean insert) {
+        Map<LocalDate, Map<Long, Flushed>> byDate = new HashMap<>();
+        for (Flushed f : unknown) {
+            byDate.computeIfAbsent(f.delta().date(), date -> new HashMap<>()).put(f.delta().userId(), f);
+        }
+        Set<Flushed> written = new HashSet<>();
+        byDate.forEach((date, byUser) -> {
+            String sql = String.format(READ_BACK_SQL, String.join(", ", Collections.nCopies(byUser.size(), "?")));
+            List<Object> args = new ArrayList<>(byUser.size() + 1);
+            args.add(date);
+            args.addAll(byUser.keySet());
+            jdbcTemplate.query(sql, rs -> {
+                Flushed f = byUser.get(rs.getLong(1));
+                Timestamp stored = rs.getTimestamp(insert ? 2 : 3);
+                if (f != null && stored != null && Duration.between(stored.toLocalDateTime(), f.written()).abs()
+                        .compareTo(Duration.ofSeconds(1)) < 0) {
+                    written.add(f);
+                }
+            }, args.toArray());
+        });
+        return written;
+    }
+
+    // Returns what was written instead, if anything
+    private Flushed rejected(Flushed flushed, boolean insert) {
+        if (!insert) {
+            Flushed overridden = overrideAutoClose(flushed);
+            if (overridden != null) {
+                return overridden;
+            }
+        }
+        Long userId = flushed.delta().userId();
+        LocalDate date = flushed.delta().date();
+        // INSERT IGNORE turns every error into a warning; only a row already there is the unique_user_date one
+        if (insert && !rowExists(userId, date)) {
+            failedPunches.incrementAndGet();
+            log.error("Punch-in for user {} on {} was acknowledged but could not be written", userId, date);
+            return null;
+        }
+        log.warn("Duplicate {} rejected for user {}", insert ? "punch-in" : "punch-out", userId);
+        return null;
+    }
+
+    private boolean rowExists(Long userId, LocalDate date) {
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM attendance WHERE user_id = ? AND attendance_date = ?", Integer.class,
+                userId, date);
+        return rows != null && rows > 0;
+    }
+
+    private static void addIfApplied(List<Flushed> applied, Flushed flushed) {
+        if (flushed != null) {
+            applied.add(flushed);
+        }
+    }
+
+    // The sweeper closed the session while this punch-out was queued; the real punch-out wins
+    private Flushed overrideAutoClose(Flushed flushed) {
+        Long userId = flushed.delta().userId();
+        LocalDate date = flushed.delta().date();
+        List<Attendance> stored = jdbcTemplate.query(AUTO_CLOSED_SQL, (rs, rowNum) -> {
+            Attendance a = new Attendance();
+            a.setPunchOut(rs.getTimestamp("punch_out").toLocalDateTime());
+            a.setTotalHours(rs.getObject("total_hours") != null ? rs.getDouble("total_hours") : null);
+            a.setOvertimeHours(rs.getObject("overtime_hours") != null ? rs.getDouble("overtime_hours") : null);
+            a.setNotes(rs.getString("notes"));
+            return a;
+        }, userId, date);
+        if (stored.isEmpty() || !StaleSessionSweeper.isAutoClosed(stored.get(0).getNotes())) {
+            return null;
+        }
+        Attendance autoClosed = stored.get(0);
+        Contribution after = flushed.delta().after();
+        if (jdbcTemplate.update(OVERRIDE_SQL, timestamp(flushed.written()), after.totalHours(), after.overtimeHours(),
+                StaleSessionSweeper.withoutAutoCloseNote(autoClosed.getNotes()), Timestamp.valueOf(LocalDateTime.now()),
+                userId, date, Timestamp.valueOf(autoClosed.getPunchOut())) == 0) {
+            return null;
+        }
+        Contribution before = new Contribution(after.present(), after.absent(), after.halfDay(), after.late(),
+                autoClosed.getTotalHours() != null ? autoClosed.getTotalHours() : 0,
+                autoClosed.getOvertimeHours() != null ? autoClosed.getOvertimeHours() : 0, after.lateMinutes());
+        // The session was already closed, so only the hours move
+        State closed = flushed.event().after();
+        return new Flushed(new Delta(userId, date, before, after),
+                new AttendanceChangedEvent(AttendanceChangedEvent.Type.PUNCH_OUT, userId, date, closed, closed),
+                flushed.written());
+    }
+
+    private Object[] insertArgs(PendingPunch punch) {
+        Attendance a = punch.attendance();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return new Object[] {
+                punch.userId(), a.getAttendanceDate(), timestamp(a.getPunchIn()), timestamp(a.getPunchOut()),
+                a.getTotalHours(), a.getStatus(), a.getLateMinutes(), a.getOvertimeHours(), a.getNotes(), now, now
+        };
+    }
+
+    private Object[] updateArgs(PendingPunch punch) {
+        Attendance a = punch.attendance();
+        return new Object[] {
+                timestamp(a.getPunchOut()), a.getTotalHours(), a.getOvertimeHours(),
+                Timestamp.valueOf(LocalDateTime.now()), punch.userId(), a.getAttendanceDate()
+        };
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static final class PendingPunch {
+
+        private final Long userId;
+        private final Attendance attendance;
+        private final boolean insert;
+        // Set by the flush under the attendance's monitor once it has read the values it writes
+        private boolean snapshotted;
+
+        PendingPunch(Long userId, Attendance attendance, boolean insert) {
+            this.userId = userId;
+            this.attendance = attendance;
+            this.insert = insert;
+        }
+
+        Long userId() {
+            return userId;
+        }
+
+        Attendance attendance() {
+            return attendance;
+        }
+
+        boolean insert() {
+            return insert;
+        }
+    }
+
+    // written: the punch-in (insert) or punch-out (update) this flush wrote
+    private record Flushed(Delta delta, AttendanceChangedEvent event, LocalDateTime written) {
+    }
+}
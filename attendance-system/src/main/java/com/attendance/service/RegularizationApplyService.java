@@ -0,0 +1,277 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.AttendanceChangedEvent.State;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.service.AttendanceRollupService.Contribution;
+import com.attendance.service.AttendanceRollupService.Delta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes approved regularizations to the attendance table. Requests are claimed in
+ * chunks with one locking read that joins the attendance row for the same day, merged
+ * in memory, and written back with JDBC batches, so a month-end backlog costs a few
+ * statements per chunk instead of several entity loads per request.
+ */
+@Service
+public class RegularizationApplyService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegularizationApplyService.class);
+
+    private static final String CLAIM_SQL =
+            "SELECT r.id, r.user_id, r.attendance_date, r.requested_punch_in, r.requested_punch_out, " +
+            "r.approved_by, a.id AS attendance_id, a.punch_in, a.punch_out, a.status, a.notes, " +
+            "a.total_hours, a.overtime_hours, a.late_minutes " +
+            "FROM regularizations r LEFT JOIN attendance a " +
+            "ON a.user_id = r.user_id AND a.attendance_date = r.attendance_date " +
+            "WHERE r.status = 'APPROVED' AND r.applied_on IS NULL ORDER BY r.id LIMIT ? FOR UPDATE";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance (user_id, attendance_date, punch_in, punch_out, total_hours, status, notes, " +
+            "late_minutes, overtime_hours, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE attendance SET punch_in = ?, punch_out = ?, total_hours = ?, status = ?, notes = ?, " +
+            "late_minutes = ?, overtime_hours = ?, updated_at = ? WHERE id = ?";
+
+    private static final String MARK_APPLIED_SQL = "UPDATE regularizations SET applied_on = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.regularization.apply-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Applies every approved regularization not yet written to attendance and returns
+     * how many were processed. Each chunk commits on its own.
+     */
+    @Scheduled(fixedDelayString = "${attendance.regularization.apply-interval-ms:10000}",
+            initialDelayString = "${attendance.regularization.apply-interval-ms:10000}")
+    public int applyApproved() {
+        int total = 0;
+        while (true) {
+            Integer applied;
+            try {
+                applied = transactionTemplate.execute(status -> applyChunk());
+            } catch (DataAccessException e) {
+                // Usually a punch-in inserted the same day concurrently; the next run sees that row
+                log.error("Applying approved regularizations failed, will retry on the next run", e);
+                break;
+            }
+            if (applied == null || applied == 0) {
+                break;
+            }
+            total += applied;
+            if (applied < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Applied {} approved regularizations to attendance", total);
+        }
+        return total;
+    }
+
+    private int applyChunk() {
+        List<Claimed> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> Claimed.of(rs), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Several requests for the same day are applied in ID order onto one row
+        Map<DayKey, Merge> days = new LinkedHashMap<>();
+        LocalDate archiveCutoff = attendanceRepository.getArchiveCutoff();
+        for (Claimed request : claimed) {
+            if (request.date().isBefore(archiveCutoff)) {
+                log.warn("Regularization {} is for archived day {}, marking it applied without changes",
+                        request.id(), request.date());
+                continue;
+            }
+            Merge merge = days.computeIfAbsent(new DayKey(request.userId(), request.date()),
+                    key -> new Merge(request.existing(), copy(request.existing())));
+            if (apply(request, merge.after)) {
+                merge.changed = true;
+            } else {
+                log.warn("Regularization {} has unusable times ({} - {}), marking it applied without changes",
+                        request.id(), request.punchIn(), request.punchOut());
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Delta> deltas = new ArrayList<>();
+        List<AttendanceChangedEvent> events = new ArrayList<>();
+        for (Map.Entry<DayKey, Merge> entry : days.entrySet()) {
+            Merge merge = entry.getValue();
+            if (!merge.changed) {
+                continue;
+            }
+            Attendance before = merge.before;
+            Attendance after = merge.after;
+            if (before == null) {
+                inserts.add(new Object[] {
+                        entry.getKey().userId(), entry.getKey().date(), timestamp(after.getPunchIn()),
+                        timestamp(after.getPunchOut()), after.getTotalHours(), after.getStatus(), after.getNotes(),
+                        after.getLateMinutes(), after.getOvertimeHours(), now, now
+                });
+            } else {
+                updates.add(new Object[] {
+                        timestamp(after.getPunchIn()), timestamp(after.getPunchOut()), after.getTotalHours(),
+                        after.getStatus(), after.getNotes(), after.getLateMinutes(), after.getOvertimeHours(),
+                        now, before.getId()
+                });
+            }
+            deltas.add(new Delta(entry.getKey().userId(), entry.getKey().date(),
+                    Contribution.of(before), Contribution.of(after)));
+            events.add(new AttendanceChangedEvent(AttendanceChangedEvent.Type.UPDATED, entry.getKey().userId(),
+                    entry.getKey().date(), State.of(before), State.of(after)));
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        jdbcTemplate.batchUpdate(MARK_APPLIED_SQL, claimed.stream()
+                .map(request -> new Object[] {now, request.id()})
+                .toList());
+        rollupService.recordBatch(deltas);
+        events.forEach(eventPublisher::publishEvent);
+        return claimed.size();
+    }
+
+    // Requested times replace the recorded ones on the same day; blank means keep what is there
+    private static boolean apply(Claimed request, Attendance attendance) {
+        LocalDateTime punchIn;
+        LocalDateTime punchOut;
+        try {
+            punchIn = at(request.date(), request.punchIn(), attendance.getPunchIn());
+            punchOut = at(request.date(), request.punchOut(), attendance.getPunchOut());
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+        if (punchIn == null || (punchOut != null && punchOut.isBefore(punchIn))) {
+            return false;
+        }
+
+        attendance.setPunchIn(punchIn);
+        attendance.setPunchOut(punchOut);
+        attendance.setLateMinutes(AttendanceCalculator.lateMinutes(punchIn.toLocalTime()));
+        if (attendance.getStatus() == null || "ABSENT".equals(attendance.getStatus())
+                || "ON_LEAVE".equals(attendance.getStatus())) {
+            attendance.setStatus("PRESENT");
+        }
+        attendance.setTotalHours(null);
+        attendance.setOvertimeHours(null);
+        AttendanceCalculator.applyHours(attendance);
+
+        String note = "Regularized (request #" + request.id() + ", approved by " + request.approvedBy() + ")";
+        attendance.setNotes(attendance.getNotes() == null || attendance.getNotes().isBlank()
+                ? note : attendance.getNotes() + "; " + note);
+        return true;
+    }
+
+    private static LocalDateTime at(LocalDate date, String time, LocalDateTime current) {
+        if (time == null || time.isBlank()) {
+            return current;
+        }
+        return date.atTime(LocalTime.parse(time.trim()));
+    }
+
+    private static Attendance copy(Attendance source) {
+        Attendance copy = new Attendance();
+        if (source != null) {
+            copy.setId(source.getId());
+            copy.setPunchIn(source.getPunchIn());
+            copy.setPunchOut(source.getPunchOut());
+            copy.setStatus(source.getStatus());
+            copy.setNotes(source.getNotes());
+            copy.setTotalHours(source.getTotalHours());
+            copy.setOvertimeHours(source.getOvertimeHours());
+            copy.setLateMinutes(source.getLateMinutes());
+        }
+        return copy;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private record DayKey(Long userId, LocalDate date) {
+    }
+
+    private static final class Merge {
+
+        final Attendance before;
+        final Attendance after;
+        boolean changed;
+
+        Merge(Attendance before, Attendance after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    private record Claimed(Long id, Long userId, LocalDate date, String punchIn, String punchOut,
+                           String approvedBy, Attendance existing) {
+
+        static Claimed of(ResultSet rs) throws SQLException {
+            Attendance existing = null;
+            long attendanceId = rs.getLong("attendance_id");
+            if (!rs.wasNull()) {
+                existing = new Attendance();
+                existing.setId(attendanceId);
+                existing.setPunchIn(localDateTime(rs.getTimestamp("punch_in")));
+                existing.setPunchOut(localDateTime(rs.getTimestamp("punch_out")));
+                existing.setStatus(rs.getString("status"));
+                existing.setNotes(rs.getString("notes"));
+                existing.setTotalHours(rs.getObject("total_hours", Double.class));
+                existing.setOvertimeHours(rs.getObject("overtime_hours", Double.class));
+                existing.setLateMinutes(rs.getObject("late_minutes", Integer.class));
+            }
+            return new Claimed(rs.getLong("id"), rs.getLong("user_id"), rs.getDate("attendance_date").toLocalDate(),
+                    rs.getString("requested_punch_in"), rs.getString("requested_punch_out"),
+                    rs.getString("approved_by"), existing);
+        }
+
+        private static LocalDateTime localDateTime(Timestamp value) {
+            return value != null ? value.toLocalDateTime() : null;
+        }
+    }
+}
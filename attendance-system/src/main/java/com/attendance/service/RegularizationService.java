@@ -2,13 +2,22 @@ package com.attendance.service;
 
 import com.attendance.entity.Regularization;
 import com.attendance.entity.User;
+import com.attendance.event.RegularizationStatusChangedEvent;
+import com.attendance.repository.AttendanceRepository;
 import com.attendance.repository.RegularizationRepository;
-import com.attendance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -18,19 +27,33 @@ public class RegularizationService {
     private RegularizationRepository regularizationRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${attendance.bulk.chunk-size:500}")
+    private int chunkSize;
 
     public Regularization requestRegularization(Regularization regularization) {
-        User user = userRepository.findById(regularization.getUser().getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(regularization.getUser().getId());
+        if (regularization.getAttendanceDate().isBefore(attendanceRepository.getArchiveCutoff())) {
+            throw new RuntimeException("Attendance for " + regularization.getAttendanceDate()
+                    + " is archived and can no longer be regularized");
+        }
 
         regularization.setUser(user);
-        return regularizationRepository.save(regularization);
+        Regularization saved = regularizationRepository.save(regularization);
+        eventPublisher.publishEvent(new RegularizationStatusChangedEvent(
+                saved.getId(), user.getId(), null, saved.getStatus()));
+        return saved;
     }
 
     public List<Regularization> getUserRegularizations(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userLookupService.getUser(userId);
         return regularizationRepository.findByUser(user);
     }
 
@@ -40,34 +63,90 @@ public class RegularizationService {
 
     // Add this missing method
     public List<Regularization> getAllRegularizations() {
-        return regularizationRepository.findAll();
+        return regularizationRepository.findAllWithUser();
+    }
+
+    public KeysetPage<Regularization> getRegularizationsPage(String after, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Regularization> rows = after == null
+                ? regularizationRepository.findFirstPage(limit)
+                : regularizationRepository.findPageAfter(KeysetPage.cursorTime(after), KeysetPage.cursorId(after), limit);
+        return KeysetPage.of(rows, size, r -> KeysetPage.cursor(r.getRequestedOn(), r.getId()));
     }
 
     public Regularization approveRegularization(Long id, String approvedBy, String comments) {
         Regularization regularization = regularizationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Regularization not found"));
 
+        String oldStatus = regularization.getStatus();
         regularization.setStatus("APPROVED");
         regularization.setApprovedBy(approvedBy);
         regularization.setComments(comments);
         regularization.setProcessedOn(LocalDateTime.now());
 
-        return regularizationRepository.save(regularization);
+        Regularization saved = regularizationRepository.save(regularization);
+        eventPublisher.publishEvent(new RegularizationStatusChangedEvent(
+                saved.getId(), saved.getUser().getId(), oldStatus, saved.getStatus()));
+        return saved;
     }
 
     public Regularization rejectRegularization(Long id, String rejectedBy, String comments) {
         Regularization regularization = regularizationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Regularization not found"));
 
+        String oldStatus = regularization.getStatus();
         regularization.setStatus("REJECTED");
         regularization.setApprovedBy(rejectedBy);
         regularization.setComments(comments);
         regularization.setProcessedOn(LocalDateTime.now());
 
-        return regularizationRepository.save(regularization);
+        Regularization saved = regularizationRepository.save(regularization);
+        eventPublisher.publishEvent(new RegularizationStatusChangedEvent(
+                saved.getId(), saved.getUser().getId(), oldStatus, saved.getStatus()));
+        return saved;
+    }
+
+    // Locks each chunk, then moves all still-pending rows with one UPDATE
+    public BulkUpdateResult bulkUpdateStatus(List<Long> ids, String status, String processedBy, String comments) {
+        if (!"APPROVED".equals(status) && !"REJECTED".equals(status)) {
+            throw new RuntimeException("Unknown status: " + status);
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<BulkUpdateResult.Item> items = new ArrayList<>(distinct.size());
+        LocalDateTime processedOn = LocalDateTime.now();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            Map<Long, Regularization> found = regularizationRepository.findAllForUpdate(chunk).stream()
+                    .collect(Collectors.toMap(Regularization::getId, Function.identity()));
+
+            List<Long> pending = new ArrayList<>();
+            for (Long id : chunk) {
+                Regularization regularization = found.get(id);
+                if (regularization == null) {
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.NOT_FOUND, null));
+                } else if (!"PENDING".equals(regularization.getStatus())) {
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.ALREADY_PROCESSED,
+                            regularization.getStatus()));
+                } else {
+                    pending.add(id);
+                    items.add(new BulkUpdateResult.Item(id, BulkUpdateResult.Outcome.UPDATED, status));
+                }
+            }
+            if (pending.isEmpty()) {
+                continue;
+            }
+
+            Map<Long, Long> userIds = pending.stream()
+                    .collect(Collectors.toMap(Function.identity(), id -> found.get(id).getUser().getId()));
+            regularizationRepository.updatePendingStatus(pending, status, processedBy, comments, processedOn);
+            for (Long id : pending) {
+                eventPublisher.publishEvent(new RegularizationStatusChangedEvent(id, userIds.get(id), "PENDING", status));
+            }
+        }
+        return new BulkUpdateResult(items);
     }
 
     public long countPendingRegularizations() {
-        return regularizationRepository.findPendingRegularizations().size();
+        return regularizationRepository.countByStatus("PENDING");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.report.CsvReportWriter;
+import com.attendance.report.ReportWriter;
+import com.attendance.report.XlsxReportWriter;
+import com.attendance.repository.AttendanceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+public class ReportExportService {
+
+    public static final String[] COLUMNS = {
+            "Employee ID", "Employee Name", "Department", "Position", "Date", "Punch In", "Punch Out",
+            "Total Hours", "Status", "Late Minutes", "Overtime Hours", "Notes"
+    };
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String type) {
+            if (type == null) {
+                return CSV;
+            }
+            return switch (type.toLowerCase(Locale.ROOT)) {
+                case "xlsx", "excel" -> XLSX;
+                case "csv" -> CSV;
+                default -> throw new RuntimeException("Unsupported export type: " + type);
+            };
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAttendance(LocalDate start, LocalDate end, String department,
+                                 Format format, OutputStream out) throws IOException {
+        String departmentFilter = department == null || department.isBlank() ? null : department;
+        long rows = 0;
+        try (ReportWriter writer = open(format, out);
+             Stream<Attendance> stream = attendanceRepository.streamReport(start, end, departmentFilter)) {
+            writer.writeHeader(COLUMNS);
+            for (Attendance attendance : (Iterable<Attendance>) stream::iterator) {
+                writeRow(writer, attendance);
+                // Keep the persistence context from growing with the range
+                entityManager.detach(attendance);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /** The first {@code limit} rows of the export, newest first, for showing on screen. */
+    @Transactional(readOnly = true)
+    public List<Attendance> previewAttendance(LocalDate start, LocalDate end, int limit) {
+        try (Stream<Attendance> stream = attendanceRepository.streamReport(start, end, null)) {
+            return stream.limit(limit).toList();
+        }
+    }
+
+    private static ReportWriter open(Format format, OutputStream out) throws IOException {
+        return format == Format.XLSX ? new XlsxReportWriter(out, "Attendance") : new CsvReportWriter(out);
+    }
+
+    private static void writeRow(ReportWriter writer, Attendance a) throws IOException {
+        User u = a.getUser();
+        writer.writeRow(
+                u.getEmployeeId(),
+                u.getFirstName() + " " + u.getLastName(),
+                u.getDepartment(),
+                u.getPosition(),
+                a.getAttendanceDate().toString(),
+                a.getPunchIn() != null ? a.getPunchIn().format(TIME_FORMAT) : null,
+                a.getPunchOut() != null ? a.getPunchOut().format(TIME_FORMAT) : null,
+                a.getTotalHours(),
+                a.getStatus(),
+                a.getLateMinutes(),
+                a.getOvertimeHours(),
+                a.getNotes());
+    }
+}
@@ -0,0 +1,162 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.AttendanceChangedEvent.State;
+import com.attendance.service.AttendanceRollupService.Contribution;
+import com.attendance.service.AttendanceRollupService.Delta;
+import com.attendance.service.OpenSessionRegistry.OpenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closes sessions nobody punched out of. A session is stale once it has been open for
+ * longer than {@code attendance.sessions.max-open-hours} or belongs to an earlier day;
+ * it is closed at the configured auto-close time of its own day and flagged in
+ * {@code notes} so the employee can regularize the real punch-out. A real punch-out that
+ * arrives later still replaces the auto-closed one.
+ */
+@Service
+public class StaleSessionSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleSessionSweeper.class);
+
+    static final String AUTO_CLOSE_NOTE = "Auto-closed: no punch-out recorded";
+
+    private static final String HISTORY_SQL =
+            "SELECT user_id, attendance_date, punch_in FROM attendance " +
+            "WHERE attendance_date < ? AND punch_in IS NOT NULL AND punch_out IS NULL ORDER BY attendance_date";
+
+    private static final String CLOSE_SQL =
+            "UPDATE attendance SET punch_out = ?, total_hours = ?, overtime_hours = ?, " +
+            "notes = CASE WHEN notes IS NULL OR notes = '' THEN ? ELSE CONCAT(notes, '; ', ?) END, " +
+            "updated_at = ? WHERE user_id = ? AND attendance_date = ? AND punch_out IS NULL";
+
+    @Autowired
+    private OpenSessionRegistry openSessionRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${attendance.sessions.max-open-hours:12}")
+    private int maxOpenHours;
+
+    @Value("${attendance.sessions.auto-close-time:18:30}")
+    private LocalTime autoCloseTime;
+
+    @Value("${attendance.sessions.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${attendance.sessions.sweep-cron:0 */15 * * * *}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OpenSession> stale = openSessionRegistry.getStaleSessions(now.toLocalDate(),
+                now.minusHours(maxOpenHours));
+        return close(stale);
+    }
+
+    // The registry only knows today's sessions, so earlier forgotten ones are closed once at startup
+    @EventListener(ApplicationReadyEvent.class)
+    public int sweepHistory() {
+        List<OpenSession> stale = jdbcTemplate.query(HISTORY_SQL, (rs, rowNum) -> new OpenSession(
+                rs.getLong("user_id"), rs.getDate("attendance_date").toLocalDate(),
+                rs.getTimestamp("punch_in").toLocalDateTime()), LocalDate.now());
+        return close(stale);
+    }
+
+    private int close(List<OpenSession> stale) {
+        int closed = 0;
+        for (int from = 0; from < stale.size(); from += batchSize) {
+            List<OpenSession> chunk = stale.subList(from, Math.min(from + batchSize, stale.size()));
+            Integer count = transactionTemplate.execute(status -> closeChunk(chunk));
+            closed += count != null ? count : 0;
+        }
+        if (closed > 0) {
+            log.info("Auto-closed {} sessions without a punch-out", closed);
+        }
+        return closed;
+    }
+
+    private int closeChunk(List<OpenSession> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        List<Attendance> closed = new ArrayList<>(chunk.size());
+        for (OpenSession session : chunk) {
+            Attendance attendance = new Attendance();
+            attendance.setPunchIn(session.punchIn());
+            attendance.setPunchOut(closeAt(session, now.toLocalDateTime()));
+            AttendanceCalculator.applyHours(attendance);
+            closed.add(attendance);
+            args.add(new Object[] {
+                    Timestamp.valueOf(attendance.getPunchOut()), attendance.getTotalHours(),
+                    attendance.getOvertimeHours(), AUTO_CLOSE_NOTE, AUTO_CLOSE_NOTE, now,
+                    session.userId(), session.date()
+            });
+        }
+
+        // A punch-out that raced the sweep wins and reports 0 here
+        int[] results = jdbcTemplate.batchUpdate(CLOSE_SQL, args);
+        List<Delta> deltas = new ArrayList<>(results.length);
+        int count = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == 0) {
+                continue;
+            }
+            OpenSession session = chunk.get(i);
+            Attendance attendance = closed.get(i);
+            double hours = attendance.getTotalHours() != null ? attendance.getTotalHours() : 0;
+            double overtime = attendance.getOvertimeHours() != null ? attendance.getOvertimeHours() : 0;
+            deltas.add(new Delta(session.userId(), session.date(), Contribution.NONE,
+                    new Contribution(0, 0, 0, 0, hours, overtime, 0)));
+            // Only the open flag changes, so status and lateness are left out of both states
+            eventPublisher.publishEvent(new AttendanceChangedEvent(AttendanceChangedEvent.Type.AUTO_CLOSED,
+                    session.userId(), session.date(), new State(null, false, true, session.punchIn()),
+                    new State(null, false, false, session.punchIn())));
+            count++;
+        }
+        rollupService.recordBatch(deltas);
+        return count;
+    }
+
+    static boolean isAutoClosed(String notes) {
+        return notes != null && notes.contains(AUTO_CLOSE_NOTE);
+    }
+
+    static String withoutAutoCloseNote(String notes) {
+        String stripped = notes.replace("; " + AUTO_CLOSE_NOTE, "").replace(AUTO_CLOSE_NOTE + "; ", "")
+                .replace(AUTO_CLOSE_NOTE, "");
+        return stripped.isEmpty() ? null : stripped;
+    }
+
+    private LocalDateTime closeAt(OpenSession session, LocalDateTime now) {
+        LocalDateTime closeAt = session.date().atTime(autoCloseTime);
+        if (closeAt.isAfter(now)) {
+            closeAt = now;
+        }
+        return closeAt.isBefore(session.punchIn()) ? session.punchIn() : closeAt;
+    }
+}
@@ -0,0 +1,281 @@
+package com.attendance.service;
+
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.event.LeaveStatusChangedEvent;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Day-by-day availability as bitmaps with one bit per employee ordinal: present, on leave
+ * and absent. Days are grouped into month shards that are loaded on first use with one
+ * range read of attendance and approved leaves, then kept current from attendance events;
+ * a leave change drops the months it covers. A department over a date range is then one
+ * AND per day and status against the department's membership bitmap.
+ */
+@Component
+public class TeamAvailabilityIndex {
+
+    public static final int MAX_RANGE_DAYS = 62;
+
+    private static final String USERS_SQL =
+            "SELECT id, first_name, last_name, department FROM users " +
+            "WHERE is_active = TRUE AND role = 'EMPLOYEE' ORDER BY id";
+
+    private static final String ATTENDANCE_SQL =
+            "SELECT user_id, attendance_date, status FROM attendance " +
+            "WHERE attendance_date >= ? AND attendance_date < ?";
+
+    // A month is in exactly one of the two tables, and one statement reads both consistently
+    private static final String ARCHIVED_ATTENDANCE_SQL = ATTENDANCE_SQL +
+            " UNION ALL SELECT user_id, attendance_date, status FROM attendance_archive " +
+            "WHERE attendance_date >= ? AND attendance_date < ?";
+
+    private static final String LEAVES_SQL =
+            "SELECT user_id, start_date, end_date FROM leaves " +
+            "WHERE status = 'APPROVED' AND start_date < ? AND end_date >= ?";
+
+    private static final String LEAVE_DATES_SQL = "SELECT start_date, end_date FROM leaves WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    // Ordinals are never reused, so bits already set in loaded shards stay valid
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> userIdsByOrdinal = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    private final Map<YearMonth, MonthShard> shards = new ConcurrentHashMap<>();
+    // Bumped before every change a month sees, so a load that raced one is not cached
+    private final Map<YearMonth, Long> monthChanges = new ConcurrentHashMap<>();
+    private final AtomicLong userChanges = new AtomicLong();
+    private volatile Roster roster;
+
+    /** Who in {@code department} is present, on leave, absent or not yet accounted for on each day. */
+    public Availability getAvailability(String department, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new RuntimeException("Invalid date range");
+        }
+        if (startDate.plusDays(MAX_RANGE_DAYS).isBefore(endDate)) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        Roster current = roster();
+        BitSet members = current.departments().getOrDefault(department, new BitSet());
+
+        Map<Long, String> employees = new LinkedHashMap<>();
+        members.stream().forEach(ordinal -> {
+            Long userId = userIdsByOrdinal.get(ordinal);
+            employees.put(userId, current.names().get(userId));
+        });
+
+        List<Day> days = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            BitSet[] bits = shard(YearMonth.from(date)).snapshot(date.getDayOfMonth());
+            BitSet present = and(bits[MonthShard.PRESENT], members);
+            BitSet onLeave = and(bits[MonthShard.ON_LEAVE], members);
+            BitSet absent = and(bits[MonthShard.ABSENT], members);
+
+            BitSet unaccounted = (BitSet) members.clone();
+            unaccounted.andNot(present);
+            unaccounted.andNot(onLeave);
+            unaccounted.andNot(absent);
+            days.add(new Day(date, userIds(present), userIds(onLeave), userIds(absent), userIds(unaccounted)));
+        }
+        return new Availability(department, startDate, endDate, employees, days);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        // Auto-close only reports the open flag
+        String status = event.after().status();
+        if (status == null) {
+            return;
+        }
+        int ordinal = ordinal(event.userId());
+        YearMonth changed = YearMonth.from(event.date());
+        monthChanges.merge(changed, 1L, Long::sum);
+        // Months not loaded yet will read the committed row when they are
+        shards.computeIfPresent(changed, (month, shard) -> {
+            shard.setAttendance(event.date().getDayOfMonth(), ordinal, status);
+            return shard;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaveStatusChanged(LeaveStatusChangedEvent event) {
+        jdbcTemplate.query(LEAVE_DATES_SQL, rs -> {
+            YearMonth last = YearMonth.from(rs.getDate("end_date").toLocalDate());
+            for (YearMonth month = YearMonth.from(rs.getDate("start_date").toLocalDate());
+                 !month.isAfter(last); month = month.plusMonths(1)) {
+                monthChanges.merge(month, 1L, Long::sum);
+                shards.remove(month);
+            }
+        }, event.leaveId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userChanges.incrementAndGet();
+    }
+
+    public int getLoadedMonths() {
+        return shards.size();
+    }
+
+    private Roster roster() {
+        Roster current = roster;
+        long version = userChanges.get();
+        if (current != null && current.version() == version) {
+            return current;
+        }
+        Map<String, BitSet> departments = new HashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query(USERS_SQL, rs -> {
+            long userId = rs.getLong("id");
+            names.put(userId, rs.getString("first_name") + " " + rs.getString("last_name"));
+            departments.computeIfAbsent(rs.getString("department"), d -> new BitSet()).set(ordinal(userId));
+        });
+        current = new Roster(version, departments, names);
+        roster = current;
+        return current;
+    }
+
+    // Loaded outside the map so the range reads do not hold its bin lock against events and other months
+    private MonthShard shard(YearMonth month) {
+        MonthShard shard = shards.get(month);
+        if (shard != null) {
+            return shard;
+        }
+        Long version = monthChanges.get(month);
+        MonthShard loaded = load(month);
+        MonthShard raced = shards.putIfAbsent(month, loaded);
+        if (raced != null) {
+            return raced;
+        }
+        if (!Objects.equals(version, monthChanges.get(month))) {
+            // A change may have missed it while loading; this read keeps it, the next one reloads
+            shards.remove(month, loaded);
+        }
+        return loaded;
+    }
+
+    private MonthShard load(YearMonth month) {
+        LocalDate start = month.atDay(1);
+        LocalDate end = month.plusMonths(1).atDay(1);
+        MonthShard shard = new MonthShard(month.lengthOfMonth());
+        jdbcTemplate.query(LEAVES_SQL, rs -> {
+            int ordinal = ordinal(rs.getLong("user_id"));
+            LocalDate from = rs.getDate("start_date").toLocalDate();
+            LocalDate to = rs.getDate("end_date").toLocalDate();
+            for (LocalDate date = from.isBefore(start) ? start : from;
+                 !date.isAfter(to) && date.isBefore(end); date = date.plusDays(1)) {
+                shard.setLeave(date.getDayOfMonth(), ordinal);
+            }
+        }, end, start);
+        RowCallbackHandler attendance = rs -> shard.setAttendance(
+                rs.getDate("attendance_date").toLocalDate().getDayOfMonth(),
+                ordinal(rs.getLong("user_id")), rs.getString("status"));
+        if (start.isBefore(attendanceRepository.getArchiveCutoff())) {
+            jdbcTemplate.query(ARCHIVED_ATTENDANCE_SQL, attendance, start, end, start, end);
+        } else {
+            jdbcTemplate.query(ATTENDANCE_SQL, attendance, start, end);
+        }
+        return shard;
+    }
+
+    private int ordinal(Long userId) {
+        return ordinals.computeIfAbsent(userId, id -> {
+            int ordinal = nextOrdinal.getAndIncrement();
+            userIdsByOrdinal.put(ordinal, id);
+            return ordinal;
+        });
+    }
+
+    private List<Long> userIds(BitSet bits) {
+        List<Long> userIds = new ArrayList<>(bits.cardinality());
+        bits.stream().forEach(ordinal -> userIds.add(userIdsByOrdinal.get(ordinal)));
+        return userIds;
+    }
+
+    private static BitSet and(BitSet bits, BitSet members) {
+        BitSet result = (BitSet) bits.clone();
+        result.and(members);
+        return result;
+    }
+
+    public record Availability(String department, LocalDate startDate, LocalDate endDate,
+                               Map<Long, String> employees, List<Day> days) {
+    }
+
+    /** Employee IDs per status; {@code unaccounted} covers days with no attendance row and no leave yet. */
+    public record Day(LocalDate date, List<Long> present, List<Long> onLeave, List<Long> absent,
+                      List<Long> unaccounted) {
+    }
+
+    private record Roster(long version, Map<String, BitSet> departments, Map<Long, String> names) {
+    }
+
+    /** One month of bitmaps, guarded by its own monitor. */
+    private static final class MonthShard {
+
+        static final int PRESENT = 0;
+        static final int ON_LEAVE = 1;
+        static final int ABSENT = 2;
+        // Approved leaves, kept apart from ON_LEAVE attendance rows so a status change can clear only the latter
+        private static final int APPROVED_LEAVE = 3;
+
+        private final BitSet[][] days;
+
+        MonthShard(int length) {
+            days = new BitSet[length][];
+            for (int i = 0; i < length; i++) {
+                days[i] = new BitSet[] {new BitSet(), new BitSet(), new BitSet(), new BitSet()};
+            }
+        }
+
+        synchronized void setLeave(int dayOfMonth, int ordinal) {
+            days[dayOfMonth - 1][APPROVED_LEAVE].set(ordinal);
+        }
+
+        // An attendance row decides the day, except that approved leave stays visible alongside it
+        synchronized void setAttendance(int dayOfMonth, int ordinal, String status) {
+            BitSet[] day = days[dayOfMonth - 1];
+            day[PRESENT].clear(ordinal);
+            day[ON_LEAVE].clear(ordinal);
+            day[ABSENT].clear(ordinal);
+            if ("ABSENT".equals(status)) {
+                day[ABSENT].set(ordinal);
+            } else if ("ON_LEAVE".equals(status)) {
+                day[ON_LEAVE].set(ordinal);
+            } else if (status != null) {
+                day[PRESENT].set(ordinal);
+            }
+        }
+
+        synchronized BitSet[] snapshot(int dayOfMonth) {
+            BitSet[] day = days[dayOfMonth - 1];
+            BitSet onLeave = (BitSet) day[ON_LEAVE].clone();
+            onLeave.or(day[APPROVED_LEAVE]);
+            return new BitSet[] {(BitSet) day[PRESENT].clone(), onLeave, (BitSet) day[ABSENT].clone()};
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves users by ID through a per-request identity map in front of the Hibernate
+ * second-level "users" region, so a request that reaches the same user from several
+ * services looks it up once. Outside a web request it goes straight to the repository.
+ */
+@Service
+public class UserLookupService {
+
+    public static final String USER_REGION = "users";
+
+    private static final String REQUEST_ATTRIBUTE = UserLookupService.class.getName() + ".users";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LongAdder requestHits = new LongAdder();
+    private final LongAdder requestMisses = new LongAdder();
+
+    public User getUser(Long userId) {
+        Map<Long, User> users = requestUsers();
+        User user = users != null ? users.get(userId) : null;
+        if (user != null) {
+            requestHits.increment();
+            return user;
+        }
+        requestMisses.increment();
+        user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (users != null) {
+            users.put(userId, user);
+        }
+        return user;
+    }
+
+    public void evict(Long userId) {
+        Map<Long, User> users = requestUsers();
+        if (users != null) {
+            users.remove(userId);
+        }
+        entityManagerFactory.getCache().evict(User.class, userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    public Statistics getStatistics() {
+        CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics(USER_REGION);
+        return new Statistics(requestHits.sum(), requestMisses.sum(),
+                region.getHitCount(), region.getMissCount(), region.getPutCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, User> requestUsers() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, User> users = (Map<Long, User>) attributes.getAttribute(REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+
+    /** Second-level counters are only collected when hibernate.generate_statistics is on. */
+    public record Statistics(long requestHits, long requestMisses, long secondLevelHits,
+                             long secondLevelMisses, long secondLevelPuts) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process n-gram index over name, employee ID, username and email for the admin user
+ * search. Every substring of up to three characters is posted, so queries of one or two
+ * characters are a single lookup and longer queries intersect their trigram postings and
+ * verify the candidates. Built at startup and kept current from user change events.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score).reversed()
+            .thenComparing(m -> m.entry().sortName());
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<User> users = userRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            users.forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User search index built with {} users and {} grams", users.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userRepository.findById(event.userId()).ifPresentOrElse(this::index, () -> remove(event.userId()));
+    }
+
+    public void index(User user) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(user.getId());
+            add(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of one page of matches, best match first, plus whether more exist.
+     */
+    public SearchResult search(String query, int page, int size) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return new SearchResult(List.of(), false);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(q)) {
+                Entry entry = entries.get(id);
+                int score = entry != null ? entry.score(q) : 0;
+                if (score > 0) {
+                    matches.add(new Match(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(RANKING);
+        int from = Math.min(page * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        List<Long> ids = matches.subList(from, to).stream().map(m -> m.entry().id()).toList();
+        return new SearchResult(ids, to < matches.size());
+    }
+
+    private Set<Long> candidates(String q) {
+        if (q.length() <= GRAM) {
+            return postings.getOrDefault(q, Set.of());
+        }
+        // Intersect from the rarest trigram so the working set shrinks fastest
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Set<Long> posting = postings.get(q.substring(i, i + GRAM));
+            if (posting == null) {
+                return Set.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(User user) {
+        Entry entry = Entry.of(user);
+        entries.put(entry.id(), entry);
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private void removeEntry(Long userId) {
+        Entry old = entries.remove(userId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams()) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(userId);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record SearchResult(List<Long> ids, boolean hasNext) {
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    private record Entry(Long id, String[] fields, String sortName) {
+
+        static Entry of(User user) {
+            String[] fields = {
+                    normalize(user.getFirstName()), normalize(user.getLastName()),
+                    normalize(user.getEmployeeId()), normalize(user.getUsername()), normalize(user.getEmail())
+            };
+            return new Entry(user.getId(), fields, fields[0] + " " + fields[1]);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String field : fields) {
+                for (int n = 1; n <= GRAM; n++) {
+                    for (int i = 0; i + n <= field.length(); i++) {
+                        grams.add(field.substring(i, i + n));
+                    }
+                }
+            }
+            return grams;
+        }
+
+        // Exact field match beats prefix, which beats a match in the middle of a field; 0 is no match
+        int score(String q) {
+            int best = 0;
+            for (String field : fields) {
+                if (field.equals(q)) {
+                    return 3;
+                } else if (field.startsWith(q)) {
+                    best = Math.max(best, 2);
+                } else if (field.contains(q)) {
+                    best = Math.max(best, 1);
+                }
+            }
+            return best;
+        }
+    }
+}
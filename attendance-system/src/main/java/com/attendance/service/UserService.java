@@ -1,13 +1,20 @@
 package com.attendance.service;
 
 import com.attendance.entity.User;
+import com.attendance.event.UserChangedEvent;
 import com.attendance.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,11 +23,27 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
     public User saveUser(User user) {
         if (user.getEmployeeId() == null || user.getEmployeeId().isEmpty()) {
             user.setEmployeeId("EMP" + String.format("%05d", (int)(Math.random() * 100000)));
         }
-        return userRepository.save(user);
+        if (!authenticationService.isHashed(user.getPassword())) {
+            user.setPassword(authenticationService.hashPassword(user.getPassword()));
+        }
+        boolean created = user.getId() == null;
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getUsername(), saved.getRole(),
+                created, saved.isActive()));
+        return saved;
     }
 
     public Optional<User> getUserById(Long id) {
@@ -40,6 +63,16 @@ public class UserService {
         return userRepository.findAll();
     }
 
+    public List<User> getRecentUsers() {
+        return userRepository.findTop5ByOrderByIdDesc();
+    }
+
+    public KeysetPage<User> getUsersPage(String after, int size) {
+        Long afterId = after != null ? KeysetPage.cursorId(after) : 0L;
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+        return KeysetPage.of(rows, size, u -> String.valueOf(u.getId()));
+    }
+
     public List<User> getUsersByRole(String role) {
         return userRepository.findByRole(role);
     }
@@ -48,6 +81,19 @@ public class UserService {
         return userRepository.searchUsers(search);
     }
 
+    // Ranked search served from the in-memory index; the cursor is the next page number
+    public KeysetPage<User> searchUsers(String search, String after, int size) {
+        if (!userSearchIndex.isReady()) {
+            return new KeysetPage<>(userRepository.searchUsers(search), null);
+        }
+        int page = after != null ? KeysetPage.cursorId(after).intValue() : 0;
+        UserSearchIndex.SearchResult result = userSearchIndex.search(search, page, size);
+        Map<Long, User> byId = userRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = result.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new KeysetPage<>(users, result.hasNext() ? String.valueOf(page + 1) : null);
+    }
+
     public User updateUser(Long id, User userDetails) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -61,7 +107,10 @@ public class UserService {
         user.setDateOfBirth(userDetails.getDateOfBirth());
         user.setUpdatedAt(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getUsername(), saved.getRole(),
+                false, saved.isActive()));
+        return saved;
     }
 
     public void deleteUser(Long id) {
@@ -69,13 +118,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(false);
         userRepository.save(user);
-    }
-
-    public boolean authenticate(String username, String password) {
-        Optional<User> user = userRepository.findByUsername(username);
-        return user.isPresent() &&
-                user.get().getPassword().equals(password) &&
-                user.get().isActive();
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername(), user.getRole(), false, false));
     }
 
     public long getTotalUsers() {
@@ -90,4 +133,4 @@ public class UserService {
     public long countUsersByDepartment(String department) {
         return userRepository.findByDepartment(department).size();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+-- ============================================
+-- Tables and columns added on top of the baseline schema.
+-- A database baselined at V1 was built from data.sql or by Hibernate, so it
+-- may or may not have these already; every change here is conditional.
+-- ============================================
+
+-- ============================================
+-- TABLE: monthly_attendance_rollup
+-- Per-user monthly totals maintained alongside attendance writes
+-- ============================================
+CREATE TABLE IF NOT EXISTS monthly_attendance_rollup (
+                                                         id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                                         user_id BIGINT NOT NULL,
+                                                         summary_year INT NOT NULL,
+                                                         summary_month INT NOT NULL,
+                                                         present_days INT DEFAULT 0,
+    absent_days INT DEFAULT 0,
+    half_days INT DEFAULT 0,
+    late_days INT DEFAULT 0,
+    total_hours DOUBLE DEFAULT 0,
+    overtime_hours DOUBLE DEFAULT 0,
+    late_minutes INT DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY unique_rollup_user_month (user_id, summary_year, summary_month),
+    CONSTRAINT fk_rollup_user FOREIGN KEY (user_id)
+    REFERENCES users(id) ON DELETE CASCADE
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- TABLE: leave_balances
+-- Per-user yearly leave ledger maintained alongside leave changes
+-- ============================================
+CREATE TABLE IF NOT EXISTS leave_balances (
+                                              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                              user_id BIGINT NOT NULL,
+                                              balance_year INT NOT NULL,
+                                              leave_type VARCHAR(20) NOT NULL,
+    accrued_days INT DEFAULT 0,
+    carried_forward_days INT DEFAULT 0,
+    taken_days INT DEFAULT 0,
+    pending_days INT DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY unique_balance_user_year_type (user_id, balance_year, leave_type),
+    CONSTRAINT fk_balance_user FOREIGN KEY (user_id)
+    REFERENCES users(id) ON DELETE CASCADE
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ============================================
+-- COLUMN: regularizations.applied_on
+-- Set once an approved regularization has been written to attendance
+-- KEY: attendance.unique_user_date
+-- Hibernate-built databases lack it, and the punch and absence writers rely on
+-- it (INSERT IGNORE); duplicate (user_id, attendance_date) rows must be merged first
+-- ============================================
+DELIMITER //
+CREATE PROCEDURE migration_add_column(IN p_table VARCHAR(64), IN p_column VARCHAR(64), IN p_definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND column_name = p_column) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD COLUMN ', p_column, ' ', p_definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+CREATE PROCEDURE migration_add_unique_key(IN p_table VARCHAR(64), IN p_key VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_key) THEN
+        SET @ddl = CONCAT('ALTER TABLE ', p_table, ' ADD UNIQUE KEY ', p_key, ' (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL migration_add_column('regularizations', 'applied_on', 'TIMESTAMP NULL');
+CALL migration_add_unique_key('attendance', 'unique_user_date', 'user_id, attendance_date');
+
+DROP PROCEDURE migration_add_column;
+DROP PROCEDURE migration_add_unique_key;
@@ -0,0 +1,8 @@
+-- ============================================
+-- Approvals made before regularizations.applied_on existed were written to
+-- attendance when they were approved; mark them applied so the apply job
+-- does not claim them again and overwrite attendance edited since.
+-- ============================================
+UPDATE regularizations
+SET applied_on = COALESCE(processed_on, requested_on, CURRENT_TIMESTAMP)
+WHERE status = 'APPROVED' AND applied_on IS NULL;
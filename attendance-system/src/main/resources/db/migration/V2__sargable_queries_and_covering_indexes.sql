@@ -0,0 +1,126 @@
+-- ============================================
+-- Covering indexes for the dashboard, live feed and report queries,
+-- duplicate index cleanup, and date-range predicates in GetEmployeeStatistics.
+-- Databases baselined at V1 may have been built by Hibernate rather than V1,
+-- so every index change checks information_schema first.
+-- ============================================
+
+DELIMITER //
+CREATE PROCEDURE migration_drop_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('DROP INDEX ', p_index, ' ON ', p_table);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+CREATE PROCEDURE migration_create_index(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('CREATE INDEX ', p_index, ' ON ', p_table, '(', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+DELIMITER ;
+
+-- Attendance: counters and the month load read (attendance_date, status, late_minutes, user_id) only
+CALL migration_create_index('attendance', 'idx_attendance_date', 'attendance_date');
+CALL migration_create_index('attendance', 'idx_attendance_date_status', 'attendance_date, status, late_minutes, user_id');
+-- Open sessions: date and punch_out IS NULL as a ref lookup, returned in punch_in order
+CALL migration_create_index('attendance', 'idx_attendance_open_sessions', 'attendance_date, punch_out, punch_in');
+-- Per-employee monthly counts
+CALL migration_create_index('attendance', 'idx_attendance_user_date_status', 'user_id, attendance_date, status');
+
+-- Same columns as unique_user_date, a prefix of it, and a low-selectivity column now leading nothing
+CALL migration_drop_index('attendance', 'idx_attendance_user_date');
+CALL migration_drop_index('attendance', 'idx_attendance_user_id');
+CALL migration_drop_index('attendance', 'idx_attendance_status');
+
+-- Leaves: approved leave over a date range, and an employee's leaves of one type
+CALL migration_create_index('leaves', 'idx_leaves_status_dates', 'status, start_date, end_date, user_id');
+CALL migration_create_index('leaves', 'idx_leaves_user_type_status', 'user_id, leave_type, status, start_date, end_date');
+CALL migration_create_index('leaves', 'idx_leaves_applied_on', 'applied_on, id');
+
+-- Prefixes of the two indexes above
+CALL migration_drop_index('leaves', 'idx_leaves_user_id');
+CALL migration_drop_index('leaves', 'idx_leaves_status');
+
+-- Regularizations: keyset pages and the apply job
+CALL migration_create_index('regularizations', 'idx_regularizations_requested_on', 'requested_on, id');
+CALL migration_create_index('regularizations', 'idx_regularizations_unapplied', 'status, applied_on, id');
+
+-- Monthly report: every employee's rollup row for one month
+CALL migration_create_index('monthly_attendance_rollup', 'idx_rollup_month', 'summary_year, summary_month');
+
+DROP PROCEDURE migration_drop_index;
+DROP PROCEDURE migration_create_index;
+
+-- ============================================
+-- Current-month figures as a half-open range on attendance_date
+-- ============================================
+DROP PROCEDURE IF EXISTS GetEmployeeStatistics;
+
+DELIMITER //
+CREATE PROCEDURE GetEmployeeStatistics(
+    IN p_employee_id VARCHAR(20)
+)
+BEGIN
+    DECLARE month_start DATE DEFAULT DATE_FORMAT(CURDATE(), '%Y-%m-01');
+    DECLARE next_month_start DATE DEFAULT DATE_ADD(DATE_FORMAT(CURDATE(), '%Y-%m-01'), INTERVAL 1 MONTH);
+
+SELECT
+    u.employee_id,
+    CONCAT(u.first_name, ' ', u.last_name) as employee_name,
+    u.department,
+    u.position,
+    u.date_of_joining,
+    -- Current month stats
+    (SELECT COUNT(*) FROM attendance a
+     WHERE a.user_id = u.id
+       AND a.attendance_date >= month_start AND a.attendance_date < next_month_start
+       AND a.status = 'PRESENT') as present_this_month,
+    (SELECT COUNT(*) FROM attendance a
+     WHERE a.user_id = u.id
+       AND a.attendance_date >= month_start AND a.attendance_date < next_month_start
+       AND a.status = 'ABSENT') as absent_this_month,
+    (SELECT SUM(total_hours) FROM attendance a
+     WHERE a.user_id = u.id
+       AND a.attendance_date >= month_start AND a.attendance_date < next_month_start) as total_hours_this_month,
+-- Leave balance (days taken, from the ledger row for this year)
+    COALESCE(casual.taken_days, 0) as casual_leaves_taken,
+    COALESCE(sick.taken_days, 0) as sick_leaves_taken
+FROM users u
+         LEFT JOIN leave_balances casual ON casual.user_id = u.id
+    AND casual.balance_year = YEAR(CURDATE()) AND casual.leave_type = 'CASUAL'
+         LEFT JOIN leave_balances sick ON sick.user_id = u.id
+    AND sick.balance_year = YEAR(CURDATE()) AND sick.leave_type = 'SICK'
+WHERE u.employee_id = p_employee_id;
+END //
+DELIMITER ;
+
+-- Current month as the same half-open range
+CREATE OR REPLACE VIEW monthly_attendance_summary AS
+SELECT
+    u.id as user_id,
+    u.employee_id,
+    CONCAT(u.first_name, ' ', u.last_name) as employee_name,
+    u.department,
+    u.position,
+    COUNT(CASE WHEN a.status = 'PRESENT' THEN 1 END) as present_days,
+    COUNT(CASE WHEN a.status = 'ABSENT' THEN 1 END) as absent_days,
+    COUNT(CASE WHEN a.status = 'HALF_DAY' THEN 1 END) as half_days,
+    SUM(a.total_hours) as total_hours,
+    SUM(a.overtime_hours) as overtime_hours,
+    AVG(a.late_minutes) as avg_late_minutes
+FROM users u
+         LEFT JOIN attendance a ON u.id = a.user_id
+    AND a.attendance_date >= DATE_FORMAT(CURDATE(), '%Y-%m-01')
+    AND a.attendance_date < DATE_ADD(DATE_FORMAT(CURDATE(), '%Y-%m-01'), INTERVAL 1 MONTH)
+WHERE u.is_active = 1 AND u.role = 'EMPLOYEE'
+GROUP BY u.id, u.employee_id, u.first_name, u.last_name, u.department, u.position;
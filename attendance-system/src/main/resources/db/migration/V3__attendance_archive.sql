@@ -0,0 +1,34 @@
+-- ============================================
+-- TABLE: attendance_archive
+-- Closed months moved out of attendance by the archive job, keeping their IDs.
+-- A per-period table rather than native partitions: partitioned InnoDB tables
+-- cannot have foreign keys, and every unique key would need attendance_date.
+-- ============================================
+CREATE TABLE IF NOT EXISTS attendance_archive (
+                                                  id BIGINT PRIMARY KEY,
+                                                  user_id BIGINT NOT NULL,
+                                                  attendance_date DATE NOT NULL,
+                                                  punch_in DATETIME,
+                                                  punch_out DATETIME,
+                                                  total_hours DECIMAL(5,2),
+    status VARCHAR(20) DEFAULT 'PRESENT',
+    notes TEXT,
+    late_minutes INT DEFAULT 0,
+    overtime_hours DECIMAL(5,2) DEFAULT 0,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    UNIQUE KEY unique_archive_user_date (user_id, attendance_date),
+    KEY idx_archive_date_status (attendance_date, status, late_minutes, user_id),
+    CONSTRAINT fk_attendance_archive_user FOREIGN KEY (user_id)
+    REFERENCES users(id) ON DELETE CASCADE
+    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- View: every attendance row, hot or archived, for ad-hoc reporting SQL
+CREATE OR REPLACE VIEW attendance_history AS
+SELECT id, user_id, attendance_date, punch_in, punch_out, total_hours, status, notes,
+       late_minutes, overtime_hours, created_at, updated_at
+FROM attendance
+UNION ALL
+SELECT id, user_id, attendance_date, punch_in, punch_out, total_hours, status, notes,
+       late_minutes, overtime_hours, created_at, updated_at
+FROM attendance_archive;
@@ -0,0 +1,75 @@
+package com.attendance;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import javax.sql.DataSource;
+
+/**
+ * One embedded MariaDB server shared by the tests that need real MySQL behaviour (migrations,
+ * query plans). It is started on first use and stopped with the JVM; tests that cannot start
+ * it are skipped rather than failed.
+ */
+final class EmbeddedMariaDb {
+
+    private static DBConfigurationBuilder config;
+    private static String unavailable;
+
+    private EmbeddedMariaDb() {
+    }
+
+    /** Creates an empty database and returns a data source for it. */
+    static synchronized DataSource schema(String name) {
+        start();
+        new JdbcTemplate(dataSource("test")).execute("CREATE DATABASE " + name);
+        return dataSource(name);
+    }
+
+    /** JDBC URL of a database on the server, for the MySQL driver the application uses. */
+    static synchronized String url(String schema) {
+        start();
+        return config.getURL(schema).replace("jdbc:mariadb:", "jdbc:mysql:");
+    }
+
+    // As production configures Flyway in application.properties
+    static MigrateResult migrate(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static DataSource dataSource(String schema) {
+        return new DriverManagerDataSource(url(schema), "root", "");
+    }
+
+    private static void start() {
+        if (unavailable != null) {
+            Assumptions.abort(unavailable);
+        }
+        if (config != null) {
+            return;
+        }
+        DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+        builder.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            builder.addArg("--user=root");
+        }
+        try {
+            // MariaDB4j stops the server and deletes its data directory on JVM exit
+            DB.newEmbeddedDB(builder.build()).start();
+            config = builder;
+        } catch (ManagedProcessException | RuntimeException e) {
+            unavailable = "Embedded MariaDB is not available here: " + e.getMessage();
+            Assumptions.abort(unavailable);
+        }
+    }
+}
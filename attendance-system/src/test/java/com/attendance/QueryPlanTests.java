@@ -0,0 +1,286 @@
+package com.attendance;
+
+import com.attendance.entity.User;
+import com.attendance.repository.ArchivedAttendanceRepository;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.RegularizationRepository;
+import com.attendance.repository.UserRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL behind every hot repository query and fails if MySQL reads any table
+ * without an index, so a non-sargable predicate or a missing index breaks the build. The
+ * queries run against the Flyway schema on the embedded MariaDB server, seeded with enough rows
+ * that the optimizer only picks a full scan when no index fits.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+        "spring.datasource.username=root",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQL8Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.attendance.QueryPlanTests$SqlCapture"
+})
+class QueryPlanTests {
+
+    private static final String SCHEMA = "query_plans";
+
+    private static String url;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private RegularizationRepository regularizationRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final LocalDate today = LocalDate.now();
+    private final LocalDateTime now = LocalDateTime.now();
+    private final PageRequest page = PageRequest.of(0, 20);
+    private User user;
+
+    // Skips the class before the context is built when the server cannot start
+    @BeforeAll
+    static void migrateAndSeed() {
+        database();
+    }
+
+    @DynamicPropertySource
+    static void mariaDb(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", QueryPlanTests::database);
+    }
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("plan.user");
+        user.setPassword("secret");
+        user.setEmail("plan.user@company.com");
+        user.setFirstName("Plan");
+        user.setLastName("User");
+        user.setEmployeeId("QP1");
+        user.setRole("EMPLOYEE");
+        user.setDepartment("Ops");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.delete(user);
+    }
+
+    @Test
+    void hotQueriesUseIndexes() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        // Punch in/out and the employee pages
+        queries.put("attendance by user and date", () -> attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), today));
+        queries.put("attendance history", () -> attendanceRepository.findByUserAndAttendanceDateBetween(user, today.minusDays(30), today));
+        queries.put("present days in month", () -> attendanceRepository.countPresentDays(user, today.getMonthValue(), today.getYear()));
+        // Admin dashboard and live feed
+        queries.put("attendance count", () -> attendanceRepository.countByAttendanceDate(today));
+        queries.put("attendance count by status", () -> attendanceRepository.countByAttendanceDateAndStatus(today, "PRESENT"));
+        queries.put("late count", () -> attendanceRepository.countByAttendanceDateAndLateMinutesGreaterThan(today, 0));
+        queries.put("open session count", () -> attendanceRepository.countByAttendanceDateAndPunchInIsNotNullAndPunchOutIsNull(today));
+        queries.put("open sessions", () -> attendanceRepository.findOpenSessions(today, page));
+        queries.put("latest punches", () -> attendanceRepository.findLatestByAttendanceDate(today, page));
+        queries.put("attendance page", () -> attendanceRepository.findPageByAttendanceDate(today, 0L, page));
+        queries.put("attendance for users", () -> attendanceRepository.findByAttendanceDateAndUserIdIn(today, List.of(user.getId())));
+        queries.put("pending leave count", () -> leaveRepository.countByStatus("PENDING"));
+        queries.put("pending regularization count", () -> regularizationRepository.countByStatus("PENDING"));
+        queries.put("recent pending leaves", () -> leaveRepository.findTop5ByStatusOrderByAppliedOnDesc("PENDING"));
+        queries.put("employee count", () -> userRepository.countByRole("EMPLOYEE"));
+        // Approval queues
+        queries.put("pending leaves", () -> leaveRepository.findPendingLeaves());
+        queries.put("pending regularizations", () -> regularizationRepository.findPendingRegularizations());
+        // Reports
+        queries.put("attendance report", () -> transactionTemplate.executeWithoutResult(status ->
+                attendanceRepository.streamReport(today.minusDays(30), today, "Ops").forEach(a -> { })));
+        queries.put("attendance range", () -> attendanceRepository.findByAttendanceDateBetween(today.minusDays(7), today));
+        queries.put("monthly rollup", () -> rollupRepository.findBySummaryYearAndSummaryMonth(today.getYear(), today.getMonthValue()));
+        queries.put("department members", () -> userRepository.findByDepartment("Ops"));
+        // Archived months
+        LocalDate archived = today.minusYears(1);
+        queries.put("archive boundary", () -> archivedAttendanceRepository.findLastArchivedDate());
+        queries.put("archived history", () -> archivedAttendanceRepository.findByUserIdAndDateRange(user.getId(), archived, archived.plusDays(30)));
+        queries.put("archived range", () -> archivedAttendanceRepository.findByDateRange(archived, archived.plusDays(7)));
+        queries.put("archived present days", () -> archivedAttendanceRepository.countPresentDaysBetween(user.getId(), archived, archived.plusMonths(1)));
+        queries.put("archived report", () -> transactionTemplate.executeWithoutResult(status ->
+                archivedAttendanceRepository.streamReport(archived, archived.plusDays(30), "Ops").forEach(a -> { })));
+        // Leave and regularization workflows
+        queries.put("active leaves", () -> leaveRepository.findByUserIdInAndStatusIn(List.of(user.getId()), List.of("PENDING", "APPROVED")));
+        queries.put("overlapping applications", () -> leaveRepository.findActiveOverlapping(user.getId(), today, today.plusDays(2)));
+        queries.put("leaves in range", () -> leaveRepository.findOverlapping(today, today.plusDays(7)));
+        queries.put("leaves by status", () -> leaveRepository.findByUserAndStatus(user, "PENDING"));
+        queries.put("leave first page", () -> leaveRepository.findFirstPage(page));
+        queries.put("leave page", () -> leaveRepository.findPageAfter(now, Long.MAX_VALUE, page));
+        queries.put("leave balance", () -> leaveBalanceRepository.findByUserIdAndBalanceYearAndLeaveType(user.getId(), today.getYear(), "SICK"));
+        queries.put("leave balances", () -> leaveBalanceRepository.findByUserIdAndBalanceYearOrderByLeaveType(user.getId(), today.getYear()));
+        queries.put("regularizations by status", () -> regularizationRepository.findByUserAndStatus(user, "PENDING"));
+        queries.put("regularization first page", () -> regularizationRepository.findFirstPage(page));
+        queries.put("regularization page", () -> regularizationRepository.findPageAfter(now, Long.MAX_VALUE, page));
+        // Login
+        queries.put("user by username", () -> userRepository.findByUsername("plan.user"));
+        queries.put("user by employee id", () -> userRepository.findByEmployeeId("QP1"));
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            jdbc.execute("TRUNCATE TABLE mysql.general_log");
+            List<String> statements = SqlCapture.capture(query.getValue());
+            assertThat(statements).as(query.getKey()).isNotEmpty();
+            List<String> logged = jdbc.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log " +
+                    "WHERE command_type = 'Query'", String.class);
+            for (String sql : statements) {
+                String executed = withValues(sql, logged);
+                assertThat(executed).as(query.getKey() + " in the general log: " + sql).isNotNull();
+                for (Map<String, Object> row : jdbc.queryForList("EXPLAIN " + executed)) {
+                    // type ALL is a full table scan; no key on any other access type means no index was used either
+                    if (row.get("type") != null && ("ALL".equals(row.get("type")) || row.get("key") == null)) {
+                        fullScans.add(query.getKey() + ": " + row + "\n  " + executed);
+                    }
+                }
+            }
+        }
+        assertThat(fullScans).isEmpty();
+    }
+
+    // The statement as the driver sent it, values inlined, so the plan reflects the real bounds
+    private static String withValues(String sql, List<String> logged) {
+        int parameter = sql.indexOf('?');
+        String prefix = parameter < 0 ? sql : sql.substring(0, parameter);
+        return logged.stream().filter(statement -> statement.startsWith(prefix)).findFirst().orElse(null);
+    }
+
+    private static synchronized String database() {
+        if (url == null) {
+            DataSource schema = EmbeddedMariaDb.schema(SCHEMA);
+            assertThat(EmbeddedMariaDb.migrate(schema).success).isTrue();
+            seed(new JdbcTemplate(schema));
+            url = EmbeddedMariaDb.url(SCHEMA);
+        }
+        return url;
+    }
+
+    // A few hundred employees with two months of attendance, a year-old archived stretch and
+    // a couple of years of leave and regularization history, mostly decided. Below a few
+    // thousand rows MariaDB prefers a full scan and filesort to an ordered index for LIMIT queries
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE plan_numbers (n INT PRIMARY KEY)");
+        jdbc.batchUpdate("INSERT INTO plan_numbers VALUES (?)",
+                IntStream.rangeClosed(1, 400).mapToObj(n -> new Object[] {n}).toList());
+        jdbc.update("INSERT INTO users (username, password, email, first_name, last_name, employee_id, role, department) " +
+                "SELECT CONCAT('seed', n), 'secret', CONCAT('seed', n, '@company.com'), 'Seed', 'User', " +
+                "CONCAT('SEED', n), 'EMPLOYEE', CONCAT('Dept', n % 20) FROM plan_numbers");
+        jdbc.update("INSERT INTO attendance (user_id, attendance_date, punch_in, punch_out, total_hours, status, " +
+                "late_minutes, overtime_hours) " +
+                "SELECT u.id, CURRENT_DATE - INTERVAL d.n - 1 DAY, " +
+                "TIMESTAMP(CURRENT_DATE - INTERVAL d.n - 1 DAY, '09:00:00') + INTERVAL (u.id % 4) * 15 MINUTE, " +
+                "IF(d.n = 1 AND u.id % 10 = 0, NULL, TIMESTAMP(CURRENT_DATE - INTERVAL d.n - 1 DAY, '18:00:00')), " +
+                "8.5, ELT(1 + (u.id + d.n) % 10, 'ABSENT', 'ON_LEAVE', 'PRESENT', 'PRESENT', 'PRESENT', " +
+                "'PRESENT', 'PRESENT', 'PRESENT', 'PRESENT', 'PRESENT'), IF(u.id % 4 = 3, 15, 0), 0.5 " +
+                "FROM users u JOIN plan_numbers d ON d.n <= 60 WHERE u.username LIKE 'seed%'");
+        jdbc.update("INSERT INTO attendance_archive (id, user_id, attendance_date, total_hours, status, late_minutes, " +
+                "overtime_hours) " +
+                "SELECT 10000000 + u.id * 100 + d.n, u.id, CURRENT_DATE - INTERVAL 1 YEAR - INTERVAL d.n - 1 DAY, 8.0, " +
+                "IF((u.id + d.n) % 10 = 0, 'ABSENT', 'PRESENT'), IF(u.id % 4 = 3, 15, 0), 0 " +
+                "FROM users u JOIN plan_numbers d ON d.n <= 60 WHERE u.username LIKE 'seed%'");
+        jdbc.update("INSERT INTO leaves (user_id, leave_type, start_date, end_date, reason, status, applied_on) " +
+                "SELECT u.id, ELT(1 + (u.id + k.n) % 3, 'SICK', 'CASUAL', 'ANNUAL'), " +
+                "CURRENT_DATE - INTERVAL k.n * 45 - 45 + u.id % 45 DAY, " +
+                "CURRENT_DATE - INTERVAL k.n * 45 - 47 + u.id % 45 DAY, 'Seeded', " +
+                "IF(k.n = 1 AND u.id % 5 = 0, 'PENDING', IF((u.id + k.n) % 7 = 0, 'REJECTED', 'APPROVED')), " +
+                "TIMESTAMP(CURRENT_DATE - INTERVAL k.n * 45 - 38 + u.id % 45 DAY) " +
+                "FROM users u JOIN plan_numbers k ON k.n <= 20 WHERE u.username LIKE 'seed%'");
+        jdbc.update("INSERT INTO regularizations (user_id, attendance_date, requested_punch_in, requested_punch_out, " +
+                "reason, status, requested_on, applied_on) " +
+                "SELECT u.id, CURRENT_DATE - INTERVAL k.n * 30 + u.id % 30 DAY, '09:00', '18:00', 'Seeded', " +
+                "IF(k.n = 1 AND u.id % 5 = 0, 'PENDING', IF((u.id + k.n) % 7 = 0, 'REJECTED', 'APPROVED')), " +
+                "TIMESTAMP(CURRENT_DATE - INTERVAL k.n * 30 - 1 + u.id % 30 DAY), " +
+                "IF(k.n = 1 AND u.id % 5 = 0, NULL, TIMESTAMP(CURRENT_DATE - INTERVAL k.n * 30 - 2 + u.id % 30 DAY)) " +
+                "FROM users u JOIN plan_numbers k ON k.n <= 20 WHERE u.username LIKE 'seed%'");
+        jdbc.update("INSERT INTO monthly_attendance_rollup (user_id, summary_year, summary_month, present_days) " +
+                "SELECT u.id, YEAR(CURRENT_DATE - INTERVAL m.n - 1 MONTH), MONTH(CURRENT_DATE - INTERVAL m.n - 1 MONTH), 20 " +
+                "FROM users u JOIN plan_numbers m ON m.n <= 12 WHERE u.username LIKE 'seed%'");
+        jdbc.update("INSERT INTO leave_balances (user_id, balance_year, leave_type, accrued_days) " +
+                "SELECT u.id, YEAR(CURRENT_DATE) - y.n + 1, ELT(t.n, 'SICK', 'CASUAL', 'ANNUAL'), 12 " +
+                "FROM users u JOIN plan_numbers y ON y.n <= 2 JOIN plan_numbers t ON t.n <= 3 " +
+                "WHERE u.username LIKE 'seed%'");
+        jdbc.execute("DROP TABLE plan_numbers");
+        jdbc.execute("ANALYZE TABLE users, attendance, attendance_archive, leaves, regularizations, " +
+                "monthly_attendance_rollup, leave_balances");
+        // Lets the test read back each statement with its values as the driver sent it
+        jdbc.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbc.execute("SET GLOBAL general_log = 1");
+    }
+
+    /** Records the statements Hibernate prepares on the thread running {@link #capture}. */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        static List<String> capture(Runnable query) {
+            List<String> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            try {
+                query.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = CAPTURED.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.attendance;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+
+import static com.attendance.EmbeddedMariaDb.migrate;
+import static com.attendance.EmbeddedMariaDb.schema;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway scripts against a real (embedded MariaDB) server, both on an empty schema and
+ * on one built by the pre-migration data.sql, which production baselines at V1.
+ */
+class SchemaMigrationTests {
+
+    @Test
+    void migratesAnEmptySchema() {
+        DataSource dataSource = schema("migration_empty");
+
+        assertThat(migrate(dataSource).success).isTrue();
+
+        assertUpToDate(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    void upgradesASchemaBuiltByDataSql() {
+        DataSource dataSource = schema("migration_data_sql");
+        buildBaselineCopy(dataSource);
+
+        assertThat(migrate(dataSource).success).isTrue();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertUpToDate(jdbc);
+        assertThat(jdbc.queryForObject("SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'",
+                String.class)).isEqualTo("1");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM users", Integer.class)).isEqualTo(7);
+        // data.sql's approved regularization was applied when approved and must not be claimed again
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM regularizations WHERE status = 'APPROVED'",
+                Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM regularizations WHERE status = 'APPROVED' " +
+                "AND applied_on IS NULL", Integer.class)).isZero();
+    }
+
+    @Test
+    void addsTheAttendanceKeyMissingFromHibernateBuiltSchemas() {
+        DataSource dataSource = schema("migration_hibernate");
+        buildBaselineCopy(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("ALTER TABLE attendance DROP INDEX unique_user_date");
+
+        assertThat(migrate(dataSource).success).isTrue();
+
+        assertUpToDate(jdbc);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'attendance' AND index_name = 'unique_user_date' " +
+                "AND non_unique = 0", Integer.class)).isEqualTo(2);
+    }
+
+    // data.sql's schema, applied with its own history table that is dropped again, so Flyway sees an unmanaged schema
+    private static void buildBaselineCopy(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/baseline")
+                .table("baseline_copy_history")
+                .load()
+                .migrate();
+        new JdbcTemplate(dataSource).execute("DROP TABLE baseline_copy_history");
+    }
+
+    private static void assertUpToDate(JdbcTemplate jdbc) {
+        assertThat(jdbc.queryForList("SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE()",
+                String.class))
+                .map(String::toLowerCase)
+                .contains("users", "attendance", "leaves", "regularizations", "monthly_attendance_rollup",
+                        "leave_balances", "attendance_archive", "attendance_history");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() " +
+                "AND table_name = 'regularizations' AND column_name = 'applied_on'", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() " +
+                "AND table_name = 'regularizations' AND index_name = 'idx_regularizations_unapplied'", Integer.class))
+                .isPositive();
+        jdbc.queryForList("CALL GetEmployeeStatistics('EMP001')");
+    }
+}
@@ -0,0 +1,50 @@
+package com.attendance.config;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTests {
+
+    @Test
+    void rejectsOnceBudgetIsHeldPastQueueTimeout() {
+        Bulkhead bulkhead = new Bulkhead("reports", 1, 20);
+
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(CompletableFuture.supplyAsync(bulkhead::tryAcquire).join()).isFalse();
+
+        Bulkhead.Statistics statistics = bulkhead.getStatistics();
+        assertThat(statistics.active()).isEqualTo(1);
+        assertThat(statistics.admitted()).isEqualTo(1);
+        assertThat(statistics.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void queuedRequestIsAdmittedWhenPermitIsReleased() {
+        Bulkhead bulkhead = new Bulkhead("punch", 1, 5000);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+        bulkhead.release();
+
+        assertThat(queued.join()).isTrue();
+        assertThat(bulkhead.getStatistics().admitted()).isEqualTo(2);
+    }
+
+    @Test
+    void unroutedRequestsShareTheDefaultBulkheadExceptInMemoryPages() {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor();
+        interceptor.init();
+
+        assertThat(interceptor.route("POST", "/employee/punch-in").getName()).isEqualTo("punch");
+        assertThat(interceptor.route("GET", "/admin/reports/export").getName()).isEqualTo("reports");
+        assertThat(interceptor.route("POST", "/login").getName()).isEqualTo("default");
+        assertThat(interceptor.route("POST", "/employee/leave/apply").getName()).isEqualTo("default");
+        assertThat(interceptor.route("GET", "/employee/attendance").getName()).isEqualTo("default");
+        assertThat(interceptor.route("POST", "/admin/leave/bulk").getName()).isEqualTo("default");
+        assertThat(interceptor.route("POST", "/admin/attendance/absences").getName()).isEqualTo("default");
+        assertThat(interceptor.route("GET", "/login")).isNull();
+        assertThat(interceptor.route("GET", "/admin/dashboard/stream")).isNull();
+    }
+}
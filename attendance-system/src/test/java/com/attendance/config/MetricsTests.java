@@ -0,0 +1,110 @@
+package com.attendance.config;
+
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import com.attendance.service.AttendanceService;
+import com.attendance.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MetricsTests {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private BulkheadInterceptor bulkheadInterceptor;
+
+    @Test
+    void timesServiceCallsByMethodAndOutcome() {
+        userService.getTotalUsers();
+        assertThatThrownBy(() -> attendanceService.punchIn(-1L)).hasMessage("User not found");
+
+        assertThat(meterRegistry.get("attendance.service")
+                .tags("class", "UserService", "method", "getTotalUsers", "exception", "none")
+                .timer().count()).isPositive();
+        assertThat(meterRegistry.get("attendance.service")
+                .tags("class", "AttendanceService", "method", "punchIn", "exception", "RuntimeException")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    void countsPunchesAndRegistersPoolAndHibernateMetrics() {
+        User user = new User();
+        user.setUsername("metrics.user");
+        user.setPassword("secret");
+        user.setEmail("metrics.user@company.com");
+        user.setFirstName("Metrics");
+        user.setLastName("User");
+        user.setEmployeeId("MT1");
+        user.setRole("EMPLOYEE");
+        user = userService.saveUser(user);
+        double before = meterRegistry.get("attendance.punches").tag("type", "in").counter().count();
+
+        try {
+            attendanceService.punchIn(user.getId());
+
+            assertThat(meterRegistry.get("attendance.punches").tag("type", "in").counter().count())
+                    .isEqualTo(before + 1);
+            assertThat(meterRegistry.get("attendance.punches.per_minute").gauge().value()).isPositive();
+        } finally {
+            rollupRepository.deleteAll();
+            attendanceRepository.deleteAll();
+            userRepository.delete(user);
+        }
+
+        assertThat(meterRegistry.find("attendance.sessions.open").gauge()).isNotNull();
+        assertThat(meterRegistry.find("attendance.approvals.pending").gauges()).hasSize(2);
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void publishesTheLoadOnEveryBulkhead() {
+        for (String bulkhead : List.of("punch", "dashboard", "admin-lists", "reports", "default")) {
+            assertThat(meterRegistry.get("attendance.bulkhead.active").tag("bulkhead", bulkhead).gauge()).isNotNull();
+            assertThat(meterRegistry.get("attendance.bulkhead.queued").tag("bulkhead", bulkhead).gauge()).isNotNull();
+            assertThat(meterRegistry.get("attendance.bulkhead.admitted").tag("bulkhead", bulkhead).functionCounter())
+                    .isNotNull();
+        }
+        Bulkhead reports = bulkheadInterceptor.getBulkheads().stream()
+                .filter(bulkhead -> bulkhead.getName().equals("reports")).findFirst().orElseThrow();
+        double rejected = meterRegistry.get("attendance.bulkhead.rejected").tag("bulkhead", "reports")
+                .functionCounter().count();
+        assertThat(reports.tryAcquire()).isTrue();
+        try {
+            assertThat(meterRegistry.get("attendance.bulkhead.active").tag("bulkhead", "reports").gauge().value())
+                    .isEqualTo(1);
+            assertThat(CompletableFuture.supplyAsync(reports::tryAcquire).join()).isFalse();
+        } finally {
+            reports.release();
+        }
+        assertThat(meterRegistry.get("attendance.bulkhead.rejected").tag("bulkhead", "reports")
+                .functionCounter().count()).isEqualTo(rejected + 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.attendance.report;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReportWriterTests {
+
+    @Test
+    void quotesFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = write(new Object[] {"plain", "a,b", "say \"hi\"", "two\nlines", "cr\rhere", null, "Zoë"});
+
+        assertThat(csv).isEqualTo("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",\"cr\rhere\",,Zoë\r\n");
+    }
+
+    @Test
+    void prefixesTextThatSpreadsheetsWouldEvaluateAsAFormula() throws IOException {
+        String csv = write(new Object[] {"=SUM(A1:A9)", "+1", "-2", "@cmd", "=HYPERLINK(\"x\",\"y\")", "a=b"});
+
+        assertThat(csv).isEqualTo("'=SUM(A1:A9),'+1,'-2,'@cmd,\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\",a=b\r\n");
+    }
+
+    @Test
+    void leavesNumbersAsTheyAre() throws IOException {
+        String csv = write(new Object[] {-5, 8.25, 0, -0.5});
+
+        assertThat(csv).isEqualTo("-5,8.25,0,-0.5\r\n");
+    }
+
+    @Test
+    void writesTheHeaderAndEachRowOnItsOwnLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvReportWriter writer = new CsvReportWriter(out)) {
+            writer.writeHeader("Employee ID", "Date");
+            writer.writeRow("EMP001", "2024-02-01");
+            writer.writeRow("EMP002", "2024-02-01");
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo("Employee ID,Date\r\nEMP001,2024-02-01\r\nEMP002,2024-02-01\r\n");
+    }
+
+    private static String write(Object[] row) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvReportWriter writer = new CsvReportWriter(out)) {
+            writer.writeRow(row);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package com.attendance.report;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxReportWriterTests {
+
+    private static final String MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    @Test
+    void writesAWellFormedSingleSheetPackage() throws Exception {
+        Map<String, Document> parts = write("Attendance & Leave", writer -> {
+            writer.writeHeader("Employee ID", "Date");
+            writer.writeRow("EMP001", "2024-02-01");
+        });
+
+        assertThat(parts).containsOnlyKeys("[Content_Types].xml", "_rels/.rels", "xl/_rels/workbook.xml.rels",
+                "xl/workbook.xml", "xl/worksheets/sheet1.xml");
+        // Every overridden content type and relationship target names a part in the package
+        assertThat(attributes(parts.get("[Content_Types].xml"), "Override", "PartName"))
+                .containsExactlyInAnyOrder("/xl/workbook.xml", "/xl/worksheets/sheet1.xml");
+        assertThat(attributes(parts.get("_rels/.rels"), "Relationship", "Target")).containsExactly("xl/workbook.xml");
+        assertThat(attributes(parts.get("xl/_rels/workbook.xml.rels"), "Relationship", "Target"))
+                .containsExactly("worksheets/sheet1.xml");
+        assertThat(attributes(parts.get("xl/workbook.xml"), "sheet", "name")).containsExactly("Attendance & Leave");
+    }
+
+    @Test
+    void writesTextAsInlineStringsAndNumbersAsValues() throws Exception {
+        Map<String, Document> parts = write("Attendance", writer -> {
+            writer.writeHeader("Employee ID", "Date", "Total Hours", "Late Minutes", "Notes");
+            writer.writeRow("EMP001", "2024-02-01", 8.25, 15, "<late> & \"tired\"\u0001");
+            writer.writeRow("EMP002", "2024-02-29", null, 0, null);
+        });
+
+        NodeList rows = parts.get("xl/worksheets/sheet1.xml").getElementsByTagNameNS(MAIN, "row");
+        assertThat(rows.getLength()).isEqualTo(3);
+
+        List<Element> first = cells((Element) rows.item(1));
+        assertThat(first).hasSize(5);
+        // Dates are exported as their ISO text, so no spreadsheet locale can reinterpret them
+        assertThat(first.get(1).getAttribute("t")).isEqualTo("inlineStr");
+        assertThat(first.get(1).getTextContent()).isEqualTo("2024-02-01");
+        assertThat(first.get(2).hasAttribute("t")).isFalse();
+        assertThat(first.get(2).getElementsByTagNameNS(MAIN, "v").item(0).getTextContent()).isEqualTo("8.25");
+        assertThat(first.get(3).getElementsByTagNameNS(MAIN, "v").item(0).getTextContent()).isEqualTo("15");
+        // Markup is escaped and the control character XML 1.0 forbids is dropped
+        assertThat(first.get(4).getElementsByTagNameNS(MAIN, "t").item(0).getTextContent())
+                .isEqualTo("<late> & \"tired\"");
+
+        List<Element> second = cells((Element) rows.item(2));
+        assertThat(second).hasSize(5);
+        assertThat(second.get(1).getTextContent()).isEqualTo("2024-02-29");
+        assertThat(second.get(2).hasChildNodes()).isFalse();
+        assertThat(second.get(4).hasChildNodes()).isFalse();
+    }
+
+    private interface Rows {
+        void write(XlsxReportWriter writer) throws IOException;
+    }
+
+    private static Map<String, Document> write(String sheetName, Rows rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxReportWriter writer = new XlsxReportWriter(out, sheetName)) {
+            rows.write(writer);
+        }
+        Map<String, Document> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                parts.put(entry.getName(), parse(zip.readAllBytes()));
+            }
+        }
+        return parts;
+    }
+
+    // Fails on anything that is not well-formed XML
+    private static Document parse(byte[] xml) throws ParserConfigurationException, IOException, SAXException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static List<String> attributes(Document document, String element, String attribute) {
+        NodeList nodes = document.getElementsByTagNameNS("*", element);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            values.add(((Element) nodes.item(i)).getAttribute(attribute));
+        }
+        return values;
+    }
+
+    private static List<Element> cells(Element row) {
+        NodeList nodes = row.getElementsByTagNameNS(MAIN, "c");
+        List<Element> cells = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            cells.add((Element) nodes.item(i));
+        }
+        return cells;
+    }
+}
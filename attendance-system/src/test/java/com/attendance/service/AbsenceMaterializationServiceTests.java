@@ -0,0 +1,148 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.Leave;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "attendance.absence.batch-size=2")
+class AbsenceMaterializationServiceTests {
+
+    // A recent Monday whose whole week is in one hot month, so it has five working days and one rollup row
+    private static final LocalDate MONDAY = recentMonday();
+
+    @Autowired
+    private AbsenceMaterializationService absenceService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        user("present", "Engineering", true);
+        user("missing", "Engineering", true);
+        user("leave", "Engineering", true);
+        user("sales", "Sales", true);
+        user("nodept", null, true);
+        user("inactive", "Sales", false);
+
+        Attendance present = new Attendance();
+        present.setUser(users.get(0));
+        present.setAttendanceDate(MONDAY);
+        present.setPunchIn(MONDAY.atTime(9, 0));
+        present.setStatus("PRESENT");
+        attendanceRepository.save(present);
+
+        Leave leave = new Leave();
+        leave.setUser(users.get(2));
+        leave.setLeaveType("CASUAL");
+        leave.setStartDate(MONDAY);
+        leave.setEndDate(MONDAY.plusDays(1));
+        leave.setStatus("APPROVED");
+        leaveRepository.save(leave);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void missingWorkingDaysAreMaterializedOnce() {
+        List<AbsenceMaterializationService.DayResult> results =
+                absenceService.materialize(MONDAY, MONDAY.plusDays(6));
+
+        assertThat(results).extracting(AbsenceMaterializationService.DayResult::date)
+                .containsExactly(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(3),
+                        MONDAY.plusDays(4));
+        assertThat(status(users.get(0), MONDAY)).isEqualTo("PRESENT");
+        assertThat(status(users.get(1), MONDAY)).isEqualTo("ABSENT");
+        assertThat(status(users.get(2), MONDAY)).isEqualTo("ON_LEAVE");
+        assertThat(status(users.get(2), MONDAY.plusDays(2))).isEqualTo("ABSENT");
+        assertThat(status(users.get(3), MONDAY)).isEqualTo("ABSENT");
+        assertThat(status(users.get(4), MONDAY)).isEqualTo("ABSENT");
+        assertThat(status(users.get(5), MONDAY)).isNull();
+        assertThat(status(users.get(1), MONDAY.plusDays(5))).isNull();
+
+        assertThat(rollupService.getUserRollup(users.get(1).getId(), YearMonth.from(MONDAY)).orElseThrow()
+                .getAbsentDays()).isEqualTo(5);
+        assertThat(rollupService.getUserRollup(users.get(2).getId(), YearMonth.from(MONDAY)).orElseThrow()
+                .getAbsentDays()).isEqualTo(3);
+
+        // A rerun over the same range finds nothing left to write
+        assertThat(absenceService.materialize(MONDAY, MONDAY.plusDays(6)))
+                .allSatisfy(day -> assertThat(day.absent() + day.onLeave()).isZero());
+    }
+
+    @Test
+    void archivedDaysAreRejected() {
+        LocalDate archived = attendanceRepository.getArchiveCutoff().minusDays(1);
+
+        assertThatThrownBy(() -> absenceService.materialize(archived, MONDAY))
+                .hasMessageContaining("archived");
+        assertThat(status(users.get(1), MONDAY)).isNull();
+    }
+
+    private static LocalDate recentMonday() {
+        LocalDate monday = LocalDate.now().minusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        while (monday.getMonth() != monday.plusDays(6).getMonth()) {
+            monday = monday.minusWeeks(1);
+        }
+        return monday;
+    }
+
+    private String status(User user, LocalDate date) {
+        return attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), date)
+                .map(Attendance::getStatus).orElse(null);
+    }
+
+    private void user(String name, String department, boolean active) {
+        User user = new User();
+        user.setUsername("absence." + name);
+        user.setPassword("secret");
+        user.setEmail("absence." + name + "@company.com");
+        user.setFirstName("Absence");
+        user.setLastName(name);
+        user.setEmployeeId("AB-" + name);
+        user.setRole("EMPLOYEE");
+        user.setDepartment(department);
+        user.setActive(active);
+        user.setDateOfJoining(MONDAY.minusMonths(1));
+        users.add(userRepository.save(user));
+    }
+}
@@ -0,0 +1,189 @@
+package com.attendance.service;
+
+import com.attendance.entity.ArchivedAttendance;
+import com.attendance.entity.Attendance;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.entity.Regularization;
+import com.attendance.entity.User;
+import com.attendance.repository.ArchivedAttendanceRepository;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AttendanceArchiveServiceTests {
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private RegularizationService regularizationService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private YearMonth oldMonth;
+    private YearMonth lastClosedMonth;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        YearMonth cutoff = YearMonth.from(attendanceRepository.getArchiveCutoff());
+        oldMonth = cutoff.minusMonths(2);
+        lastClosedMonth = cutoff.minusMonths(1);
+
+        user = new User();
+        user.setUsername("archive.user");
+        user.setPassword("secret");
+        user.setEmail("archive.user@company.com");
+        user.setFirstName("Archive");
+        user.setLastName("User");
+        user.setEmployeeId("AR1");
+        user.setRole("EMPLOYEE");
+        user.setDepartment("Archive");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        archivedAttendanceRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void closedMonthsMoveToTheArchiveAndRangeReadsStillSeeThem() {
+        Attendance old = attendance(oldMonth.atDay(3), "PRESENT");
+        attendance(oldMonth.atDay(4), "ABSENT");
+        attendance(lastClosedMonth.atDay(5), "PRESENT");
+        attendance(today, "PRESENT");
+
+        assertThat(archiveService.archiveClosedMonths()).isGreaterThanOrEqualTo(3);
+        assertThat(archiveService.archiveClosedMonths()).isZero();
+
+        assertThat(attendanceRepository.findByUser(user)).extracting(Attendance::getAttendanceDate)
+                .containsExactly(today);
+        List<ArchivedAttendance> archived = archivedAttendanceRepository.findByUserIdAndDateRange(
+                user.getId(), oldMonth.atDay(1), today);
+        assertThat(archived).hasSize(3);
+        assertThat(attendanceRepository.getArchivedBefore()).isEqualTo(lastClosedMonth.plusMonths(1).atDay(1));
+
+        List<Attendance> history = attendanceRepository.findByUserAndAttendanceDateBetween(user, oldMonth.atDay(1), today);
+        assertThat(history).extracting(Attendance::getAttendanceDate)
+                .containsExactlyInAnyOrder(oldMonth.atDay(3), oldMonth.atDay(4), lastClosedMonth.atDay(5), today);
+        assertThat(history).extracting(Attendance::getId).contains(old.getId());
+        assertThat(attendanceRepository.countPresentDaysBetween(user, oldMonth.atDay(1), today.plusDays(1))).isEqualTo(3);
+        assertThat(attendanceRepository.countPresentDays(user, oldMonth.getMonthValue(), oldMonth.getYear())).isEqualTo(1);
+        assertThat(attendanceRepository.findByAttendanceDateBetween(oldMonth.atDay(3), oldMonth.atDay(3)))
+                .extracting(a -> a.getUser().getUsername()).containsExactly("archive.user");
+    }
+
+    @Test
+    void singleDayScreensReadArchivedDaysFromTheArchive() {
+        Attendance open = attendance(oldMonth.atDay(3), "PRESENT");
+        open.setPunchIn(oldMonth.atDay(3).atTime(9, 0));
+        attendanceRepository.save(open);
+        archiveService.archiveClosedMonths();
+
+        LocalDate day = oldMonth.atDay(3);
+        assertThat(attendanceService.countAttendance(day)).isEqualTo(1);
+        assertThat(attendanceService.countAttendance(day, "PRESENT")).isEqualTo(1);
+        assertThat(attendanceService.countOpenSessions(day)).isEqualTo(1);
+        assertThat(attendanceService.getAllAttendance(day)).extracting(Attendance::getId).containsExactly(open.getId());
+        assertThat(attendanceService.getAttendancePage(day, null, 10).getItems())
+                .extracting(a -> a.getUser().getUsername()).containsExactly("archive.user");
+    }
+
+    @Test
+    void reportStreamsHotDaysBeforeArchivedOnes() {
+        attendance(oldMonth.atDay(3), "PRESENT");
+        attendance(lastClosedMonth.atDay(5), "PRESENT");
+        attendance(today, "PRESENT");
+        archiveService.archiveClosedMonths();
+
+        List<LocalDate> dates = transactionTemplate.execute(status -> attendanceRepository
+                .streamReport(oldMonth.atDay(1), today, "Archive")
+                .map(Attendance::getAttendanceDate)
+                .toList());
+
+        assertThat(dates).containsExactly(today, lastClosedMonth.atDay(5), oldMonth.atDay(3));
+    }
+
+    @Test
+    void archivedMonthsRebuildTheirRollupAndRejectRegularization() {
+        attendance(oldMonth.atDay(3), "PRESENT");
+        attendance(oldMonth.atDay(4), "ABSENT");
+        archiveService.archiveClosedMonths();
+
+        rollupService.rebuild(oldMonth);
+        MonthlyAttendanceRollup rollup = rollupService.getUserRollup(user.getId(), oldMonth).orElseThrow();
+        assertThat(rollup.getPresentDays()).isEqualTo(1);
+        assertThat(rollup.getAbsentDays()).isEqualTo(1);
+
+        Regularization regularization = new Regularization();
+        regularization.setUser(user);
+        regularization.setAttendanceDate(oldMonth.atDay(3));
+        regularization.setRequestedPunchIn("09:00");
+        regularization.setReason("Test");
+        assertThatThrownBy(() -> regularizationService.requestRegularization(regularization))
+                .hasMessageContaining("archived");
+    }
+
+    @Test
+    void startupBackfillsMonthsRecordedBeforeTheRollup() {
+        attendance(oldMonth.atDay(3), "PRESENT");
+        attendance(oldMonth.atDay(4), "ABSENT");
+        archiveService.archiveClosedMonths();
+        attendance(today, "PRESENT");
+        assertThat(rollupService.findUnrolledMonths()).contains(oldMonth, YearMonth.from(today));
+
+        rollupService.rebuildOnStartup();
+
+        assertThat(rollupService.findUnrolledMonths()).isEmpty();
+        MonthlyAttendanceRollup rollup = rollupService.getUserRollup(user.getId(), oldMonth).orElseThrow();
+        assertThat(rollup.getPresentDays()).isEqualTo(1);
+        assertThat(rollup.getAbsentDays()).isEqualTo(1);
+        assertThat(rollupService.getUserRollup(user.getId(), YearMonth.from(today)).orElseThrow().getPresentDays())
+                .isEqualTo(1);
+    }
+
+    private Attendance attendance(LocalDate date, String status) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setStatus(status);
+        return attendanceRepository.save(attendance);
+    }
+}
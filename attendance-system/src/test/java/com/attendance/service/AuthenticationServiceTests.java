@@ -0,0 +1,87 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuthenticationServiceTests {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void storesHashAndLogsInWithIt() {
+        User saved = userService.saveUser(newUser("auth.hashed", "emp123"));
+        users.add(saved);
+        assertThat(saved.getPassword()).isNotEqualTo("emp123");
+        assertThat(authenticationService.isHashed(saved.getPassword())).isTrue();
+
+        assertThat(authenticationService.login("auth.hashed", "emp123")).isPresent();
+        assertThat(authenticationService.login("auth.hashed", "wrong")).isEmpty();
+    }
+
+    @Test
+    void upgradesPlainPasswordOnFirstLogin() {
+        users.add(userRepository.save(newUser("auth.legacy", "emp123")));
+
+        assertThat(authenticationService.login("auth.legacy", "emp123")).isPresent();
+        String stored = userRepository.findByUsername("auth.legacy").orElseThrow().getPassword();
+        assertThat(authenticationService.isHashed(stored)).isTrue();
+        assertThat(authenticationService.login("auth.legacy", "emp123")).isPresent();
+    }
+
+    @Test
+    void repeatedFailuresAreAnsweredFromCache() {
+        users.add(userService.saveUser(newUser("auth.cached", "emp123")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        authenticationService.login("auth.cached", "wrong");
+        authenticationService.login("auth.nobody", "guess");
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThat(authenticationService.login("auth.cached", "wrong" + i)).isEmpty();
+            assertThat(authenticationService.login("auth.nobody", "guess" + i)).isEmpty();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private User newUser(String username, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setEmail(username + "@company.com");
+        user.setFirstName("Auth");
+        user.setLastName("User");
+        user.setEmployeeId(username.toUpperCase());
+        user.setRole("EMPLOYEE");
+        return user;
+    }
+}
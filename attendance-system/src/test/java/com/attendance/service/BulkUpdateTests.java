@@ -0,0 +1,130 @@
+package com.attendance.service;
+
+import com.attendance.entity.Leave;
+import com.attendance.entity.Regularization;
+import com.attendance.entity.User;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.RegularizationRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "attendance.bulk.chunk-size=2")
+class BulkUpdateTests {
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private RegularizationService regularizationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private RegularizationRepository regularizationRepository;
+
+    private User user;
+    private final List<Long> leaveIds = new ArrayList<>();
+    private final List<Long> regularizationIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("bulk.user");
+        user.setPassword("secret");
+        user.setEmail("bulk.user@company.com");
+        user.setFirstName("Bulk");
+        user.setLastName("User");
+        user.setEmployeeId("BU1");
+        user.setRole("EMPLOYEE");
+        user = userRepository.save(user);
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        for (int i = 0; i < 3; i++) {
+            Leave leave = new Leave();
+            leave.setUser(user);
+            leave.setLeaveType("CASUAL");
+            leave.setStartDate(start.plusDays(i * 2));
+            leave.setEndDate(start.plusDays(i * 2));
+            leaveIds.add(leaveRepository.save(leave).getId());
+
+            Regularization regularization = new Regularization();
+            regularization.setUser(user);
+            regularization.setAttendanceDate(LocalDate.now().minusDays(i + 1));
+            regularization.setRequestedPunchIn("09:00");
+            regularization.setRequestedPunchOut("18:00");
+            regularizationIds.add(regularizationRepository.save(regularization).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        regularizationRepository.deleteAll();
+        leaveBalanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.delete(user);
+        leaveIds.clear();
+        regularizationIds.clear();
+    }
+
+    @Test
+    void bulkLeaveUpdateReportsEachIdAcrossChunks() {
+        leaveService.approveLeave(leaveIds.get(0), "admin", "early");
+
+        List<Long> request = List.of(leaveIds.get(0), leaveIds.get(1), leaveIds.get(1), -1L, leaveIds.get(2));
+        BulkUpdateResult result = leaveService.bulkUpdateStatus(request, "REJECTED", "admin", "team offsite");
+
+        assertThat(result.items()).extracting(BulkUpdateResult.Item::id, BulkUpdateResult.Item::outcome,
+                BulkUpdateResult.Item::status).containsExactly(
+                tuple(leaveIds.get(0), BulkUpdateResult.Outcome.ALREADY_PROCESSED, "APPROVED"),
+                tuple(leaveIds.get(1), BulkUpdateResult.Outcome.UPDATED, "REJECTED"),
+                tuple(-1L, BulkUpdateResult.Outcome.NOT_FOUND, null),
+                tuple(leaveIds.get(2), BulkUpdateResult.Outcome.UPDATED, "REJECTED"));
+        assertThat(result.count(BulkUpdateResult.Outcome.UPDATED)).isEqualTo(2);
+
+        Leave rejected = leaveRepository.findById(leaveIds.get(2)).orElseThrow();
+        assertThat(rejected.getStatus()).isEqualTo("REJECTED");
+        assertThat(rejected.getApprovedBy()).isEqualTo("admin");
+        assertThat(rejected.getComments()).isEqualTo("team offsite");
+        assertThat(leaveRepository.findById(leaveIds.get(0)).orElseThrow().getStatus()).isEqualTo("APPROVED");
+    }
+
+    @Test
+    void repeatedBulkRegularizationApprovalIsIdempotent() {
+        BulkUpdateResult first = regularizationService.bulkUpdateStatus(regularizationIds, "APPROVED", "admin", null);
+        BulkUpdateResult second = regularizationService.bulkUpdateStatus(regularizationIds, "APPROVED", "admin", null);
+
+        assertThat(first.count(BulkUpdateResult.Outcome.UPDATED)).isEqualTo(3);
+        assertThat(second.count(BulkUpdateResult.Outcome.ALREADY_PROCESSED)).isEqualTo(3);
+        assertThat(regularizationRepository.findAllById(regularizationIds))
+                .allSatisfy(r -> assertThat(r.getStatus()).isEqualTo("APPROVED"));
+    }
+
+    @Test
+    void unknownStatusIsRejectedBeforeAnyRowIsTouched() {
+        assertThatThrownBy(() -> leaveService.bulkUpdateStatus(leaveIds, "CANCELLED", "admin", null))
+                .hasMessageContaining("Unknown status");
+        assertThatThrownBy(() -> regularizationService.bulkUpdateStatus(regularizationIds, null, "admin", null))
+                .hasMessageContaining("Unknown status");
+        assertThat(leaveRepository.findAllById(leaveIds))
+                .allSatisfy(l -> assertThat(l.getStatus()).isEqualTo("PENDING"));
+    }
+}
@@ -0,0 +1,136 @@
+package com.attendance.service;
+
+import com.attendance.archive.ColumnarMonth;
+import com.attendance.archive.ColumnarMonthWriter;
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.repository.ArchivedAttendanceRepository;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ColumnarArchiveServiceTests {
+
+    @Autowired
+    private ColumnarArchiveService columnarArchiveService;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    private YearMonth oldMonth;
+    private YearMonth lastClosedMonth;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        YearMonth cutoff = YearMonth.from(attendanceRepository.getArchiveCutoff());
+        oldMonth = cutoff.minusMonths(2);
+        lastClosedMonth = cutoff.minusMonths(1);
+
+        user = new User();
+        user.setUsername("columnar.user");
+        user.setPassword("secret");
+        user.setEmail("columnar.user@company.com");
+        user.setFirstName("Columnar");
+        user.setLastName("User");
+        user.setEmployeeId("CO1");
+        user.setRole("EMPLOYEE");
+        user.setDepartment("Archive");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        archivedAttendanceRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void archivedRangesAreServedFromTheColumnarFiles() {
+        attendance(oldMonth.atDay(3), "PRESENT", 8.5, 15, 0.5);
+        attendance(oldMonth.atDay(4), "ABSENT", null, null, null);
+        attendance(oldMonth.atDay(20), "PRESENT", 9.25, 0, 1.25);
+        attendance(lastClosedMonth.atDay(2), "ON_LEAVE", null, null, null);
+        attendance(LocalDate.now(), "PRESENT", 8.0, 0, 0.0);
+        archiveService.archiveClosedMonths();
+
+        List<ColumnarMonth> files = columnarArchiveService.getMonths(oldMonth.atDay(1), lastClosedMonth.atEndOfMonth())
+                .orElseThrow();
+        assertThat(files).extracting(ColumnarMonth::getMonth).containsExactly(oldMonth, lastClosedMonth);
+        assertThat(files).extracting(ColumnarMonth::getRowCount).containsExactly(3, 1);
+        // A second read reuses the opened files
+        assertThat(columnarArchiveService.getMonths(oldMonth.atDay(4), oldMonth.atDay(20)).orElseThrow())
+                .containsExactly(files.get(0));
+
+        // Anything touching a hot day is left to the database
+        assertThat(columnarArchiveService.getMonths(oldMonth.atDay(1), LocalDate.now())).isEmpty();
+    }
+
+    @Test
+    void monthFilesRoundTripDictionariesAndFixedPointHours(@TempDir Path directory) throws IOException {
+        YearMonth month = YearMonth.of(2024, 2);
+        ColumnarMonthWriter writer = new ColumnarMonthWriter(month);
+        writer.add(70_000L, month.atDay(1), "PRESENT", 8.0, 10, 0.0);
+        writer.add(5L, month.atDay(1), "ABSENT", null, null, null);
+        writer.add(70_000L, month.atDay(15), "PRESENT", 10.33, 0, 2.33);
+        writer.add(5L, month.atDay(29), "PRESENT", 7.5, 45, null);
+        Path file = directory.resolve("month.col");
+        writer.writeTo(file);
+
+        ColumnarMonth columns = ColumnarMonth.open(file);
+        assertThat(columns.getMonth()).isEqualTo(month);
+        assertThat(columns.getRowCount()).isEqualTo(4);
+        assertThat(columns.getUserCount()).isEqualTo(2);
+
+        assertThat(columns.userId(0)).isEqualTo(70_000L);
+        assertThat(columns.status(0)).isEqualTo("PRESENT");
+        assertThat(columns.lateMinutes(0)).isEqualTo(10);
+        assertThat(columns.userId(1)).isEqualTo(5L);
+        assertThat(columns.status(1)).isEqualTo("ABSENT");
+        assertThat(columns.totalHours(1)).isZero();
+        assertThat(columns.totalHours(2)).isEqualTo(1033);
+        assertThat(columns.overtimeHours(2)).isEqualTo(233);
+        assertThat(columns.totalHours(3)).isEqualTo(750);
+        assertThat(columns.lateMinutes(3)).isEqualTo(45);
+
+        assertThat(columns.firstRow(month.atDay(2))).isEqualTo(2);
+        assertThat(columns.endRow(month.atDay(28))).isEqualTo(3);
+        assertThat(columns.firstRow(month.minusMonths(1).atDay(1))).isZero();
+        assertThat(columns.endRow(month.minusMonths(1).atEndOfMonth())).isZero();
+        assertThat(columns.endRow(month.plusMonths(1).atDay(1))).isEqualTo(4);
+    }
+
+    private void attendance(LocalDate date, String status, Double totalHours, Integer lateMinutes, Double overtime) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setStatus(status);
+        attendance.setTotalHours(totalHours);
+        attendance.setLateMinutes(lateMinutes);
+        attendance.setOvertimeHours(overtime);
+        attendanceRepository.save(attendance);
+    }
+}
@@ -0,0 +1,163 @@
+package com.attendance.service;
+
+import com.attendance.entity.Leave;
+import com.attendance.entity.User;
+import com.attendance.event.LeaveStatusChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = "attendance.feed.buffer-size=4")
+class DashboardFeedTests {
+
+    @Autowired
+    private DashboardFeed dashboardFeed;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("feed.user");
+        user.setPassword("secret");
+        user.setEmail("feed.user@company.com");
+        user.setFirstName("Feed");
+        user.setLastName("User");
+        user.setEmployeeId("FD1");
+        user.setRole("EMPLOYEE");
+        user.setDepartment("Support");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        emitters.forEach(RecordingEmitter::complete);
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        leaveBalanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void subscribersReceiveCountersThenActivity() {
+        RecordingEmitter emitter = subscribe();
+
+        attendanceService.punchIn(user.getId());
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType("SICK");
+        leave.setStartDate(LocalDate.now().plusDays(1));
+        leave.setEndDate(LocalDate.now().plusDays(1));
+        leaveService.applyLeave(leave);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() >= 3);
+        assertThat(emitter.events.get(0)).contains("event:counters").contains("\"openSessions\"");
+        assertThat(emitter.events.get(1)).contains("event:punch-in").contains("\"name\":\"Feed User\"");
+        assertThat(emitter.events.get(2)).contains("event:leave-applied").contains("\"department\":\"Support\"");
+    }
+
+    @Test
+    void slowSubscriberIsResyncedWithoutHoldingUpOthers() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(release);
+        RecordingEmitter fast = subscribe();
+
+        // Each event is delivered to the fast subscriber before the next one is published
+        for (int i = 0; i < 10; i++) {
+            long leaveId = i;
+            dashboardFeed.onLeaveStatusChanged(new LeaveStatusChangedEvent(leaveId, user.getId(), null, "PENDING"));
+            await().atMost(Duration.ofSeconds(2))
+                    .until(() -> fast.events.stream().anyMatch(e -> e.contains("\"referenceId\":" + leaveId)));
+        }
+        assertThat(slow.events).isEmpty();
+
+        // The slow subscriber overflowed while stuck on its first send and is told to resync
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.events.stream().anyMatch(e -> e.contains("event:resync")));
+        assertThat(slow.events.size()).isLessThan(11);
+    }
+
+    private RecordingEmitter subscribe() {
+        return subscribe(new CountDownLatch(0));
+    }
+
+    private RecordingEmitter subscribe(CountDownLatch release) {
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        assertThat(dashboardFeed.subscribe(emitter)).isTrue();
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /** Captures what would be written to the browser; sends block until {@code release} opens. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(builder.build().stream()
+                    .map(part -> part.getData() instanceof String text ? text : toJson(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        private static String toJson(Object data) {
+            try {
+                return new ObjectMapper().findAndRegisterModules().writeValueAsString(data);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
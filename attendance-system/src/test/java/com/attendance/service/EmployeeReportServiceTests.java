@@ -0,0 +1,150 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.Leave;
+import com.attendance.entity.User;
+import com.attendance.repository.ArchivedAttendanceRepository;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.UserRepository;
+import com.attendance.service.EmployeeReportService.DepartmentSummary;
+import com.attendance.service.EmployeeReportService.EmployeeSummary;
+import com.attendance.service.EmployeeReportService.Report;
+import com.attendance.service.EmployeeReportService.Totals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// One employee per task, so even three employees are split across fork/join tasks
+@SpringBootTest(properties = "attendance.reports.employees-per-task=1")
+class EmployeeReportServiceTests {
+
+    @Autowired
+    private EmployeeReportService employeeReportService;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private ArchivedAttendanceRepository archivedAttendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private YearMonth hotMonth;
+    private YearMonth archivedMonth;
+
+    @BeforeEach
+    void seed() {
+        hotMonth = YearMonth.from(attendanceRepository.getArchiveCutoff());
+        archivedMonth = hotMonth.minusMonths(1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        leaveRepository.deleteAll();
+        archivedAttendanceRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void summarizesEmployeesAndDepartmentsAcrossArchivedAndHotMonths() {
+        User alice = user("report.alice", "Report A", "EMPLOYEE");
+        User bob = user("report.bob", "Report A", "EMPLOYEE");
+        User carol = user("report.carol", "Report B", "EMPLOYEE");
+        User admin = user("report.admin", "Report A", "ADMIN");
+
+        attendance(alice, archivedMonth.atDay(5), "PRESENT", 8.0, 30, null);
+        attendance(carol, archivedMonth.atDay(5), "ABSENT", null, null, null);
+        archiveService.archiveClosedMonths();
+        attendance(alice, hotMonth.atDay(2), "PRESENT", 8.5, 10, 0.5);
+        attendance(alice, hotMonth.atDay(3), "PRESENT", 9.0, 0, 1.0);
+        attendance(bob, hotMonth.atDay(2), "ABSENT", null, null, null);
+        attendance(carol, hotMonth.atDay(2), "PRESENT", 8.0, 20, null);
+        attendance(admin, hotMonth.atDay(2), "PRESENT", 8.0, 0, null);
+        leave(bob, hotMonth.atDay(10), hotMonth.atDay(12), "APPROVED");
+        leave(bob, hotMonth.atEndOfMonth(), hotMonth.plusMonths(1).atDay(3), "APPROVED");
+        leave(carol, hotMonth.atDay(10), hotMonth.atDay(12), "PENDING");
+
+        Report report = employeeReportService.getReport(archivedMonth.atDay(1), hotMonth.atEndOfMonth());
+
+        Map<String, EmployeeSummary> employees = report.employees().stream()
+                .collect(Collectors.toMap(EmployeeSummary::employeeId, Function.identity()));
+        assertThat(employees).doesNotContainKey(admin.getEmployeeId());
+        assertThat(employees.get(alice.getEmployeeId()).totals()).isEqualTo(new Totals(3, 0, 2, 20, 25.5, 1.5, 0));
+        assertThat(employees.get(bob.getEmployeeId()).totals()).isEqualTo(new Totals(0, 1, 0, 0, 0, 0, 4));
+        assertThat(employees.get(carol.getEmployeeId()).totals()).isEqualTo(new Totals(1, 1, 1, 20, 8, 0, 0));
+        assertThat(employees.get(alice.getEmployeeId()).name()).isEqualTo("Report Alice");
+
+        Map<String, DepartmentSummary> departments = report.departments().stream()
+                .collect(Collectors.toMap(DepartmentSummary::department, Function.identity()));
+        assertThat(departments.get("Report A").employees()).isEqualTo(2);
+        assertThat(departments.get("Report A").totals()).isEqualTo(new Totals(3, 1, 2, 20, 25.5, 1.5, 4));
+        assertThat(departments.get("Report B").employees()).isEqualTo(1);
+        assertThat(departments.get("Report B").totals()).isEqualTo(new Totals(1, 1, 1, 20, 8, 0, 0));
+
+        // A range wholly in the archive is read from the columnar file
+        Report archived = employeeReportService.getReport(archivedMonth.atDay(1), archivedMonth.atEndOfMonth());
+        assertThat(archived.employees()).filteredOn(e -> e.employeeId().equals(alice.getEmployeeId()))
+                .extracting(EmployeeSummary::totals)
+                .containsExactly(new Totals(1, 0, 1, 30, 8, 0, 0));
+    }
+
+    private User user(String username, String department, String role) {
+        String name = username.substring(username.indexOf('.') + 1);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@company.com");
+        user.setFirstName("Report");
+        user.setLastName(Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        user.setEmployeeId("RP-" + name);
+        user.setRole(role);
+        user.setDepartment(department);
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    private void attendance(User user, LocalDate date, String status, Double totalHours, Integer lateMinutes,
+                            Double overtime) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setStatus(status);
+        attendance.setTotalHours(totalHours);
+        attendance.setLateMinutes(lateMinutes);
+        attendance.setOvertimeHours(overtime);
+        attendanceRepository.save(attendance);
+    }
+
+    private void leave(User user, LocalDate start, LocalDate end, String status) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType("CASUAL");
+        leave.setStartDate(start);
+        leave.setEndDate(end);
+        leave.setReason("Test");
+        leave.setStatus(status);
+        leaveRepository.save(leave);
+    }
+}
@@ -0,0 +1,205 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.Leave;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.entity.Regularization;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.RegularizationRepository;
+import com.attendance.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of JDBC statements each read path issues while the view walks
+ * {@code row.user}, so an N+1 regression in a fetch plan fails the build.
+ */
+@SpringBootTest
+class FetchPlanStatementCountTests {
+
+    private static final int USERS = 5;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private RegularizationService regularizationService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private RegularizationRepository regularizationRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OpenSessionRegistry openSessionRegistry;
+
+    private final List<User> users = new ArrayList<>();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("fetch.user" + i);
+            user.setPassword("secret");
+            user.setEmail("fetch.user" + i + "@company.com");
+            user.setFirstName("Fetch" + i);
+            user.setLastName("User");
+            user.setEmployeeId("FP" + i);
+            user.setRole("EMPLOYEE");
+            user.setDepartment("Engineering");
+            users.add(userRepository.save(user));
+        }
+        for (User user : users) {
+            Attendance attendance = new Attendance();
+            attendance.setUser(user);
+            attendance.setAttendanceDate(today);
+            attendance.setPunchIn(LocalDateTime.now().minusHours(1));
+            attendance.setStatus("PRESENT");
+            attendanceRepository.save(attendance);
+
+            Leave leave = new Leave();
+            leave.setUser(user);
+            leave.setLeaveType("CASUAL");
+            leave.setStartDate(today.plusDays(3));
+            leave.setEndDate(today.plusDays(4));
+            leaveRepository.save(leave);
+
+            Regularization regularization = new Regularization();
+            regularization.setUser(user);
+            regularization.setAttendanceDate(today.minusDays(1));
+            regularization.setRequestedPunchIn("09:00");
+            regularization.setRequestedPunchOut("18:00");
+            regularizationRepository.save(regularization);
+        }
+        rollupService.rebuild(YearMonth.now());
+        // Rows saved straight through the repositories publish no events
+        openSessionRegistry.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        regularizationRepository.deleteAll();
+        leaveRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.deleteAll(users);
+        users.clear();
+        openSessionRegistry.rebuild();
+    }
+
+    @Test
+    void dailyAttendanceLoadsUsersInOneStatement() {
+        assertStatements(1, () -> attendanceService.getAllAttendance(today), Attendance::getUser);
+    }
+
+    @Test
+    void attendanceRangeLoadsUsersInOneStatement() {
+        assertStatements(1, () -> attendanceService.getAttendanceByDateRange(today.minusDays(7), today),
+                Attendance::getUser);
+    }
+
+    @Test
+    void dashboardListsLoadUsersInOneStatementEach() {
+        assertStatements(1, () -> attendanceService.getLatestAttendance(today), Attendance::getUser);
+        assertStatements(1, () -> attendanceService.getLatestOpenSessions(today), Attendance::getUser);
+        assertStatements(1, () -> leaveService.getRecentPendingLeaves(), Leave::getUser);
+    }
+
+    @Test
+    void leaveListsLoadUsersInOneStatement() {
+        assertStatements(1, () -> leaveService.getAllLeaves(), Leave::getUser);
+        assertStatements(1, () -> leaveService.getPendingLeaves(), Leave::getUser);
+    }
+
+    @Test
+    void regularizationListsLoadUsersInOneStatement() {
+        assertStatements(1, () -> regularizationService.getAllRegularizations(), Regularization::getUser);
+        assertStatements(1, () -> regularizationService.getPendingRegularizations(), Regularization::getUser);
+    }
+
+    @Test
+    void monthlyRollupsLoadUsersInOneStatement() {
+        assertStatements(1, () -> rollupService.getMonthRollups(YearMonth.now()),
+                MonthlyAttendanceRollup::getUser);
+    }
+
+    @Test
+    void keysetPagesLoadUsersInOneStatement() {
+        KeysetPage<Leave> firstLeaves = leaveService.getLeavesPage(null, 2);
+        assertStatements(1, () -> leaveService.getLeavesPage(firstLeaves.getNextCursor(), 2).getItems(),
+                Leave::getUser);
+        KeysetPage<Regularization> firstRegularizations = regularizationService.getRegularizationsPage(null, 2);
+        assertStatements(1, () -> regularizationService
+                .getRegularizationsPage(firstRegularizations.getNextCursor(), 2).getItems(), Regularization::getUser);
+        KeysetPage<Attendance> firstAttendance = attendanceService.getAttendancePage(today, null, 2);
+        assertStatements(1, () -> attendanceService
+                .getAttendancePage(today, firstAttendance.getNextCursor(), 2).getItems(), Attendance::getUser);
+    }
+
+    @Test
+    void employeeAttendanceDoesNotTouchUserRows() {
+        Long userId = users.get(0).getId();
+        assertStatements(2, () -> attendanceService.getUserAttendance(userId, today.minusDays(7), today),
+                attendance -> null);
+    }
+
+    private <T> void assertStatements(long expected, Supplier<List<T>> call,
+                                      Function<T, User> userOf) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Runs inside one transaction, like a request rendered with open-session-in-view
+        transactionTemplate.executeWithoutResult(status -> {
+            statistics.clear();
+            List<T> rows = call.get();
+            assertThat(rows).isNotEmpty();
+            for (T row : rows) {
+                User user = userOf.apply(row);
+                if (user != null) {
+                    assertThat(user.getFirstName()).isNotNull();
+                }
+            }
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+        });
+    }
+}
@@ -0,0 +1,137 @@
+package com.attendance.service;
+
+import com.attendance.entity.Leave;
+import com.attendance.entity.LeaveBalance;
+import com.attendance.entity.User;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LeaveBalanceServiceTests {
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    private final int year = 2030;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("balance.user");
+        user.setPassword("secret");
+        user.setEmail("balance.user@company.com");
+        user.setFirstName("Balance");
+        user.setLastName("User");
+        user.setEmployeeId("LB1");
+        user.setRole("EMPLOYEE");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        leaveBalanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void leaveLifecycleMovesDaysBetweenPendingAndTaken() {
+        Leave approved = leaveService.applyLeave(leave("SICK", LocalDate.of(year, 3, 2), LocalDate.of(year, 3, 4)));
+        Leave rejected = leaveService.applyLeave(leave("SICK", LocalDate.of(year, 4, 6), LocalDate.of(year, 4, 7)));
+
+        assertBalance("SICK", 0, 5, 7);
+
+        leaveService.approveLeave(approved.getId(), "admin", null);
+        leaveService.rejectLeave(rejected.getId(), "admin", null);
+
+        assertBalance("SICK", 3, 0, 9);
+    }
+
+    @Test
+    void bulkUpdatesAndOverdrawnApplicationsKeepTheLedgerInStep() {
+        Leave first = leaveService.applyLeave(leave("CASUAL", LocalDate.of(year, 5, 4), LocalDate.of(year, 5, 8)));
+        Leave second = leaveService.applyLeave(leave("CASUAL", LocalDate.of(year, 6, 1), LocalDate.of(year, 6, 5)));
+
+        leaveService.bulkUpdateStatus(List.of(first.getId(), second.getId()), "APPROVED", "admin", null);
+        assertBalance("CASUAL", 10, 0, 2);
+
+        assertThatThrownBy(() -> leaveService.applyLeave(leave("CASUAL", LocalDate.of(year, 7, 1), LocalDate.of(year, 7, 3))))
+                .hasMessageContaining("2 day(s) available");
+        assertThat(leaveRepository.findByUser(user)).hasSize(2);
+        assertBalance("CASUAL", 10, 0, 2);
+    }
+
+    @Test
+    void leaveOverNewYearIsChargedToBothYearsAndUnusedDaysCarryForward() {
+        Leave leave = leaveService.applyLeave(leave("EARNED", LocalDate.of(year, 12, 30), LocalDate.of(year + 1, 1, 2)));
+        leaveService.approveLeave(leave.getId(), "admin", null);
+
+        assertBalance("EARNED", 2, 0, 13);
+        LeaveBalance next = leaveBalanceService.getBalance(user.getId(), year + 1, "EARNED");
+        assertThat(next.getTakenDays()).isEqualTo(2);
+        assertThat(next.getCarriedForwardDays()).isEqualTo(10);
+
+        // Days taken later in the old year shrink what the New Year run carries over
+        Leave later = leaveService.applyLeave(leave("EARNED", LocalDate.of(year, 8, 3), LocalDate.of(year, 8, 10)));
+        leaveService.approveLeave(later.getId(), "admin", null);
+
+        assertThat(leaveBalanceService.carryForward(year + 1)).isEqualTo(1);
+        assertThat(leaveBalanceService.carryForward(year + 1)).isZero();
+        next = leaveBalanceService.getBalance(user.getId(), year + 1, "EARNED");
+        assertThat(next.getCarriedForwardDays()).isEqualTo(5);
+        assertThat(next.getAvailableDays()).isEqualTo(15 + 5 - 2);
+    }
+
+    @Test
+    void missingBalanceIsSeededFromLeavesAlreadyOnFile() {
+        Leave approved = leave("SICK", LocalDate.of(year, 2, 1), LocalDate.of(year, 2, 2));
+        approved.setStatus("APPROVED");
+        leaveRepository.save(approved);
+        leaveRepository.save(leave("SICK", LocalDate.of(year, 9, 1), LocalDate.of(year, 9, 1)));
+
+        assertBalance("SICK", 2, 1, 9);
+        assertThat(leaveBalanceService.getBalances(user.getId(), year))
+                .extracting(LeaveBalance::getLeaveType).containsExactly("CASUAL", "EARNED", "SICK");
+    }
+
+    private void assertBalance(String leaveType, int taken, int pending, int available) {
+        LeaveBalance balance = leaveBalanceService.getBalance(user.getId(), year, leaveType);
+        assertThat(balance.getTakenDays()).isEqualTo(taken);
+        assertThat(balance.getPendingDays()).isEqualTo(pending);
+        assertThat(balance.getAvailableDays()).isEqualTo(available);
+    }
+
+    private Leave leave(String leaveType, LocalDate start, LocalDate end) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType(leaveType);
+        leave.setStartDate(start);
+        leave.setEndDate(end);
+        leave.setReason("Test");
+        return leave;
+    }
+}
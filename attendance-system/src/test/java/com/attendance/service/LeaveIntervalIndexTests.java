@@ -0,0 +1,169 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.Leave;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import com.attendance.service.LeaveIntervalIndex.Intervals;
+import com.attendance.service.LeaveIntervalIndex.Span;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LeaveIntervalIndexTests {
+
+    @Autowired
+    private LeaveIntervalIndex leaveIntervalIndex;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    private final LocalDate today = LocalDate.now();
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("interval.user");
+        user.setPassword("secret");
+        user.setEmail("interval.user@company.com");
+        user.setFirstName("Interval");
+        user.setLastName("User");
+        user.setEmployeeId("LI1");
+        user.setRole("EMPLOYEE");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        leaveBalanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void longLeaveIsFoundBehindShorterOnesThatStartLater() {
+        Span longLeave = span(1L, 1, 20);
+        Intervals intervals = new Intervals(List.of(span(2L, 3, 4), longLeave, span(3L, 10, 11), span(4L, 25, 26)));
+
+        assertThat(intervals.overlapping(day(15), day(16))).isEqualTo(longLeave);
+        assertThat(intervals.overlapping(day(21), day(24))).isNull();
+        assertThat(intervals.overlapping(day(24), day(30)).leaveId()).isEqualTo(4L);
+        assertThat(new Intervals(List.of()).overlapping(day(1), day(1))).isNull();
+    }
+
+    @Test
+    void overlappingApplicationsAreRejectedUntilTheEarlierLeaveIsRejected() {
+        Leave first = leaveService.applyLeave(leave(today.plusDays(10), today.plusDays(12)));
+
+        assertThatThrownBy(() -> leaveService.applyLeave(leave(today.plusDays(12), today.plusDays(13))))
+                .hasMessageContaining("overlaps your pending leave");
+        assertThatThrownBy(() -> leaveService.applyLeave(leave(today.plusDays(10), today.plusDays(12))))
+                .hasMessageContaining("overlaps");
+
+        leaveService.rejectLeave(first.getId(), "admin", null);
+
+        assertThat(leaveService.applyLeave(leave(today.plusDays(12), today.plusDays(13))).getId()).isNotNull();
+    }
+
+    @Test
+    void concurrentOverlappingApplicationsLetOnlyOneThrough() throws Exception {
+        // Loads the user's timeline, so both applications below start from the cached index
+        leaveService.applyLeave(leave(today.plusDays(1), today.plusDays(1)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> apply = () -> {
+            start.await();
+            try {
+                leaveService.applyLeave(leave(today.plusDays(20), today.plusDays(21)));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        };
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            results.add(executor.submit(apply));
+            results.add(executor.submit(apply));
+            start.countDown();
+
+            int applied = 0;
+            for (Future<Boolean> result : results) {
+                applied += result.get() ? 1 : 0;
+            }
+            assertThat(applied).isEqualTo(1);
+            assertThat(leaveRepository.findByUser(user)).hasSize(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approvedLeaveFlagsPunchInOnThatDay() {
+        Leave leave = leaveService.applyLeave(leave(today, today));
+        assertThat(leaveIntervalIndex.isOnLeave(user.getId(), today)).isFalse();
+
+        leaveService.approveLeave(leave.getId(), "admin", null);
+
+        assertThat(leaveIntervalIndex.isOnLeave(user.getId(), today)).isTrue();
+        assertThat(leaveIntervalIndex.onLeave(List.of(user.getId(), -1L), today)).containsExactly(user.getId());
+        Attendance attendance = attendanceService.punchIn(user.getId());
+        assertThat(attendance.getNotes()).isEqualTo(AttendanceCalculator.ON_LEAVE_NOTE);
+    }
+
+    private Leave leave(LocalDate start, LocalDate end) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType("CASUAL");
+        leave.setStartDate(start);
+        leave.setEndDate(end);
+        leave.setReason("Test");
+        return leave;
+    }
+
+    private static Span span(Long id, int startDay, int endDay) {
+        return new Span(id, day(startDay), day(endDay), "APPROVED");
+    }
+
+    private static LocalDate day(int dayOfMonth) {
+        return LocalDate.of(2030, 1, dayOfMonth);
+    }
+}
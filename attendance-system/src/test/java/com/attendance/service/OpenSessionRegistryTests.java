@@ -0,0 +1,117 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.event.AttendanceChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OpenSessionRegistryTests {
+
+    @Autowired
+    private OpenSessionRegistry openSessionRegistry;
+
+    @Autowired
+    private StaleSessionSweeper sweeper;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    private final LocalDate today = LocalDate.now();
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("session.user");
+        user.setPassword("secret");
+        user.setEmail("session.user@company.com");
+        user.setFirstName("Session");
+        user.setLastName("User");
+        user.setEmployeeId("SS1");
+        user.setRole("EMPLOYEE");
+        user = userRepository.save(user);
+        openSessionRegistry.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.delete(user);
+        openSessionRegistry.rebuild();
+    }
+
+    @Test
+    void punchesOpenAndCloseRegistrySessions() {
+        attendanceService.punchIn(user.getId());
+
+        assertThat(openSessionRegistry.count(today)).isEqualTo(1);
+        assertThat(attendanceService.getLatestOpenSessions(today))
+                .extracting(a -> a.getUser().getId()).containsExactly(user.getId());
+
+        attendanceService.punchOut(user.getId());
+
+        assertThat(openSessionRegistry.count(today)).isZero();
+        assertThat(attendanceService.countOpenSessions(today)).isZero();
+    }
+
+    @Test
+    void historicalSessionsAreClosedAtTheAutoCloseTime() {
+        LocalDate lastWeek = today.minusDays(7);
+        Attendance forgotten = open(lastWeek);
+        forgotten.setNotes("Client visit");
+        attendanceRepository.save(forgotten);
+
+        assertThat(sweeper.sweepHistory()).isEqualTo(1);
+        assertThat(sweeper.sweepHistory()).isZero();
+
+        Attendance closed = attendanceRepository.findById(forgotten.getId()).orElseThrow();
+        assertThat(closed.getPunchOut()).isEqualTo(lastWeek.atTime(18, 30));
+        assertThat(closed.getTotalHours()).isEqualTo(9.5);
+        assertThat(closed.getNotes()).isEqualTo("Client visit; " + StaleSessionSweeper.AUTO_CLOSE_NOTE);
+    }
+
+    @Test
+    void sweeperClosesRegistrySessionsFromEarlierDays() {
+        LocalDate yesterday = today.minusDays(1);
+        Attendance attendance = open(yesterday);
+        openSessionRegistry.onAttendanceChanged(new AttendanceChangedEvent(AttendanceChangedEvent.Type.PUNCH_IN,
+                user.getId(), yesterday, AttendanceChangedEvent.State.NONE, AttendanceChangedEvent.State.of(attendance)));
+
+        assertThat(sweeper.sweep()).isEqualTo(1);
+
+        assertThat(openSessionRegistry.getStaleSessions(today, today.atStartOfDay())).isEmpty();
+        Attendance closed = attendanceRepository.findById(attendance.getId()).orElseThrow();
+        assertThat(closed.getPunchOut()).isNotNull();
+        assertThat(closed.getNotes()).isEqualTo(StaleSessionSweeper.AUTO_CLOSE_NOTE);
+    }
+
+    private Attendance open(LocalDate date) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setPunchIn(date.atTime(9, 0));
+        attendance.setStatus("PRESENT");
+        return attendanceRepository.save(attendance);
+    }
+}
@@ -0,0 +1,144 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import com.attendance.service.AttendanceRollupService.Contribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+// The tests flush the queue themselves
+@SpringBootTest(properties = {
+        "attendance.ingestion.write-behind=true",
+        "attendance.ingestion.flush-interval-ms=3600000"
+})
+class PunchIngestionServiceTests {
+
+    @Autowired
+    private PunchIngestionService ingestionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("ingestion.user");
+        user.setPassword("secret");
+        user.setEmail("ingestion.user@company.com");
+        user.setFirstName("Ingestion");
+        user.setLastName("User");
+        user.setEmployeeId("IN1");
+        user.setRole("EMPLOYEE");
+        user.setDepartment("Ingestion");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void punchOutBeforeTheFlushIsWrittenWithThePunchIn() {
+        ingestionService.punchIn(user.getId());
+        ingestionService.punchOut(user.getId());
+        assertThat(ingestionService.getQueueDepth()).isEqualTo(1);
+
+        ingestionService.flush();
+
+        assertThat(stored().getPunchIn()).isNotNull();
+        assertThat(stored().getPunchOut()).isNotNull();
+    }
+
+    @Test
+    void punchOutAfterTheFlushIsQueuedAsItsOwnWrite() {
+        ingestionService.punchIn(user.getId());
+        ingestionService.flush();
+        assertThat(stored().getPunchOut()).isNull();
+
+        ingestionService.punchOut(user.getId());
+        assertThat(ingestionService.getQueueDepth()).isEqualTo(1);
+        assertThatThrownBy(() -> ingestionService.punchOut(user.getId()))
+                .hasMessageContaining("Already punched out");
+        ingestionService.flush();
+
+        assertThat(stored().getPunchOut()).isNotNull();
+        assertThat(ingestionService.getTodayAttendance(user.getId()).orElseThrow().getPunchOut()).isNotNull();
+    }
+
+    @Test
+    void queuedPunchOutReplacesAnAutoCloseThatBeatItToTheTable() {
+        ingestionService.punchIn(user.getId());
+        ingestionService.flush();
+        ingestionService.punchOut(user.getId());
+
+        // What the sweeper writes, with hours that are easy to tell apart
+        Attendance open = stored();
+        jdbcTemplate.update("UPDATE attendance SET punch_out = ?, total_hours = 5.0, notes = ? WHERE id = ?",
+                Timestamp.valueOf(open.getPunchIn().plusHours(5)), StaleSessionSweeper.AUTO_CLOSE_NOTE, open.getId());
+        rollupService.record(user.getId(), LocalDate.now(), Contribution.NONE, new Contribution(0, 0, 0, 0, 5.0, 0, 0));
+
+        ingestionService.flush();
+
+        Attendance closed = stored();
+        assertThat(closed.getPunchOut()).isBefore(open.getPunchIn().plusHours(5));
+        assertThat(closed.getTotalHours()).isLessThan(5.0);
+        assertThat(closed.getNotes()).isNull();
+        assertThat(rollupService.getUserRollup(user.getId(), YearMonth.now()).orElseThrow().getTotalHours())
+                .isCloseTo(closed.getTotalHours(), within(0.001));
+        assertThatThrownBy(() -> ingestionService.punchOut(user.getId()))
+                .hasMessageContaining("Already punched out");
+    }
+
+    @Test
+    void unknownUsersAreRejectedBeforeThePunchIsAcknowledged() {
+        assertThatThrownBy(() -> ingestionService.punchIn(-1L)).hasMessage("User not found");
+        assertThat(ingestionService.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void acknowledgedPunchThatCannotBeWrittenIsCountedAsFailed() {
+        long before = ingestionService.getFailedPunches();
+        ingestionService.punchIn(user.getId());
+        userRepository.delete(user);
+
+        ingestionService.flush();
+
+        assertThat(ingestionService.getFailedPunches()).isEqualTo(before + 1);
+        assertThat(attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), LocalDate.now())).isEmpty();
+    }
+
+    private Attendance stored() {
+        return attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), LocalDate.now()).orElseThrow();
+    }
+}
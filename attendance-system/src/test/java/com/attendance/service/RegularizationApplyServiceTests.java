@@ -0,0 +1,121 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.MonthlyAttendanceRollup;
+import com.attendance.entity.Regularization;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.RegularizationRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "attendance.regularization.apply-batch-size=2")
+class RegularizationApplyServiceTests {
+
+    // Archived months are read-only, so the requests are for days of the current month
+    private static final LocalDate DAY = YearMonth.now().atDay(1);
+
+    @Autowired
+    private RegularizationApplyService applyService;
+
+    @Autowired
+    private AttendanceRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private RegularizationRepository regularizationRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("apply.user");
+        user.setPassword("secret");
+        user.setEmail("apply.user@company.com");
+        user.setFirstName("Apply");
+        user.setLastName("User");
+        user.setEmployeeId("AP1");
+        user.setRole("EMPLOYEE");
+        user = userRepository.save(user);
+
+        Attendance absent = new Attendance();
+        absent.setUser(user);
+        absent.setAttendanceDate(DAY);
+        absent.setStatus("ABSENT");
+        attendanceRepository.save(absent);
+        rollupService.rebuild(YearMonth.from(DAY));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        regularizationRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void approvedRequestsAreWrittenToAttendanceOnce() {
+        regularization(DAY, "09:45", "19:00", "APPROVED");
+        regularization(DAY.plusDays(1), "09:00", "18:00", "APPROVED");
+        regularization(DAY.plusDays(1), "", "20:00", "APPROVED");
+        regularization(DAY.plusDays(2), "not a time", "18:00", "APPROVED");
+        Regularization pending = regularization(DAY.plusDays(3), "09:00", "18:00", "PENDING");
+
+        assertThat(applyService.applyApproved()).isEqualTo(4);
+        assertThat(applyService.applyApproved()).isZero();
+
+        Attendance updated = attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), DAY).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo("PRESENT");
+        assertThat(updated.getLateMinutes()).isEqualTo(15);
+        assertThat(updated.getTotalHours()).isEqualTo(9.25);
+        assertThat(updated.getOvertimeHours()).isEqualTo(1.25);
+
+        // Two requests for the same day merge onto the row the first one created
+        Attendance inserted = attendanceRepository
+                .findByUserIdAndAttendanceDate(user.getId(), DAY.plusDays(1)).orElseThrow();
+        assertThat(inserted.getPunchIn()).isEqualTo(DAY.plusDays(1).atTime(9, 0));
+        assertThat(inserted.getPunchOut()).isEqualTo(DAY.plusDays(1).atTime(20, 0));
+        assertThat(inserted.getTotalHours()).isEqualTo(11.0);
+        assertThat(inserted.getLateMinutes()).isNull();
+
+        assertThat(attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), DAY.plusDays(2))).isEmpty();
+        assertThat(attendanceRepository.findByUserIdAndAttendanceDate(user.getId(), DAY.plusDays(3))).isEmpty();
+        assertThat(regularizationRepository.findById(pending.getId()).orElseThrow().getAppliedOn()).isNull();
+
+        MonthlyAttendanceRollup rollup = rollupService.getUserRollup(user.getId(), YearMonth.from(DAY)).orElseThrow();
+        assertThat(rollup.getPresentDays()).isEqualTo(2);
+        assertThat(rollup.getAbsentDays()).isZero();
+        assertThat(rollup.getLateDays()).isEqualTo(1);
+        assertThat(rollup.getTotalHours()).isEqualTo(20.25);
+    }
+
+    private Regularization regularization(LocalDate date, String punchIn, String punchOut, String status) {
+        Regularization regularization = new Regularization();
+        regularization.setUser(user);
+        regularization.setAttendanceDate(date);
+        regularization.setRequestedPunchIn(punchIn);
+        regularization.setRequestedPunchOut(punchOut);
+        regularization.setStatus(status);
+        regularization.setApprovedBy("admin");
+        return regularizationRepository.save(regularization);
+    }
+}
@@ -0,0 +1,178 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.User;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ReportExportServiceTests {
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final LocalDate end = LocalDate.now();
+    private final LocalDate start = end.minusDays(2);
+
+    @BeforeEach
+    void seed() {
+        User alice = user("export.alice", "Export B", "EX-2", true);
+        User bob = user("export.bob", "Export A", "EX-3", true);
+        User carol = user("export.carol", "Export A", "EX-1", true);
+        User gone = user("export.gone", "Export A", "EX-0", false);
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            attendance(alice, date, "PRESENT", "=cmd|' /C calc'!A0");
+            attendance(bob, date, "PRESENT", null);
+            attendance(carol, date, date.equals(end) ? "ABSENT" : "PRESENT", null);
+            attendance(gone, date, "PRESENT", null);
+        }
+        // Outside the range
+        attendance(alice, start.minusDays(1), "PRESENT", null);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        attendanceRepository.deleteAll();
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void exportsRowsInTheOrderOfTheInMemoryReport() throws IOException {
+        List<String[]> rows = csv(null);
+
+        assertThat(rows.get(0)).containsExactly(ReportExportService.COLUMNS);
+        // The same rows sorted in memory: newest day first, then department, then employee ID
+        List<String> expected = attendanceRepository.findByAttendanceDateBetween(start, end).stream()
+                .filter(a -> a.getUser().isActive())
+                .sorted(Comparator.comparing(Attendance::getAttendanceDate).reversed()
+                        .thenComparing(a -> a.getUser().getDepartment())
+                        .thenComparing(a -> a.getUser().getEmployeeId()))
+                .map(a -> a.getUser().getEmployeeId() + " " + a.getAttendanceDate())
+                .toList();
+        assertThat(rows.subList(1, rows.size())).extracting(row -> row[0] + " " + row[4])
+                .containsExactlyElementsOf(expected)
+                .hasSize(9);
+
+        String[] first = rows.get(1);
+        assertThat(first[1]).isEqualTo("Export Carol");
+        assertThat(first[2]).isEqualTo("Export A");
+        assertThat(first[8]).isEqualTo("ABSENT");
+        // The stored note would run as a formula in a spreadsheet; the export neutralises it
+        assertThat(rows).filteredOn(row -> row[0].equals("EX-2")).extracting(row -> row[11])
+                .containsOnly("'=cmd|' /C calc'!A0");
+    }
+
+    @Test
+    void filtersByDepartment() throws IOException {
+        List<String[]> rows = csv("Export A");
+
+        assertThat(rows.subList(1, rows.size())).extracting(row -> row[0])
+                .containsExactly("EX-1", "EX-3", "EX-1", "EX-3", "EX-1", "EX-3");
+        assertThat(reportExportService.exportAttendance(start, end, " ", ReportExportService.Format.CSV,
+                new ByteArrayOutputStream())).isEqualTo(9);
+        assertThat(reportExportService.exportAttendance(start, end, "Nobody", ReportExportService.Format.CSV,
+                new ByteArrayOutputStream())).isZero();
+    }
+
+    @Test
+    void exportsTheSameRowsAsXlsx() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = reportExportService.exportAttendance(start, end, null, ReportExportService.Format.XLSX, out);
+
+        assertThat(written).isEqualTo(9);
+        String sheet = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        assertThat(sheet).isNotNull();
+        assertThat(sheet.split("<row>", -1)).hasSize(11);
+        assertThat(sheet).contains("<t xml:space=\"preserve\">" + end + "</t>");
+    }
+
+    @Test
+    void previewIsTheFirstPageOfTheExport() throws IOException {
+        List<String[]> rows = csv(null);
+
+        List<Attendance> preview = reportExportService.previewAttendance(start, end, 4);
+
+        assertThat(preview).hasSize(4);
+        assertThat(preview).extracting(a -> a.getUser().getEmployeeId() + " " + a.getAttendanceDate())
+                .containsExactlyElementsOf(rows.subList(1, 5).stream().map(row -> row[0] + " " + row[4]).toList());
+        assertThat(reportExportService.previewAttendance(start, end, 50)).hasSize(9);
+    }
+
+    private List<String[]> csv(String department) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = reportExportService.exportAttendance(start, end, department, ReportExportService.Format.CSV, out);
+        // No field in these rows needs quoting, so a plain split is enough
+        List<String[]> rows = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\r\n"))
+                .map(line -> line.split(",", -1))
+                .toList();
+        assertThat(rows).hasSize((int) written + 1);
+        return rows;
+    }
+
+    private User user(String username, String department, String employeeId, boolean active) {
+        String name = username.substring(username.indexOf('.') + 1);
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@company.com");
+        user.setFirstName("Export");
+        user.setLastName(Character.toUpperCase(name.charAt(0)) + name.substring(1));
+        user.setEmployeeId(employeeId);
+        user.setRole("EMPLOYEE");
+        user.setDepartment(department);
+        user.setActive(active);
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    private void attendance(User user, LocalDate date, String status, String notes) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setStatus(status);
+        attendance.setNotes(notes);
+        if ("PRESENT".equals(status)) {
+            attendance.setPunchIn(LocalDateTime.of(date, LocalTime.of(9, 0)));
+            attendance.setPunchOut(LocalDateTime.of(date, LocalTime.of(17, 30)));
+            attendance.setTotalHours(8.5);
+            attendance.setLateMinutes(0);
+        }
+        attendanceRepository.save(attendance);
+    }
+}
@@ -0,0 +1,175 @@
+package com.attendance.service;
+
+import com.attendance.entity.Attendance;
+import com.attendance.entity.Leave;
+import com.attendance.entity.User;
+import com.attendance.event.UserChangedEvent;
+import com.attendance.repository.AttendanceRepository;
+import com.attendance.repository.LeaveBalanceRepository;
+import com.attendance.repository.LeaveRepository;
+import com.attendance.repository.MonthlyAttendanceRollupRepository;
+import com.attendance.repository.UserRepository;
+import com.attendance.service.TeamAvailabilityIndex.Availability;
+import com.attendance.service.TeamAvailabilityIndex.Day;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class TeamAvailabilityIndexTests {
+
+    @Autowired
+    private TeamAvailabilityIndex teamAvailabilityIndex;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private MonthlyAttendanceRollupRepository rollupRepository;
+
+    // A month no other test touches, so rows saved straight to the repositories are what gets loaded
+    private final LocalDate first = LocalDate.of(2029, 3, 1);
+    private final LocalDate today = LocalDate.now();
+    private final List<User> users = new ArrayList<>();
+    private User present;
+    private User onLeave;
+    private User absent;
+    private User elsewhere;
+
+    @BeforeEach
+    void seed() {
+        present = user("avail.present", "Ops");
+        onLeave = user("avail.leave", "Ops");
+        absent = user("avail.absent", "Ops");
+        elsewhere = user("avail.elsewhere", "Sales");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        rollupRepository.deleteAll();
+        attendanceRepository.deleteAll();
+        leaveBalanceRepository.deleteAll();
+        leaveRepository.deleteAll();
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void departmentRangeIsSplitByStatus() {
+        attendance(present, first, "PRESENT");
+        attendance(absent, first, "ABSENT");
+        attendance(elsewhere, first, "PRESENT");
+        Leave leave = leave(onLeave, first, first.plusDays(1));
+        leave.setStatus("APPROVED");
+        leaveRepository.save(leave);
+
+        Availability availability = teamAvailabilityIndex.getAvailability("Ops", first, first.plusDays(1));
+
+        assertThat(availability.employees()).containsOnlyKeys(present.getId(), onLeave.getId(), absent.getId());
+        Day day = availability.days().get(0);
+        assertThat(day.present()).containsExactly(present.getId());
+        assertThat(day.onLeave()).containsExactly(onLeave.getId());
+        assertThat(day.absent()).containsExactly(absent.getId());
+        assertThat(day.unaccounted()).isEmpty();
+        Day next = availability.days().get(1);
+        assertThat(next.onLeave()).containsExactly(onLeave.getId());
+        assertThat(next.unaccounted()).containsExactlyInAnyOrder(present.getId(), absent.getId());
+    }
+
+    @Test
+    void punchesAndLeaveDecisionsAreReflectedInLoadedMonths() {
+        LocalDate tomorrow = today.plusDays(1);
+        teamAvailabilityIndex.getAvailability("Ops", today, tomorrow);
+
+        attendanceService.punchIn(present.getId());
+        Leave leave = leaveService.applyLeave(leave(onLeave, tomorrow, tomorrow));
+        leaveService.approveLeave(leave.getId(), "admin", null);
+
+        Availability availability = teamAvailabilityIndex.getAvailability("Ops", today, tomorrow);
+        assertThat(availability.days().get(0).present()).containsExactly(present.getId());
+        assertThat(availability.days().get(1).onLeave()).containsExactly(onLeave.getId());
+    }
+
+    @Test
+    void correctingAnOnLeaveRowClearsTheLeaveButKeepsApprovedLeave() {
+        LocalDate day = first.plusMonths(1);
+        Attendance marked = attendance(present, day, "ON_LEAVE");
+        attendance(onLeave, day, "PRESENT");
+        Leave leave = leave(onLeave, day, day);
+        leave.setStatus("APPROVED");
+        leaveRepository.save(leave);
+        assertThat(teamAvailabilityIndex.getAvailability("Ops", day, day).days().get(0).onLeave())
+                .containsExactlyInAnyOrder(present.getId(), onLeave.getId());
+
+        marked.setStatus("PRESENT");
+        attendanceService.updateAttendance(marked.getId(), marked);
+
+        Day corrected = teamAvailabilityIndex.getAvailability("Ops", day, day).days().get(0);
+        assertThat(corrected.present()).containsExactlyInAnyOrder(present.getId(), onLeave.getId());
+        assertThat(corrected.onLeave()).containsExactly(onLeave.getId());
+    }
+
+    @Test
+    void rangesAreBounded() {
+        assertThatThrownBy(() -> teamAvailabilityIndex.getAvailability("Ops", first, first.plusDays(100)))
+                .hasMessageContaining("cannot exceed");
+    }
+
+    private User user(String username, String department) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@company.com");
+        user.setFirstName("Avail");
+        user.setLastName(username);
+        user.setEmployeeId(username.toUpperCase());
+        user.setRole("EMPLOYEE");
+        user.setDepartment(department);
+        user = userRepository.save(user);
+        users.add(user);
+        // Saved straight to the repository, so announce it the way UserService would
+        teamAvailabilityIndex.onUserChanged(new UserChangedEvent(user.getId(), username, "EMPLOYEE", true, true));
+        return user;
+    }
+
+    private Attendance attendance(User user, LocalDate date, String status) {
+        Attendance attendance = new Attendance();
+        attendance.setUser(user);
+        attendance.setAttendanceDate(date);
+        attendance.setStatus(status);
+        return attendanceRepository.save(attendance);
+    }
+
+    private Leave leave(User user, LocalDate start, LocalDate end) {
+        Leave leave = new Leave();
+        leave.setUser(user);
+        leave.setLeaveType("CASUAL");
+        leave.setStartDate(start);
+        leave.setEndDate(end);
+        leave.setReason("Test");
+        return leave;
+    }
+}
@@ -0,0 +1,97 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserLookupServiceTests {
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = new User();
+        user.setUsername("lookup.user");
+        user.setPassword("secret");
+        user.setEmail("lookup.user@company.com");
+        user.setFirstName("Lookup");
+        user.setLastName("User");
+        user.setEmployeeId("LK1");
+        user.setRole("EMPLOYEE");
+        user = userService.saveUser(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        RequestContextHolder.resetRequestAttributes();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void secondLevelCacheServesLookupsAcrossTransactions() {
+        // The test context binds a mock request to the thread, drop it to reach the shared cache
+        RequestContextHolder.resetRequestAttributes();
+        Long id = user.getId();
+        transactionTemplate.executeWithoutResult(status -> userLookupService.getUser(id));
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status ->
+                assertThat(userLookupService.getUser(id).getFirstName()).isEqualTo("Lookup"));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(UserLookupService.USER_REGION).getHitCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void requestCacheReturnsSameInstanceAndUpdatesEvict() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Long id = user.getId();
+        long hits = userLookupService.getStatistics().requestHits();
+
+        User first = userLookupService.getUser(id);
+        assertThat(userLookupService.getUser(id)).isSameAs(first);
+        assertThat(userLookupService.getStatistics().requestHits()).isEqualTo(hits + 1);
+
+        User details = new User();
+        details.setFirstName("Renamed");
+        details.setLastName("User");
+        details.setEmail("lookup.user@company.com");
+        userService.updateUser(id, details);
+
+        assertThat(userLookupService.getUser(id).getFirstName()).isEqualTo("Renamed");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
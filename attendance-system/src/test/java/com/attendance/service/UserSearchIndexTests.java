@@ -0,0 +1,77 @@
+package com.attendance.service;
+
+import com.attendance.entity.User;
+import com.attendance.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserSearchIndexTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAll(users);
+        users.clear();
+    }
+
+    @Test
+    void ranksExactMatchesAbovePrefixMatchesAndPages() {
+        save("Marianne", "Jones", "SRCH1", "m.jones");
+        save("Anna", "Maria", "SRCH2", "anna.m");
+        save("Maria", "Lopez", "SRCH3", "maria");
+
+        KeysetPage<User> first = userService.searchUsers("maria", null, 2);
+        assertThat(first.getItems()).extracting(User::getEmployeeId).containsExactly("SRCH2", "SRCH3");
+        assertThat(first.hasNext()).isTrue();
+
+        KeysetPage<User> second = userService.searchUsers("maria", first.getNextCursor(), 2);
+        assertThat(second.getItems()).extracting(User::getEmployeeId).containsExactly("SRCH1");
+        assertThat(second.hasNext()).isFalse();
+
+        assertThat(userService.searchUsers("S", null, 10).getItems()).hasSize(3);
+    }
+
+    @Test
+    void followsUpdatesFromUserService() {
+        User user = save("Priya", "Raman", "SRCH4", "priya.r");
+        assertThat(userService.searchUsers("raman", null, 10).getItems()).hasSize(1);
+
+        User details = new User();
+        details.setFirstName("Priya");
+        details.setLastName("Krishnan");
+        details.setEmail("priya.k@company.com");
+        userService.updateUser(user.getId(), details);
+
+        assertThat(userService.searchUsers("raman", null, 10).getItems()).isEmpty();
+        assertThat(userService.searchUsers("krishnan", null, 10).getItems())
+                .extracting(User::getId).containsExactly(user.getId());
+    }
+
+    private User save(String firstName, String lastName, String employeeId, String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@company.com");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmployeeId(employeeId);
+        user.setRole("EMPLOYEE");
+        User saved = userService.saveUser(user);
+        users.add(saved);
+        return saved;
+    }
+}